@@ -0,0 +1,200 @@
+package org.example.analysis;
+
+import org.example.model.CompiledGrammar;
+import org.example.model.Grammar;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Conjuntos anulable, FIRST y FOLLOW de una gramática. Los conjuntos son BitSet de
+ * identificadores de terminal de CompiledGrammar; el fin de entrada ("$") tiene el
+ * identificador getEndMarker() = número de terminales.
+ */
+public class GrammarAnalysis {
+
+    public static final String END_MARKER = "$";
+
+    private final CompiledGrammar compiled;
+    private final BitSet[] first;   // por símbolo
+    private final BitSet[] follow;  // por no terminal (índice desde 0)
+
+    public GrammarAnalysis(Grammar grammar) {
+        this(CompiledGrammar.of(grammar));
+    }
+
+    public GrammarAnalysis(CompiledGrammar compiled) {
+        this.compiled = compiled;
+        this.first = computeFirst();
+        this.follow = computeFollow();
+    }
+
+    private BitSet[] computeFirst() {
+        BitSet[] result = new BitSet[compiled.getSymbolCount()];
+        for (int symbol = 0; symbol < result.length; symbol++) {
+            result[symbol] = new BitSet();
+            if (compiled.isTerminal(symbol)) {
+                result[symbol].set(symbol);
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int p = 0; p < compiled.getProductionCount(); p++) {
+                BitSet target = result[compiled.leftOf(p)];
+                int before = target.cardinality();
+                for (int k = 0; k < compiled.rightLength(p); k++) {
+                    int symbol = compiled.rightSymbol(p, k);
+                    target.or(result[symbol]);
+                    if (!compiled.isNullable(symbol)) {
+                        break;
+                    }
+                }
+                changed |= target.cardinality() != before;
+            }
+        }
+        return result;
+    }
+
+    private BitSet[] computeFollow() {
+        int terminals = compiled.getTerminalCount();
+        BitSet[] result = new BitSet[compiled.getNonTerminalCount()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new BitSet();
+        }
+        result[compiled.getStartSymbol() - terminals].set(terminals); // fin de entrada
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int p = 0; p < compiled.getProductionCount(); p++) {
+                // Recorrido de derecha a izquierda: trailer es lo que puede seguir al símbolo k
+                BitSet trailer = (BitSet) result[compiled.leftOf(p) - terminals].clone();
+                for (int k = compiled.rightLength(p) - 1; k >= 0; k--) {
+                    int symbol = compiled.rightSymbol(p, k);
+                    if (compiled.isTerminal(symbol)) {
+                        trailer.clear();
+                        trailer.set(symbol);
+                        continue;
+                    }
+                    BitSet target = result[symbol - terminals];
+                    int before = target.cardinality();
+                    target.or(trailer);
+                    changed |= target.cardinality() != before;
+                    if (compiled.isNullable(symbol)) {
+                        trailer.or(first[symbol]);
+                    } else {
+                        trailer = (BitSet) first[symbol].clone();
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public CompiledGrammar getCompiledGrammar() {
+        return compiled;
+    }
+
+    /**
+     * Identificador del fin de entrada en los conjuntos FOLLOW
+     */
+    public int getEndMarker() {
+        return compiled.getTerminalCount();
+    }
+
+    public boolean isNullable(int symbol) {
+        return compiled.isNullable(symbol);
+    }
+
+    /**
+     * FIRST de un símbolo (no modificar el conjunto devuelto)
+     */
+    public BitSet first(int symbol) {
+        return first[symbol];
+    }
+
+    /**
+     * FOLLOW de un no terminal (no modificar el conjunto devuelto)
+     */
+    public BitSet follow(int nonTerminal) {
+        return follow[nonTerminal - compiled.getTerminalCount()];
+    }
+
+    /**
+     * FIRST del sufijo del lado derecho que empieza en la posición from
+     */
+    public BitSet firstOfSuffix(int production, int from) {
+        BitSet result = new BitSet();
+        for (int k = from; k < compiled.rightLength(production); k++) {
+            int symbol = compiled.rightSymbol(production, k);
+            result.or(first[symbol]);
+            if (!compiled.isNullable(symbol)) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indica si el sufijo del lado derecho desde la posición from deriva ε
+     */
+    public boolean isSuffixNullable(int production, int from) {
+        for (int k = from; k < compiled.rightLength(production); k++) {
+            if (!compiled.isNullable(compiled.rightSymbol(production, k))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Conjunto de predicción de una producción: FIRST del lado derecho, más FOLLOW del
+     * lado izquierdo si el lado derecho es anulable
+     */
+    public BitSet predict(int production) {
+        BitSet result = firstOfSuffix(production, 0);
+        if (isSuffixNullable(production, 0)) {
+            result.or(follow(compiled.leftOf(production)));
+        }
+        return result;
+    }
+
+    public boolean isNullable(String symbol) {
+        int id = idOf(symbol);
+        return compiled.isNullable(id);
+    }
+
+    public Set<String> getFirst(String symbol) {
+        return names(first[idOf(symbol)]);
+    }
+
+    public Set<String> getFollow(String nonTerminal) {
+        int id = idOf(nonTerminal);
+        if (compiled.isTerminal(id)) {
+            throw new IllegalArgumentException("FOLLOW sólo se define para no terminales: " + nonTerminal);
+        }
+        return names(follow(id));
+    }
+
+    /**
+     * Nombres de los terminales de un conjunto, con "$" para el fin de entrada
+     */
+    public Set<String> names(BitSet terminals) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int t = terminals.nextSetBit(0); t >= 0; t = terminals.nextSetBit(t + 1)) {
+            result.add(t == getEndMarker() ? END_MARKER : compiled.nameOf(t));
+        }
+        return result;
+    }
+
+    private int idOf(String symbol) {
+        int id = compiled.idOf(symbol);
+        if (id < 0) {
+            throw new IllegalArgumentException("Símbolo desconocido: " + symbol);
+        }
+        return id;
+    }
+}
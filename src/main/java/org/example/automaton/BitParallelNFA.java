@@ -0,0 +1,233 @@
+package org.example.automaton;
+
+import java.util.Arrays;
+
+/**
+ * Simulación del AFN con conjuntos de bits: el conjunto de estados activos es un long
+ * (hasta 64 estados) o un long[], y cada paso combina máscaras de sucesores precalculadas.
+ * Evita la explosión de estados de la construcción de subconjuntos.
+ */
+public class BitParallelNFA implements RegularEngine {
+
+    private final int stateCount;
+    private final int words;
+    private final int symbols;
+    private final long[] start;
+    private final long[] accepting;
+    private final long[] successors;  // [(símbolo * estados + estado) * words + palabra]
+
+    // Para un solo long: [((símbolo * 8) + byte) * 256 + valor] -> unión de sucesores de esos 8 estados
+    private final long[] byteTable;
+    private final int chunks;
+
+    private BitParallelNFA(int stateCount, int symbols, long[] start, long[] accepting, long[] successors) {
+        this.stateCount = stateCount;
+        this.words = (stateCount + 63) >>> 6;
+        this.symbols = symbols;
+        this.start = start;
+        this.accepting = accepting;
+        this.successors = successors;
+        this.chunks = (stateCount + 7) >>> 3;
+        this.byteTable = words == 1 ? buildByteTable() : null;
+    }
+
+    public static BitParallelNFA of(NFA nfa) {
+        int states = nfa.getStateCount();
+        int words = (states + 63) >>> 6;
+        int symbols = nfa.getAlphabetSize();
+
+        long[] start = new long[words];
+        start[nfa.getStartState() >>> 6] |= 1L << nfa.getStartState();
+
+        long[] accepting = new long[words];
+        for (int q = 0; q < states; q++) {
+            if (nfa.isAccepting(q)) {
+                accepting[q >>> 6] |= 1L << q;
+            }
+        }
+
+        long[] successors = new long[symbols * states * words];
+        for (int a = 0; a < symbols; a++) {
+            for (int q = 0; q < states; q++) {
+                int base = (a * states + q) * words;
+                for (int to : nfa.targets(q, a)) {
+                    successors[base + (to >>> 6)] |= 1L << to;
+                }
+            }
+        }
+
+        return new BitParallelNFA(states, symbols, start, accepting, successors);
+    }
+
+    private long[] buildByteTable() {
+        long[] table = new long[symbols * 8 * 256];
+        for (int a = 0; a < symbols; a++) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int base = ((a * 8) + chunk) << 8;
+                for (int value = 1; value < 256; value++) {
+                    // Se reutiliza la entrada sin el bit más bajo y se añade el estado de ese bit
+                    int low = Integer.numberOfTrailingZeros(value);
+                    int q = chunk * 8 + low;
+                    long successor = q < stateCount ? successors[a * stateCount + q] : 0L;
+                    table[base + value] = table[base + (value & (value - 1))] | successor;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Paso de un conjunto de un solo long: unión de una entrada de tabla por cada byte
+     */
+    private long stepSingle(long active, int symbol) {
+        long next = 0L;
+        int base = symbol << 11;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            next |= byteTable[base + (chunk << 8) + (int) ((active >>> (chunk << 3)) & 0xFF)];
+        }
+        return next;
+    }
+
+    /**
+     * Paso de un conjunto de varios long: unión de las máscaras de cada estado activo
+     */
+    private boolean stepMulti(long[] active, long[] next, int symbol) {
+        Arrays.fill(next, 0L);
+        long any = 0L;
+        for (int w = 0; w < words; w++) {
+            long bits = active[w];
+            while (bits != 0) {
+                int q = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int base = (symbol * stateCount + q) * words;
+                for (int v = 0; v < words; v++) {
+                    next[v] |= successors[base + v];
+                }
+            }
+        }
+        for (int v = 0; v < words; v++) {
+            any |= next[v];
+        }
+        return any != 0L;
+    }
+
+    private boolean intersectsAccepting(long[] active) {
+        for (int w = 0; w < words; w++) {
+            if ((active[w] & accepting[w]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean accepts(int[] input) {
+        if (words == 1) {
+            long active = start[0];
+            for (int symbol : input) {
+                if (symbol < 0) {
+                    return false;
+                }
+                active = stepSingle(active, symbol);
+                if (active == 0L) {
+                    return false;
+                }
+            }
+            return (active & accepting[0]) != 0L;
+        }
+
+        long[] active = start.clone();
+        long[] next = new long[words];
+        for (int symbol : input) {
+            if (symbol < 0 || !stepMulti(active, next, symbol)) {
+                return false;
+            }
+            long[] swap = active;
+            active = next;
+            next = swap;
+        }
+        return intersectsAccepting(active);
+    }
+
+    @Override
+    public Run newRun() {
+        return words == 1 ? new SingleWordRun() : new MultiWordRun();
+    }
+
+    @Override
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    private class SingleWordRun implements Run {
+        private long active = start[0];
+
+        @Override
+        public boolean step(int symbol) {
+            if (active != 0L) {
+                active = stepSingle(active, symbol);
+            }
+            return active != 0L;
+        }
+
+        @Override
+        public boolean isAccepting() {
+            return (active & accepting[0]) != 0L;
+        }
+
+        @Override
+        public boolean isDead() {
+            return active == 0L;
+        }
+
+        @Override
+        public void reset() {
+            active = start[0];
+        }
+
+        @Override
+        public void copyFrom(Run other) {
+            active = ((SingleWordRun) other).active;
+        }
+    }
+
+    private class MultiWordRun implements Run {
+        private long[] active = start.clone();
+        private long[] next = new long[words];
+        private boolean dead;
+
+        @Override
+        public boolean step(int symbol) {
+            if (!dead) {
+                dead = !stepMulti(active, next, symbol);
+                long[] swap = active;
+                active = next;
+                next = swap;
+            }
+            return !dead;
+        }
+
+        @Override
+        public boolean isAccepting() {
+            return !dead && intersectsAccepting(active);
+        }
+
+        @Override
+        public boolean isDead() {
+            return dead;
+        }
+
+        @Override
+        public void reset() {
+            System.arraycopy(start, 0, active, 0, words);
+            dead = false;
+        }
+
+        @Override
+        public void copyFrom(Run other) {
+            MultiWordRun source = (MultiWordRun) other;
+            System.arraycopy(source.active, 0, active, 0, words);
+            dead = source.dead;
+        }
+    }
+}
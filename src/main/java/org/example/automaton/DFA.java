@@ -0,0 +1,408 @@
+package org.example.automaton;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autómata finito determinista con tabla de transiciones int[estado][símbolo].
+ * Las transiciones indefinidas apuntan a DEAD.
+ */
+public class DFA implements RegularEngine {
+
+    public static final int DEAD = -1;
+
+    private final String[] alphabet;
+    private final int[][] transitions;
+    private final BitSet accepting;
+    private final int startState;
+
+    public DFA(String[] alphabet, int[][] transitions, BitSet accepting, int startState) {
+        this.alphabet = alphabet;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.startState = startState;
+    }
+
+    /**
+     * Determiniza un AFN mediante la construcción de subconjuntos
+     */
+    public static DFA determinize(NFA nfa) {
+        return determinize(nfa, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Determiniza un AFN deteniéndose si se superan maxStates estados.
+     * Devuelve null en ese caso.
+     */
+    public static DFA determinize(NFA nfa, int maxStates) {
+        int symbols = nfa.getAlphabetSize();
+        Map<BitSet, Integer> ids = new HashMap<>();
+        List<BitSet> subsets = new ArrayList<>();
+        List<int[]> rows = new ArrayList<>();
+        Deque<Integer> pending = new ArrayDeque<>();
+
+        BitSet initial = new BitSet(nfa.getStateCount());
+        initial.set(nfa.getStartState());
+        ids.put(initial, 0);
+        subsets.add(initial);
+        pending.add(0);
+
+        while (!pending.isEmpty()) {
+            int id = pending.poll();
+            BitSet subset = subsets.get(id);
+            int[] row = new int[symbols];
+
+            for (int a = 0; a < symbols; a++) {
+                BitSet next = new BitSet(nfa.getStateCount());
+                for (int q = subset.nextSetBit(0); q >= 0; q = subset.nextSetBit(q + 1)) {
+                    for (int to : nfa.targets(q, a)) {
+                        next.set(to);
+                    }
+                }
+
+                if (next.isEmpty()) {
+                    row[a] = DEAD;
+                    continue;
+                }
+
+                Integer target = ids.get(next);
+                if (target == null) {
+                    if (subsets.size() >= maxStates) {
+                        return null;
+                    }
+                    target = subsets.size();
+                    ids.put(next, target);
+                    subsets.add(next);
+                    pending.add(target);
+                }
+                row[a] = target;
+            }
+
+            rows.add(row); // los estados se procesan en el mismo orden en que se numeran
+        }
+
+        BitSet accepting = new BitSet(subsets.size());
+        for (int id = 0; id < subsets.size(); id++) {
+            BitSet subset = subsets.get(id);
+            for (int q = subset.nextSetBit(0); q >= 0; q = subset.nextSetBit(q + 1)) {
+                if (nfa.isAccepting(q)) {
+                    accepting.set(id);
+                    break;
+                }
+            }
+        }
+
+        return new DFA(nfa.getAlphabet(), rows.toArray(new int[0][]), accepting, 0);
+    }
+
+    /**
+     * Minimiza el autómata con el algoritmo de Hopcroft (refinamiento de particiones).
+     * Los estados equivalentes al estado muerto se eliminan y los restantes se
+     * numeran en orden de recorrido en anchura desde el estado inicial.
+     */
+    public DFA minimize() {
+        int symbols = alphabet.length;
+        int n = transitions.length + 1; // estado muerto explícito al final
+        int dead = n - 1;
+
+        // Transiciones inversas por símbolo en formato CSR
+        int[][] inverseOffsets = new int[symbols][n + 1];
+        int[][] inverseSources = new int[symbols][n];
+        for (int a = 0; a < symbols; a++) {
+            int[] offsets = inverseOffsets[a];
+            for (int q = 0; q < n; q++) {
+                offsets[target(q, a, dead) + 1]++;
+            }
+            for (int t = 0; t < n; t++) {
+                offsets[t + 1] += offsets[t];
+            }
+            int[] fill = Arrays.copyOf(offsets, n);
+            for (int q = 0; q < n; q++) {
+                inverseSources[a][fill[target(q, a, dead)]++] = q;
+            }
+        }
+
+        Partition partition = new Partition(n);
+        for (int q = 0; q < n; q++) {
+            if (q != dead && accepting.get(q)) {
+                partition.mark(q);
+            }
+        }
+        partition.splitMarked();
+
+        Deque<Integer> worklist = new ArrayDeque<>();
+        boolean[] inWorklist = new boolean[n];
+        for (int b = 0; b < partition.blockCount; b++) {
+            worklist.add(b);
+            inWorklist[b] = true;
+        }
+
+        int[] splitter = new int[n];
+        while (!worklist.isEmpty()) {
+            int block = worklist.poll();
+            inWorklist[block] = false;
+            int size = partition.copyBlock(block, splitter);
+
+            for (int a = 0; a < symbols; a++) {
+                int[] offsets = inverseOffsets[a];
+                int[] sources = inverseSources[a];
+                for (int i = 0; i < size; i++) {
+                    int t = splitter[i];
+                    for (int k = offsets[t]; k < offsets[t + 1]; k++) {
+                        partition.mark(sources[k]);
+                    }
+                }
+
+                for (int b = partition.nextTouched(); b >= 0; b = partition.nextTouched()) {
+                    int created = partition.split(b);
+                    if (created < 0) {
+                        continue;
+                    }
+                    if (inWorklist[b]) {
+                        worklist.add(created);
+                        inWorklist[created] = true;
+                    } else {
+                        int smaller = partition.size(b) <= partition.size(created) ? b : created;
+                        worklist.add(smaller);
+                        inWorklist[smaller] = true;
+                    }
+                }
+            }
+        }
+
+        // Renumerar bloques en anchura desde el inicial, descartando el del estado muerto
+        int deadBlock = partition.blockOf[dead];
+        int[] newId = new int[partition.blockCount];
+        Arrays.fill(newId, DEAD);
+        int[] order = new int[partition.blockCount];
+        int count = 0;
+        newId[partition.blockOf[startState]] = count;
+        order[count++] = partition.blockOf[startState];
+        for (int head = 0; head < count; head++) {
+            int representative = partition.representative(order[head]);
+            for (int a = 0; a < symbols; a++) {
+                int b = partition.blockOf[target(representative, a, dead)];
+                if (b != deadBlock && newId[b] == DEAD) {
+                    newId[b] = count;
+                    order[count++] = b;
+                }
+            }
+        }
+
+        if (newId[deadBlock] == 0) {
+            // El lenguaje es vacío: un único estado no final sin transiciones
+            int[][] empty = new int[1][symbols];
+            Arrays.fill(empty[0], DEAD);
+            return new DFA(alphabet, empty, new BitSet(1), 0);
+        }
+
+        int[][] minimized = new int[count][symbols];
+        BitSet minimizedAccepting = new BitSet(count);
+        for (int id = 0; id < count; id++) {
+            int representative = partition.representative(order[id]);
+            for (int a = 0; a < symbols; a++) {
+                int b = partition.blockOf[target(representative, a, dead)];
+                minimized[id][a] = b == deadBlock ? DEAD : newId[b];
+            }
+            if (accepting.get(representative)) {
+                minimizedAccepting.set(id);
+            }
+        }
+
+        return new DFA(alphabet, minimized, minimizedAccepting, 0);
+    }
+
+    private int target(int state, int symbol, int dead) {
+        if (state == dead) {
+            return dead;
+        }
+        int next = transitions[state][symbol];
+        return next == DEAD ? dead : next;
+    }
+
+    /**
+     * Partición refinable de estados: cada bloque ocupa un rango contiguo de elements,
+     * y los elementos marcados se agrupan al inicio del rango.
+     */
+    private static class Partition {
+        final int[] elements;
+        final int[] location;
+        final int[] blockOf;
+        final int[] first;
+        final int[] end;
+        final int[] markedEnd;
+        final int[] touched;
+        int touchedCount;
+        int blockCount;
+
+        Partition(int n) {
+            elements = new int[n];
+            location = new int[n];
+            blockOf = new int[n];
+            first = new int[n];
+            end = new int[n];
+            markedEnd = new int[n];
+            touched = new int[n];
+            for (int q = 0; q < n; q++) {
+                elements[q] = q;
+                location[q] = q;
+            }
+            end[0] = n;
+            blockCount = 1;
+        }
+
+        void mark(int q) {
+            int b = blockOf[q];
+            int i = location[q];
+            int j = markedEnd[b];
+            if (i < j) {
+                return;
+            }
+            if (j == first[b]) {
+                touched[touchedCount++] = b;
+            }
+            int other = elements[j];
+            elements[j] = q;
+            location[q] = j;
+            elements[i] = other;
+            location[other] = i;
+            markedEnd[b] = j + 1;
+        }
+
+        int nextTouched() {
+            return touchedCount == 0 ? -1 : touched[--touchedCount];
+        }
+
+        /**
+         * Separa los elementos marcados del bloque en un bloque nuevo.
+         * Devuelve el índice del bloque creado, o -1 si no hubo división.
+         */
+        int split(int b) {
+            int mid = markedEnd[b];
+            if (mid == end[b]) {
+                markedEnd[b] = first[b];
+                return -1;
+            }
+            int created = blockCount++;
+            first[created] = first[b];
+            end[created] = mid;
+            markedEnd[created] = first[created];
+            first[b] = mid;
+            markedEnd[b] = mid;
+            for (int i = first[created]; i < end[created]; i++) {
+                blockOf[elements[i]] = created;
+            }
+            return created;
+        }
+
+        void splitMarked() {
+            for (int b = nextTouched(); b >= 0; b = nextTouched()) {
+                split(b);
+            }
+        }
+
+        int copyBlock(int b, int[] into) {
+            int size = end[b] - first[b];
+            System.arraycopy(elements, first[b], into, 0, size);
+            return size;
+        }
+
+        int size(int b) {
+            return end[b] - first[b];
+        }
+
+        int representative(int b) {
+            return elements[first[b]];
+        }
+    }
+
+    /**
+     * Reconoce una secuencia de símbolos (índices del alfabeto) en O(n).
+     * Un índice negativo representa un símbolo desconocido y provoca rechazo.
+     */
+    @Override
+    public boolean accepts(int[] symbols) {
+        int state = startState;
+        for (int symbol : symbols) {
+            if (symbol < 0) {
+                return false;
+            }
+            state = transitions[state][symbol];
+            if (state == DEAD) {
+                return false;
+            }
+        }
+        return accepting.get(state);
+    }
+
+    /**
+     * Transición desde un estado con un símbolo; devuelve DEAD si no existe
+     */
+    public int next(int state, int symbol) {
+        return transitions[state][symbol];
+    }
+
+    public boolean isAccepting(int state) {
+        return state != DEAD && accepting.get(state);
+    }
+
+    public int getStartState() {
+        return startState;
+    }
+
+    @Override
+    public int getStateCount() {
+        return transitions.length;
+    }
+
+    public int getAlphabetSize() {
+        return alphabet.length;
+    }
+
+    public String[] getAlphabet() {
+        return alphabet.clone();
+    }
+
+    @Override
+    public Run newRun() {
+        return new DFARun();
+    }
+
+    private class DFARun implements Run {
+        private int state = startState;
+
+        @Override
+        public boolean step(int symbol) {
+            if (state != DEAD) {
+                state = transitions[state][symbol];
+            }
+            return state != DEAD;
+        }
+
+        @Override
+        public boolean isAccepting() {
+            return state != DEAD && accepting.get(state);
+        }
+
+        @Override
+        public boolean isDead() {
+            return state == DEAD;
+        }
+
+        @Override
+        public void reset() {
+            state = startState;
+        }
+
+        @Override
+        public void copyFrom(Run other) {
+            state = ((DFARun) other).state;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.automaton;
+
+import org.example.model.CompiledGrammar;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autómata finito no determinista construido a partir de una gramática lineal por la derecha.
+ * Cada no terminal es un estado; además existe un estado final para las producciones A → a.
+ */
+public class NFA {
+
+    private final String[] alphabet;
+    private final Map<String, Integer> symbolIndex;
+    private final String[] stateNames;
+    private final int startState;
+    private final int finalState;
+    private final int[][][] targets;               // [estado][símbolo] -> estados destino
+    private final int[][][] productionIds;         // índice de la producción usada en cada transición
+    private final int[] epsilonProductionIds;      // producción A → ε de cada estado (o -1)
+    private final List<Production> productions;    // producciones en el orden de CompiledGrammar
+    private final BitSet accepting;
+
+    private NFA(String[] alphabet, String[] stateNames, int startState, int[][][] targets,
+                int[][][] productionIds, int[] epsilonProductionIds, List<Production> productions) {
+        this.alphabet = alphabet;
+        this.symbolIndex = new HashMap<>();
+        for (int i = 0; i < alphabet.length; i++) {
+            symbolIndex.put(alphabet[i], i);
+        }
+        this.stateNames = stateNames;
+        this.startState = startState;
+        this.finalState = stateNames.length - 1;
+        this.targets = targets;
+        this.productionIds = productionIds;
+        this.epsilonProductionIds = epsilonProductionIds;
+        this.productions = productions;
+        this.accepting = new BitSet(stateNames.length);
+        accepting.set(finalState);
+        for (int q = 0; q < epsilonProductionIds.length; q++) {
+            if (epsilonProductionIds[q] >= 0) {
+                accepting.set(q);
+            }
+        }
+    }
+
+    /**
+     * Construye el AFN de una gramática Tipo 3, validando que sea lineal por la derecha
+     */
+    public static NFA fromRightLinear(Grammar grammar) {
+        return fromRightLinear(CompiledGrammar.of(grammar));
+    }
+
+    /**
+     * Construye el AFN sobre la forma compilada: el alfabeto son los terminales y los
+     * estados los no terminales, con sus identificadores (menos T para los estados)
+     */
+    public static NFA fromRightLinear(CompiledGrammar compiled) {
+        int terminals = compiled.getTerminalCount();
+        String[] alphabet = new String[terminals];
+        for (int a = 0; a < terminals; a++) {
+            alphabet[a] = compiled.nameOf(a);
+        }
+
+        String[] stateNames = new String[compiled.getNonTerminalCount() + 1];
+        for (int q = 0; q < compiled.getNonTerminalCount(); q++) {
+            stateNames[q] = compiled.nameOf(terminals + q);
+        }
+        int finalState = compiled.getNonTerminalCount();
+        stateNames[finalState] = "qF";
+
+        List<List<List<Integer>>> targetLists = new ArrayList<>();
+        List<List<List<Integer>>> productionLists = new ArrayList<>();
+        for (int q = 0; q < stateNames.length; q++) {
+            List<List<Integer>> row = new ArrayList<>();
+            List<List<Integer>> prodRow = new ArrayList<>();
+            for (int a = 0; a < alphabet.length; a++) {
+                row.add(new ArrayList<>());
+                prodRow.add(new ArrayList<>());
+            }
+            targetLists.add(row);
+            productionLists.add(prodRow);
+        }
+        int[] epsilonProductionIds = new int[stateNames.length];
+        Arrays.fill(epsilonProductionIds, -1);
+
+        for (int id = 0; id < compiled.getProductionCount(); id++) {
+            validate(compiled, id);
+            int from = compiled.leftOf(id) - terminals;
+
+            if (compiled.rightLength(id) == 0) {
+                if (epsilonProductionIds[from] < 0) {
+                    epsilonProductionIds[from] = id;
+                }
+                continue;
+            }
+
+            int symbol = compiled.rightSymbol(id, 0);
+            int to = compiled.rightLength(id) == 2 ? compiled.rightSymbol(id, 1) - terminals : finalState;
+
+            targetLists.get(from).get(symbol).add(to);
+            productionLists.get(from).get(symbol).add(id);
+        }
+
+        int[][][] targets = new int[stateNames.length][alphabet.length][];
+        int[][][] productionIds = new int[stateNames.length][alphabet.length][];
+        for (int q = 0; q < stateNames.length; q++) {
+            for (int a = 0; a < alphabet.length; a++) {
+                targets[q][a] = toArray(targetLists.get(q).get(a));
+                productionIds[q][a] = toArray(productionLists.get(q).get(a));
+            }
+        }
+
+        return new NFA(alphabet, stateNames, compiled.getStartSymbol() - terminals, targets,
+                productionIds, epsilonProductionIds, compiled.getProductions());
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static void validate(CompiledGrammar compiled, int id) {
+        int length = compiled.rightLength(id);
+        if (length == 0) {
+            return;
+        }
+
+        Production prod = compiled.getProduction(id);
+
+        if (length > 2) {
+            throw new IllegalArgumentException(
+                    "Producción no es Tipo 3: " + prod + " (tiene más de 2 símbolos)");
+        }
+
+        if (!compiled.isTerminal(compiled.rightSymbol(id, 0))) {
+            throw new IllegalArgumentException(
+                    "Producción no es Tipo 3: " + prod + " (debe comenzar con terminal)");
+        }
+
+        if (length == 2 && compiled.isTerminal(compiled.rightSymbol(id, 1))) {
+            throw new IllegalArgumentException(
+                    "Producción no es Tipo 3: " + prod + " (segundo símbolo debe ser no terminal)");
+        }
+    }
+
+    /**
+     * Obtiene los índices (en getProductions) de las producciones de una derivación que
+     * acepta la entrada, o null si la entrada no pertenece al lenguaje. Si la derivación
+     * termina con una producción A → ε, ésta aparece como último elemento.
+     */
+    public int[] acceptingPath(int[] symbols) {
+        int n = symbols.length;
+
+        // live[i]: estados desde los que se acepta el sufijo symbols[i..n)
+        BitSet[] live = new BitSet[n + 1];
+        live[n] = (BitSet) accepting.clone();
+        for (int i = n - 1; i >= 0; i--) {
+            live[i] = new BitSet(stateNames.length);
+            int symbol = symbols[i];
+            if (symbol < 0) {
+                return null;
+            }
+            for (int q = 0; q < stateNames.length; q++) {
+                for (int to : targets[q][symbol]) {
+                    if (live[i + 1].get(to)) {
+                        live[i].set(q);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (!live[0].get(startState)) {
+            return null;
+        }
+
+        int state = startState;
+        int[] path = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int[] next = targets[state][symbols[i]];
+            for (int k = 0; k < next.length; k++) {
+                if (live[i + 1].get(next[k])) {
+                    path[i] = productionIds[state][symbols[i]][k];
+                    state = next[k];
+                    break;
+                }
+            }
+        }
+
+        if (state != finalState) {
+            path[n] = epsilonProductionIds[state];
+            return path;
+        }
+        return Arrays.copyOf(path, n);
+    }
+
+    public String[] getAlphabet() {
+        return alphabet.clone();
+    }
+
+    public int getAlphabetSize() {
+        return alphabet.length;
+    }
+
+    /**
+     * Índice de un terminal en el alfabeto, o -1 si no pertenece a él
+     */
+    public int symbolIndexOf(String terminal) {
+        Integer index = symbolIndex.get(terminal);
+        return index == null ? -1 : index;
+    }
+
+    public int getStateCount() {
+        return stateNames.length;
+    }
+
+    public String getStateName(int state) {
+        return stateNames[state];
+    }
+
+    public int getStartState() {
+        return startState;
+    }
+
+    public boolean isAccepting(int state) {
+        return accepting.get(state);
+    }
+
+    /**
+     * Producción A → ε del estado, o null si no tiene
+     */
+    public Production getEpsilonProduction(int state) {
+        int id = epsilonProductionIds[state];
+        return id < 0 ? null : productions.get(id);
+    }
+
+    /**
+     * Producciones de la gramática (en el orden de CompiledGrammar); los índices de
+     * acceptingPath se refieren a esta lista
+     */
+    public List<Production> getProductions() {
+        return productions;
+    }
+
+    /**
+     * Estados destino desde un estado con un símbolo (no modificar el arreglo devuelto)
+     */
+    int[] targets(int state, int symbol) {
+        return targets[state][symbol];
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.automaton;
+
+import org.example.model.CompiledGrammar;
+import org.example.model.Grammar;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Forma compilada de una gramática Tipo 3: el AFN (para reconstruir derivaciones)
+ * y el motor de reconocimiento, que es el AFD mínimo o, si la determinización crece
+ * demasiado, la simulación del AFN con bits. Las compilaciones se comparten entre
+ * parsers mediante una caché indexada por la huella de contenido de la gramática.
+ */
+public class RegularAutomaton {
+
+    private static final int MAX_CACHED = 64;
+
+    // Límites del AFD (estados y celdas estados × símbolos) antes de usar la simulación con bits
+    private static final int MAX_DFA_STATES = 1 << 12;
+    private static final int MAX_DFA_CELLS = 1 << 20;
+
+    /**
+     * Motor de reconocimiento: AUTO elige según el tamaño estimado del AFD
+     */
+    public enum Mode {
+        AUTO, DFA, BIT_PARALLEL
+    }
+
+    private static final Map<String, RegularAutomaton> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, RegularAutomaton>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RegularAutomaton> eldest) {
+                    return size() > MAX_CACHED;
+                }
+            });
+
+    private final CompiledGrammar compiled;
+    private final NFA nfa;
+    private final RegularEngine engine;
+    private final Tokenizer tokenizer;
+    private final Tokenizer byteTokenizer;
+
+    // El alfabeto del AFN son los terminales de la gramática compilada, con los mismos
+    // identificadores, así que se reutiliza su tokenizador
+    private RegularAutomaton(CompiledGrammar compiled, NFA nfa, RegularEngine engine) {
+        this.compiled = compiled;
+        this.nfa = nfa;
+        this.engine = engine;
+        this.tokenizer = compiled.getTokenizer();
+        this.byteTokenizer = Tokenizer.ofUtf8(nfa.getAlphabet());
+    }
+
+    /**
+     * Obtiene el autómata de la gramática, compilándolo (validar, determinizar y
+     * minimizar) sólo si no está ya en la caché
+     */
+    public static RegularAutomaton of(Grammar grammar) {
+        return of(grammar, Mode.AUTO);
+    }
+
+    public static RegularAutomaton of(Grammar grammar, Mode mode) {
+        String key = grammar.contentHash() + "/" + mode;
+        RegularAutomaton cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Se compila fuera del bloqueo de la caché; si otro hilo se adelanta, se conserva el suyo
+        RegularAutomaton automaton = compile(grammar, mode);
+        RegularAutomaton previous = CACHE.putIfAbsent(key, automaton);
+        return previous != null ? previous : automaton;
+    }
+
+    /**
+     * Autómata de la gramática con un AFD ya construido (por ejemplo, leído de disco), que
+     * queda en la caché como compilación AUTO; el AFN se vuelve a obtener de la gramática
+     * @throws IllegalArgumentException si el alfabeto del AFD no es el de la gramática
+     */
+    public static RegularAutomaton of(Grammar grammar, DFA dfa) {
+        CompiledGrammar compiled = CompiledGrammar.of(grammar);
+        NFA nfa = NFA.fromRightLinear(compiled);
+        if (!Arrays.equals(nfa.getAlphabet(), dfa.getAlphabet())) {
+            throw new IllegalArgumentException("El alfabeto del AFD no corresponde a la gramática");
+        }
+        RegularAutomaton automaton = new RegularAutomaton(compiled, nfa, dfa);
+        CACHE.put(grammar.contentHash() + "/" + Mode.AUTO, automaton);
+        return automaton;
+    }
+
+    /**
+     * Compila la gramática sin consultar la caché
+     */
+    public static RegularAutomaton compile(Grammar grammar, Mode mode) {
+        CompiledGrammar compiled = CompiledGrammar.of(grammar);
+        NFA nfa = NFA.fromRightLinear(compiled);
+
+        switch (mode) {
+            case DFA:
+                return new RegularAutomaton(compiled, nfa, DFA.determinize(nfa).minimize());
+            case BIT_PARALLEL:
+                return new RegularAutomaton(compiled, nfa, BitParallelNFA.of(nfa));
+            default:
+                // La determinización acotada sirve de estimación: si no cabe, no se completa
+                int maxStates = Math.min(MAX_DFA_STATES, MAX_DFA_CELLS / Math.max(1, nfa.getAlphabetSize()));
+                DFA dfa = DFA.determinize(nfa, maxStates);
+                if (dfa == null) {
+                    return new RegularAutomaton(compiled, nfa, BitParallelNFA.of(nfa));
+                }
+                return new RegularAutomaton(compiled, nfa, dfa.minimize());
+        }
+    }
+
+    /**
+     * Convierte la entrada en índices del alfabeto del autómata.
+     * Devuelve null si algún fragmento no corresponde a ningún terminal.
+     */
+    public int[] tokenize(String input) {
+        return tokenizer.tokenize(input);
+    }
+
+    /**
+     * Reconoce la entrada en una sola pasada (tokenización y transiciones a la vez),
+     * sin reservar memoria
+     */
+    public boolean accepts(CharSequence input) {
+        RegularEngine.Run run = engine.newRun();
+        int position = 0;
+
+        while (position < input.length()) {
+            int symbol = tokenizer.match(input, position);
+            if (symbol == Tokenizer.NONE || !run.step(symbol)) {
+                return false;
+            }
+            position += tokenizer.length(symbol);
+        }
+
+        return run.isAccepting();
+    }
+
+    /**
+     * Indica si la cadena vacía pertenece al lenguaje
+     */
+    public boolean acceptsEmpty() {
+        return nfa.isAccepting(nfa.getStartState());
+    }
+
+    /**
+     * Forma compilada de la que se construyó el AFN: sus producciones son las que indexan
+     * los caminos de acceptingPath
+     */
+    public CompiledGrammar getCompiledGrammar() {
+        return compiled;
+    }
+
+    public NFA getNfa() {
+        return nfa;
+    }
+
+    public RegularEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Indica si el motor es la simulación del AFN con bits en lugar del AFD
+     */
+    public boolean isBitParallel() {
+        return engine instanceof BitParallelNFA;
+    }
+
+    public Tokenizer getTokenizer() {
+        return tokenizer;
+    }
+
+    /**
+     * Tokenizador sobre bytes UTF-8, con los mismos identificadores de terminal
+     */
+    public Tokenizer getByteTokenizer() {
+        return byteTokenizer;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.automaton;
+
+/**
+ * Motor de reconocimiento para lenguajes regulares sobre índices de terminal.
+ * Cada recorrido (Run) guarda su propio estado, por lo que un mismo motor puede
+ * usarse desde varios hilos a la vez.
+ */
+public interface RegularEngine {
+
+    /**
+     * Reconoce una secuencia completa de símbolos; un índice negativo provoca rechazo
+     */
+    boolean accepts(int[] symbols);
+
+    /**
+     * Crea un recorrido situado en el estado inicial
+     */
+    Run newRun();
+
+    /**
+     * Número de estados del autómata subyacente
+     */
+    int getStateCount();
+
+    interface Run {
+        /**
+         * Avanza con un símbolo; devuelve false si el recorrido queda en el estado muerto
+         */
+        boolean step(int symbol);
+
+        boolean isAccepting();
+
+        boolean isDead();
+
+        void reset();
+
+        /**
+         * Copia el estado de otro recorrido del mismo motor
+         */
+        void copyFrom(Run other);
+    }
+}
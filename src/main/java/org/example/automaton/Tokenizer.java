@@ -0,0 +1,197 @@
+package org.example.automaton;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Trie de caracteres sobre los terminales de una gramática. Divide la entrada en
+ * terminales tomando siempre la coincidencia más larga (maximal munch), sin crear
+ * subcadenas: cada token cuesta a lo sumo getMaxLength() pasos del trie.
+ * El identificador de cada terminal es su índice en el arreglo de construcción.
+ * Todos los parsers de una gramática comparten el de su CompiledGrammar.
+ */
+public class Tokenizer {
+
+    public static final int NONE = -1;
+
+    private final String[] terminals;
+    private final int[] classOf;   // carácter -> clase (columna del trie), NONE si no aparece
+    private final int classCount;
+    private final int[] next;      // [nodo * classCount + clase] -> nodo hijo
+    private final int[] symbolAt;  // nodo -> terminal que termina en él
+    private final int maxLength;
+
+    private Tokenizer(String[] terminals, int[] classOf, int classCount,
+                      int[] next, int[] symbolAt, int maxLength) {
+        this.terminals = terminals;
+        this.classOf = classOf;
+        this.classCount = classCount;
+        this.next = next;
+        this.symbolAt = symbolAt;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Construye el trie de los terminales dados (se ignoran las cadenas vacías)
+     */
+    public static Tokenizer of(String[] terminals) {
+        int maxChar = 0;
+        int maxLength = 0;
+        int nodes = 1;
+        for (String terminal : terminals) {
+            for (int i = 0; i < terminal.length(); i++) {
+                maxChar = Math.max(maxChar, terminal.charAt(i));
+            }
+            maxLength = Math.max(maxLength, terminal.length());
+            nodes += terminal.length();
+        }
+
+        int[] classOf = new int[maxChar + 1];
+        Arrays.fill(classOf, NONE);
+        int classCount = 0;
+        for (String terminal : terminals) {
+            for (int i = 0; i < terminal.length(); i++) {
+                char c = terminal.charAt(i);
+                if (classOf[c] == NONE) {
+                    classOf[c] = classCount++;
+                }
+            }
+        }
+
+        int[] next = new int[nodes * Math.max(classCount, 1)];
+        Arrays.fill(next, NONE);
+        int[] symbolAt = new int[nodes];
+        Arrays.fill(symbolAt, NONE);
+        int used = 1;
+
+        for (int t = 0; t < terminals.length; t++) {
+            String terminal = terminals[t];
+            if (terminal.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < terminal.length(); i++) {
+                int slot = node * classCount + classOf[terminal.charAt(i)];
+                if (next[slot] == NONE) {
+                    next[slot] = used++;
+                }
+                node = next[slot];
+            }
+            if (symbolAt[node] == NONE) {
+                symbolAt[node] = t;
+            }
+        }
+
+        return new Tokenizer(terminals.clone(), classOf, classCount,
+                Arrays.copyOf(next, used * classCount), Arrays.copyOf(symbolAt, used), maxLength);
+    }
+
+    /**
+     * Construye el trie sobre la codificación UTF-8 de los terminales: cada byte se trata
+     * como un carácter (0-255) y las longitudes se miden en bytes
+     */
+    public static Tokenizer ofUtf8(String[] terminals) {
+        String[] encoded = new String[terminals.length];
+        for (int i = 0; i < terminals.length; i++) {
+            encoded[i] = new String(terminals[i].getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+        }
+        return of(encoded);
+    }
+
+    public int root() {
+        return 0;
+    }
+
+    /**
+     * Avanza desde un nodo con un carácter; devuelve NONE si ningún terminal continúa así
+     */
+    public int step(int node, char c) {
+        if (c >= classOf.length) {
+            return NONE;
+        }
+        int cls = classOf[c];
+        return cls == NONE ? NONE : next[node * classCount + cls];
+    }
+
+    /**
+     * Avanza con un byte de la entrada (sólo para tries construidos con ofUtf8)
+     */
+    public int step(int node, byte b) {
+        return step(node, (char) (b & 0xFF));
+    }
+
+    /**
+     * Terminal que termina exactamente en el nodo, o NONE
+     */
+    public int symbolAt(int node) {
+        return symbolAt[node];
+    }
+
+    /**
+     * Terminal más largo que empieza en la posición dada, o NONE si no hay ninguno
+     */
+    public int match(CharSequence input, int from) {
+        int node = 0;
+        int matched = NONE;
+        for (int i = from; i < input.length(); i++) {
+            node = step(node, input.charAt(i));
+            if (node == NONE) {
+                break;
+            }
+            if (symbolAt[node] != NONE) {
+                matched = symbolAt[node];
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Indica si la entrada representa la cadena vacía ("" o "ε")
+     */
+    public static boolean isEmptyInput(CharSequence input) {
+        return input.length() == 0 || "ε".contentEquals(input);
+    }
+
+    /**
+     * Como tokenize, pero con la convención de los parsers: "ε" es la cadena vacía
+     */
+    public int[] tokenizeInput(CharSequence input) {
+        return isEmptyInput(input) ? new int[0] : tokenize(input);
+    }
+
+    /**
+     * Divide la entrada en identificadores de terminal.
+     * Devuelve null si algún fragmento no corresponde a ningún terminal.
+     */
+    public int[] tokenize(CharSequence input) {
+        int[] symbols = new int[input.length()];
+        int count = 0;
+        int i = 0;
+
+        while (i < input.length()) {
+            int symbol = match(input, i);
+            if (symbol == NONE) {
+                return null;
+            }
+            symbols[count++] = symbol;
+            i += terminals[symbol].length();
+        }
+
+        return count == symbols.length ? symbols : Arrays.copyOf(symbols, count);
+    }
+
+    public String getTerminal(int symbol) {
+        return terminals[symbol];
+    }
+
+    public int length(int symbol) {
+        return terminals[symbol].length();
+    }
+
+    /**
+     * Longitud del terminal más largo
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+}
@@ -0,0 +1,419 @@
+package org.example.generator;
+
+import org.example.model.CompiledGrammar;
+import org.example.model.Grammar;
+import org.example.transform.ChomskyNormalForm;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cuenta y enumera las cadenas del lenguaje por longitud mediante programación dinámica
+ * sobre la Forma Normal de Chomsky. La longitud es el número de terminales; el orden es
+ * el de longitud y, a igual longitud, lexicográfico por terminales (por nombre).
+ * <p>
+ * Las tablas de cuentas por (no terminal, longitud) se amplían bajo demanda, en tiempo
+ * O(|P|·L²). Lo que se cuenta son derivaciones, que coinciden con las cadenas si la
+ * gramática no es ambigua: count y unrank son exactos en ese caso. La enumeración sólo
+ * comprueba si un prefijo tiene continuaciones, así que nunca repite cadenas.
+ * <p>
+ * Las tablas se amplían en las consultas: una instancia no debe compartirse entre hilos.
+ */
+public class LanguageCounter {
+
+    // Visibles en el paquete para UniformSampler, que elige sobre las mismas tablas
+    final CompiledGrammar compiled;
+    final int terminals;
+    final int start;
+    final boolean acceptsEmpty;
+
+    // Producciones A → B C (índices de no terminal) y, por terminal, los A con A → a
+    final int[] binaryLeft;
+    final int[] binaryFirst;
+    final int[] binarySecond;
+    final int[][] producers;
+
+    // counts.get(n)[A]: derivaciones de A con n terminales
+    private final List<BigInteger[]> counts = new ArrayList<>();
+
+    public LanguageCounter(Grammar grammar) {
+        this(ChomskyNormalForm.of(grammar));
+    }
+
+    LanguageCounter(ChomskyNormalForm cnf) {
+        this.compiled = CompiledGrammar.of(cnf.getGrammar());
+        this.terminals = compiled.getTerminalCount();
+        this.start = compiled.getStartSymbol() - terminals;
+        this.acceptsEmpty = cnf.acceptsEmpty();
+
+        int binary = 0;
+        List<List<Integer>> byTerminal = new ArrayList<>();
+        for (int t = 0; t < terminals; t++) {
+            byTerminal.add(new ArrayList<>());
+        }
+        for (int p = 0; p < compiled.getProductionCount(); p++) {
+            if (compiled.rightLength(p) == 2) {
+                binary++;
+            } else if (compiled.rightLength(p) == 1) {
+                byTerminal.get(compiled.rightSymbol(p, 0)).add(compiled.leftOf(p) - terminals);
+            }
+        }
+        this.binaryLeft = new int[binary];
+        this.binaryFirst = new int[binary];
+        this.binarySecond = new int[binary];
+        for (int p = 0, b = 0; p < compiled.getProductionCount(); p++) {
+            if (compiled.rightLength(p) == 2) {
+                binaryLeft[b] = compiled.leftOf(p) - terminals;
+                binaryFirst[b] = compiled.rightSymbol(p, 0) - terminals;
+                binarySecond[b] = compiled.rightSymbol(p, 1) - terminals;
+                b++;
+            }
+        }
+        this.producers = new int[terminals][];
+        for (int t = 0; t < terminals; t++) {
+            producers[t] = byTerminal.get(t).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        BigInteger[] empty = zeros();
+        if (acceptsEmpty) {
+            empty[start] = BigInteger.ONE;
+        }
+        counts.add(empty);
+    }
+
+    /**
+     * Número de cadenas del lenguaje con el número de terminales dado, si la gramática no
+     * es ambigua; si lo es, número de derivaciones en FNC
+     */
+    public BigInteger count(int length) {
+        checkLength(length);
+        return counts(length)[start];
+    }
+
+    /**
+     * Número de cadenas (derivaciones, si la gramática es ambigua) de cada longitud, de 0
+     * a maxLength
+     */
+    public List<BigInteger> countsUpTo(int maxLength) {
+        checkLength(maxLength);
+        List<BigInteger> result = new ArrayList<>();
+        for (int n = 0; n <= maxLength; n++) {
+            result.add(counts(n)[start]);
+        }
+        return result;
+    }
+
+    /**
+     * Número de cadenas de longitud como mucho maxLength, con la misma condición que count
+     */
+    public BigInteger countUpTo(int maxLength) {
+        BigInteger total = BigInteger.ZERO;
+        for (BigInteger count : countsUpTo(maxLength)) {
+            total = total.add(count);
+        }
+        return total;
+    }
+
+    /**
+     * Todas las cadenas de la longitud dada, en orden lexicográfico
+     */
+    public List<String> stringsOfLength(int length) {
+        return stringsOfLength(length, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Las primeras cadenas (como mucho limit) de la longitud dada, en orden lexicográfico.
+     * Cada terminal se elige sólo si el prefijo resultante tiene alguna continuación, de
+     * modo que no se recorren ramas sin cadenas.
+     */
+    public List<String> stringsOfLength(int length, int limit) {
+        checkLength(length);
+        List<String> result = new ArrayList<>();
+        if (limit <= 0 || count(length).signum() == 0) {
+            return result;
+        }
+        if (length == 0) {
+            result.add("ε");
+            return result;
+        }
+
+        Prefix prefix = new Prefix(length);
+        int[] next = new int[length];
+        int m = 0;
+        next[0] = 0;
+        while (m >= 0) {
+            if (next[m] == terminals) {
+                m--;
+                if (m >= 0) {
+                    next[m]++;
+                }
+                continue;
+            }
+            prefix.set(m, next[m]);
+            if (prefix.completions(m + 1).signum() == 0) {
+                next[m]++;
+            } else if (m + 1 == length) {
+                result.add(prefix.toString());
+                if (result.size() >= limit) {
+                    break;
+                }
+                next[m]++;
+            } else {
+                m++;
+                next[m] = 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cadena de posición index (desde 0) entre las de la longitud dada, en orden lexicográfico.
+     * Las posiciones se reparten por derivaciones: coinciden con las de stringsOfLength sólo
+     * si la gramática no es ambigua.
+     * @throws IllegalArgumentException si no hay tantas cadenas de esa longitud
+     */
+    public String unrank(int length, BigInteger index) {
+        checkLength(length);
+        if (index.signum() < 0 || index.compareTo(count(length)) >= 0) {
+            throw new IllegalArgumentException(
+                    "No hay cadena de longitud " + length + " en la posición " + index);
+        }
+        if (length == 0) {
+            return "ε";
+        }
+
+        Prefix prefix = new Prefix(length);
+        BigInteger remaining = index;
+        for (int m = 0; m < length; m++) {
+            for (int t = 0; t < terminals; t++) {
+                prefix.set(m, t);
+                BigInteger completions = prefix.completions(m + 1);
+                if (remaining.compareTo(completions) < 0) {
+                    break;
+                }
+                remaining = remaining.subtract(completions);
+            }
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * Cadena de posición index (desde 0) en el orden por longitud y lexicográfico, para
+     * gramáticas no ambiguas (ver unrank(int, BigInteger))
+     * @throws IllegalArgumentException si el lenguaje tiene menos cadenas
+     */
+    public String unrank(BigInteger index) {
+        if (index.signum() < 0) {
+            throw new IllegalArgumentException("La posición no puede ser negativa: " + index);
+        }
+        int longest = longestLength();
+        BigInteger remaining = index;
+        for (int n = 0; n <= longest; n++) {
+            BigInteger count = count(n);
+            if (remaining.compareTo(count) < 0) {
+                return unrank(n, remaining);
+            }
+            remaining = remaining.subtract(count);
+        }
+        throw new IllegalArgumentException("El lenguaje no tiene cadena en la posición " + index);
+    }
+
+    /**
+     * Longitud de la cadena más larga: Integer.MAX_VALUE si el lenguaje es infinito y -1
+     * si es vacío
+     */
+    public int longestLength() {
+        int nonTerminals = compiled.getNonTerminalCount();
+        int[] longest = new int[nonTerminals];
+        int[] state = new int[nonTerminals]; // 0 sin visitar, 1 en curso, 2 resuelto
+        int[] stack = new int[nonTerminals];
+        int[] slot = new int[nonTerminals]; // producción relativa * 2 + posición en el lado derecho
+        int top = 0;
+        stack[top++] = start;
+        state[start] = 1;
+
+        // Recorrido en profundidad iterativo, un hijo cada vez para que la pila sea el camino:
+        // un ciclo alcanzable hace el lenguaje infinito (en FNC todo símbolo deriva algún terminal)
+        while (top > 0) {
+            int a = stack[top - 1];
+            int p = compiled.firstProduction(a + terminals) + slot[a] / 2;
+            if (p < compiled.endProduction(a + terminals)) {
+                int k = slot[a]++ % 2;
+                if (k >= compiled.rightLength(p) || compiled.isTerminal(compiled.rightSymbol(p, k))) {
+                    continue;
+                }
+                int b = compiled.rightSymbol(p, k) - terminals;
+                if (state[b] == 1) {
+                    return Integer.MAX_VALUE;
+                }
+                if (state[b] == 0) {
+                    state[b] = 1;
+                    stack[top++] = b;
+                }
+                continue;
+            }
+            top--;
+            state[a] = 2;
+            int best = acceptsEmpty && a == start ? 0 : -1;
+            for (p = compiled.firstProduction(a + terminals); p < compiled.endProduction(a + terminals); p++) {
+                int length = 0;
+                for (int k = 0; k < compiled.rightLength(p); k++) {
+                    int symbol = compiled.rightSymbol(p, k);
+                    length += compiled.isTerminal(symbol) ? 1 : longest[symbol - terminals];
+                }
+                best = Math.max(best, length);
+            }
+            longest[a] = best;
+        }
+        return longest[start];
+    }
+
+    private void checkLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("La longitud no puede ser negativa: " + length);
+        }
+    }
+
+    private BigInteger[] zeros() {
+        BigInteger[] row = new BigInteger[compiled.getNonTerminalCount()];
+        Arrays.fill(row, BigInteger.ZERO);
+        return row;
+    }
+
+    /**
+     * Fila de cuentas de una longitud, calculando las que falten
+     */
+    BigInteger[] counts(int length) {
+        while (counts.size() <= length) {
+            int n = counts.size();
+            BigInteger[] row = zeros();
+            if (n == 1) {
+                for (int[] lefts : producers) {
+                    for (int a : lefts) {
+                        row[a] = row[a].add(BigInteger.ONE);
+                    }
+                }
+            }
+            for (int b = 0; b < binaryLeft.length; b++) {
+                BigInteger sum = BigInteger.ZERO;
+                for (int l = 1; l < n; l++) {
+                    BigInteger first = counts.get(l)[binaryFirst[b]];
+                    if (first.signum() != 0) {
+                        BigInteger second = counts.get(n - l)[binarySecond[b]];
+                        if (second.signum() != 0) {
+                            sum = sum.add(first.multiply(second));
+                        }
+                    }
+                }
+                row[binaryLeft[b]] = row[binaryLeft[b]].add(sum);
+            }
+            counts.add(row);
+        }
+        return counts.get(length);
+    }
+
+    /**
+     * Prefijo fijado de una cadena de longitud total dada. inside[i][n] cuenta las
+     * derivaciones de cada no terminal que producen exactamente el tramo [i, i+n) del
+     * prefijo; se rellena por posición final al fijar cada terminal, así que sólo vale
+     * para tramos que terminan dentro del prefijo actual.
+     */
+    private class Prefix {
+        private final int length;
+        private final int[] symbols;
+        private final BigInteger[][][] inside;
+        private final BigInteger[][][] crossing;
+        private int size;
+
+        Prefix(int length) {
+            this.length = length;
+            this.symbols = new int[length];
+            this.inside = new BigInteger[length][length + 1][];
+            this.crossing = new BigInteger[length][length + 1][];
+            counts(length);
+        }
+
+        /**
+         * Fija el terminal de la posición m (los de las posiciones anteriores se mantienen)
+         */
+        void set(int m, int terminal) {
+            symbols[m] = terminal;
+            size = m + 1;
+            int end = m + 1;
+            for (int n = 1; n <= end; n++) {
+                int i = end - n;
+                BigInteger[] row = zeros();
+                if (n == 1) {
+                    for (int a : producers[terminal]) {
+                        row[a] = row[a].add(BigInteger.ONE);
+                    }
+                }
+                for (int b = 0; b < binaryLeft.length; b++) {
+                    BigInteger sum = BigInteger.ZERO;
+                    for (int l = 1; l < n; l++) {
+                        BigInteger first = inside[i][l][binaryFirst[b]];
+                        if (first.signum() != 0) {
+                            BigInteger second = inside[i + l][n - l][binarySecond[b]];
+                            if (second.signum() != 0) {
+                                sum = sum.add(first.multiply(second));
+                            }
+                        }
+                    }
+                    row[binaryLeft[b]] = row[binaryLeft[b]].add(sum);
+                }
+                inside[i][n] = row;
+            }
+        }
+
+        /**
+         * Número de cadenas de la longitud total que empiezan por los m primeros terminales.
+         * crossing[i][n] cuenta las derivaciones del tramo [i, i+n) que cruza el final del
+         * prefijo: coinciden con él hasta la posición m y son libres después.
+         */
+        BigInteger completions(int m) {
+            if (m == length) {
+                return inside[0][length][start];
+            }
+            for (int i = m - 1; i >= 0; i--) {
+                for (int n = m - i + 1; n <= length - i; n++) {
+                    BigInteger[] row = zeros();
+                    for (int b = 0; b < binaryLeft.length; b++) {
+                        BigInteger sum = BigInteger.ZERO;
+                        for (int l = 1; l < n; l++) {
+                            int e = i + l;
+                            BigInteger first;
+                            BigInteger second;
+                            if (e < m) {
+                                first = inside[i][l][binaryFirst[b]];
+                                second = crossing[e][n - l][binarySecond[b]];
+                            } else if (e == m) {
+                                first = inside[i][l][binaryFirst[b]];
+                                second = counts.get(n - l)[binarySecond[b]];
+                            } else {
+                                first = crossing[i][l][binaryFirst[b]];
+                                second = counts.get(n - l)[binarySecond[b]];
+                            }
+                            if (first.signum() != 0 && second.signum() != 0) {
+                                sum = sum.add(first.multiply(second));
+                            }
+                        }
+                        row[binaryLeft[b]] = row[binaryLeft[b]].add(sum);
+                    }
+                    crossing[i][n] = row;
+                }
+            }
+            return crossing[0][length][start];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int k = 0; k < size; k++) {
+                sb.append(compiled.nameOf(symbols[k]));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -1,158 +1,706 @@
 package org.example.generator;
 
+import org.example.model.CompiledGrammar;
 import org.example.model.Grammar;
-import org.example.model.Production;
+import org.example.transform.ChomskyNormalForm;
 
+import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class StringGenerator {
+/**
+ * Generación de cadenas del lenguaje. La generación perezosa (iterator, stream) trabaja
+ * sobre la Forma Normal de Chomsky, donde todo no terminal produce al menos un terminal:
+ * así cada longitud tiene un número finito de formas sentenciales y las cadenas salen en
+ * orden de longitud (número de terminales) no decreciente, sin límite de iteraciones.
+ */
+public class StringGenerator implements Iterable<String> {
 
-    private Grammar grammar;
-    private static final int MAX_ITERATIONS = 10000;
+    private final Grammar grammar;
+    private final ChomskyNormalForm cnf;
+    private final CompiledGrammar compiled;
+    // minYield[s]: mínimo número de terminales que deriva el símbolo s
+    private final int[] minYield;
+    private LanguageCounter counter;
 
     public StringGenerator(Grammar grammar) {
         this.grammar = grammar;
+        this.cnf = ChomskyNormalForm.of(grammar);
+        this.compiled = CompiledGrammar.of(cnf.getGrammar());
+        this.minYield = computeMinYield();
+    }
+
+    public Grammar getGrammar() {
+        return grammar;
     }
 
     /**
-     * Genera las primeras n cadenas del lenguaje ordenadas por longitud
+     * Genera las primeras n cadenas del lenguaje (todas si hay menos) por longitud
      */
     public List<String> generateStrings(int n) {
-        Set<String> generated = new LinkedHashSet<>();
-        Queue<DerivationState> queue = new LinkedList<>();
+        return stream().limit(n).collect(Collectors.toList());
+    }
+
+    /**
+     * Cadenas del lenguaje sin repetición y por longitud no decreciente, generadas bajo demanda
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Iterador perezoso e ilimitado de cadenas por longitud no decreciente. Las formas
+     * sentenciales se expanden por orden de una cota inferior de la longitud final:
+     * terminales ya fijados más el rendimiento mínimo de cada no terminal. La cota nunca
+     * baja al expandir, así que una cadena completa sale después de todas las más cortas.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new ShortestFirst();
+    }
+
+    /**
+     * Las mismas cadenas que generateStrings(n), y en el mismo orden, expandiendo las formas
+     * sentenciales en paralelo en el pool dado
+     */
+    public List<String> generateStrings(int n, ForkJoinPool pool) {
+        return stream(pool).limit(n).collect(Collectors.toList());
+    }
+
+    /**
+     * Cadenas del lenguaje generadas en paralelo en el pool dado, idénticas en contenido y
+     * orden a las de stream(). Las formas se expanden por tramos de la frontera, así que se
+     * adelantan como mucho unas miles a lo consumido, y la memoria es la de stream() más
+     * una referencia por forma en el índice que descarta las repetidas.
+     */
+    public Stream<String> stream(ForkJoinPool pool) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new ParallelShortestFirst(pool),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Número de cadenas del lenguaje con el número de terminales dado. Sólo es exacto si
+     * la gramática no es ambigua: con una ambigua cuenta árboles de derivación de la FNC,
+     * que pueden ser más que las cadenas (S → S S | a | b da 16 para longitud 3, no 8).
+     */
+    public BigInteger countStrings(int length) {
+        return counter().count(length);
+    }
 
-        DerivationState initial = new DerivationState();
-        initial.sententialForm = Collections.singletonList(grammar.getStartSymbol());
-        initial.depth = 0;
-        queue.offer(initial);
+    /**
+     * Número de cadenas de cada longitud, de 0 a maxLength; como countStrings, exige una
+     * gramática no ambigua
+     */
+    public List<BigInteger> countStringsByLength(int maxLength) {
+        return counter().countsUpTo(maxLength);
+    }
 
-        int iterations = 0;
+    /**
+     * Todas las cadenas con el número de terminales dado, en orden lexicográfico y sin
+     * repetir, sea o no ambigua la gramática
+     */
+    public List<String> generateStringsOfLength(int length) {
+        return counter().stringsOfLength(length);
+    }
 
-        while (!queue.isEmpty() && generated.size() < n && iterations < MAX_ITERATIONS) {
-            iterations++;
-            DerivationState current = queue.poll();
+    /**
+     * Cadena de posición index (desde 0) en el orden por longitud y lexicográfico. Requiere
+     * una gramática no ambigua: con una ambigua las posiciones se cuentan por derivaciones y
+     * no corresponden a las de generateStringsOfLength.
+     */
+    public String stringAt(BigInteger index) {
+        return counter().unrank(index);
+    }
 
-            // Si la forma sentencial solo tiene terminales, es una cadena del lenguaje
-            if (isTerminalString(current.sententialForm)) {
-                String str = sententialFormToString(current.sententialForm);
-                generated.add(str);
-                continue;
+    /**
+     * Cadena de posición index (desde 0) entre las de la longitud dada, que es
+     * generateStringsOfLength(length).get(index) si la gramática no es ambigua
+     */
+    public String stringAt(int length, BigInteger index) {
+        return counter().unrank(length, index);
+    }
+
+    /**
+     * Muestreador de cadenas de hasta maxLength terminales, uniforme si la gramática no es
+     * ambigua (si lo es, cada cadena pesa tanto como sus derivaciones)
+     */
+    public UniformSampler sampler(int maxLength) {
+        return new UniformSampler(counter(), maxLength);
+    }
+
+    /**
+     * Contador del lenguaje, creado en el primer uso
+     */
+    public LanguageCounter counter() {
+        if (counter == null) {
+            counter = new LanguageCounter(cnf);
+        }
+        return counter;
+    }
+
+    /**
+     * Mínimo número de terminales derivable por cada símbolo (punto fijo sobre las
+     * producciones; Integer.MAX_VALUE si no deriva ninguna cadena)
+     */
+    private int[] computeMinYield() {
+        int[] yield = new int[compiled.getSymbolCount()];
+        Arrays.fill(yield, compiled.getTerminalCount(), yield.length, Integer.MAX_VALUE);
+        for (int t = 0; t < compiled.getTerminalCount(); t++) {
+            yield[t] = 1;
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int p = 0; p < compiled.getProductionCount(); p++) {
+                long length = rightYield(yield, p);
+                int left = compiled.leftOf(p);
+                if (length < yield[left]) {
+                    yield[left] = (int) length;
+                    changed = true;
+                }
             }
+        }
+        return yield;
+    }
 
-            // Expandir el primer no terminal (leftmost derivation)
-            int nonTerminalIndex = findFirstNonTerminal(current.sententialForm);
+    private long rightYield(int[] yield, int production) {
+        long length = 0;
+        for (int k = 0; k < compiled.rightLength(production); k++) {
+            length += yield[compiled.rightSymbol(production, k)];
+        }
+        return length;
+    }
 
-            if (nonTerminalIndex == -1) {
-                continue;
+    /**
+     * Forma sentencial resultante de sustituir el primer no terminal de state por el lado
+     * derecho de la producción. El lado derecho se apila sobre el resto del sufijo, que se
+     * comparte, y los terminales que quedan delante pasan al prefijo.
+     */
+    private DerivationState applyProduction(DerivationState state, int prod) {
+        Suffix suffix = state.suffix.next;
+        for (int k = compiled.rightLength(prod) - 1; k >= 0; k--) {
+            int symbol = compiled.rightSymbol(prod, k);
+            suffix = new Suffix(symbol, minYield[symbol], suffix);
+        }
+        Prefix prefix = state.prefix;
+        while (suffix != null && compiled.isTerminal(suffix.symbol)) {
+            prefix = new Prefix(prefix, suffix.symbol);
+            suffix = suffix.next;
+        }
+        return new DerivationState(prefix, suffix);
+    }
+
+    /**
+     * Recorrido por cota de longitud. La frontera es una cola por cota (la cota de los
+     * hijos nunca es menor que la del padre, así que basta avanzar de una cota a la
+     * siguiente) y cada cola descarta las formas repetidas al encolar: una forma a la que
+     * se llega por derivaciones distintas se expande una sola vez.
+     */
+    private class ShortestFirst implements Iterator<String> {
+        private final List<Level> levels = new ArrayList<>();
+        private int level;
+        private int position;
+        private String next;
+
+        ShortestFirst() {
+            int startSymbol = compiled.getStartSymbol();
+            if (minYield[startSymbol] != Integer.MAX_VALUE) {
+                offer(new DerivationState(null, new Suffix(startSymbol, minYield[startSymbol], null)));
             }
+        }
 
-            String nonTerminal = current.sententialForm.get(nonTerminalIndex);
-            List<Production> productions = grammar.getProductionsFor(nonTerminal);
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
 
-            // Aplicar cada producción
-            for (Production prod : productions) {
-                DerivationState newState = applyProduction(current, nonTerminalIndex, prod);
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            next = null;
+            return result;
+        }
 
-                // Limitar profundidad para evitar bucles infinitos
-                if (newState.depth < 20 && newState.sententialForm.size() < 50) {
-                    queue.offer(newState);
-                }
+        private void offer(DerivationState state) {
+            while (levels.size() <= state.bound) {
+                levels.add(null);
+            }
+            Level target = levels.get(state.bound);
+            if (target == null) {
+                target = new Level();
+                levels.set(state.bound, target);
             }
+            target.add(state);
         }
 
-        return new ArrayList<>(generated);
+        private String advance() {
+            while (level < levels.size()) {
+                Level current = levels.get(level);
+                if (current == null || position == current.states.size()) {
+                    // Cota agotada: sus formas no pueden volver a aparecer
+                    levels.set(level++, null);
+                    position = 0;
+                    continue;
+                }
+                DerivationState state = current.states.get(position++);
+
+                // Expandir el primer no terminal (leftmost derivation), que encabeza el
+                // sufijo; si no hay sufijo, la forma sólo tiene terminales y es una cadena
+                if (state.suffix == null) {
+                    return state.toString();
+                }
+
+                int nonTerminal = state.suffix.symbol;
+                for (int prod = compiled.firstProduction(nonTerminal); prod < compiled.endProduction(nonTerminal); prod++) {
+                    if (rightYield(minYield, prod) < Integer.MAX_VALUE) {
+                        offer(applyProduction(state, prod));
+                    }
+                }
+            }
+            return null;
+        }
     }
 
     /**
-     * Aplica una producción a una forma sentencial
+     * Recorrido por cota en paralelo con la misma salida que ShortestFirst. La cola de la
+     * cota actual se procesa por tramos consecutivos en tres fases: el pool expande a la
+     * vez las porciones del tramo; después descarta las hijas repetidas repartiéndolas por
+     * su hash en fragmentos, cada uno con su propio índice y recorrido por un único hilo en
+     * el orden del tramo, de modo que sobrevive la primera aparición como en el recorrido
+     * secuencial; por último las supervivientes se añaden a las colas en ese mismo orden.
      */
-    private DerivationState applyProduction(DerivationState state, int index, Production prod) {
-        DerivationState newState = new DerivationState();
-        newState.depth = state.depth + 1;
-        newState.sententialForm = new ArrayList<>();
+    private class ParallelShortestFirst implements Iterator<String> {
+        // Formas que se expanden antes de entregar sus cadenas
+        private static final int CHUNK = 1 << 14;
+        // Fragmentos del índice de repetidas, elegidos por los bits altos del hash
+        private static final int SHARDS = 64;
+
+        private final ForkJoinPool pool;
+        private final List<SharedLevel> levels = new ArrayList<>();
+        private int level;
+        private int position;
+        private Slice[] slices; // porciones del tramo en curso
+        private Iterator<String> ready = Collections.emptyIterator();
+
+        ParallelShortestFirst(ForkJoinPool pool) {
+            this.pool = pool;
+            int startSymbol = compiled.getStartSymbol();
+            if (minYield[startSymbol] != Integer.MAX_VALUE) {
+                offer(new DerivationState(null, new Suffix(startSymbol, minYield[startSymbol], null)));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!ready.hasNext()) {
+                if (level == levels.size()) {
+                    return false;
+                }
+                SharedLevel current = levels.get(level);
+                if (current == null || position == current.states.size()) {
+                    // Cota agotada: sus formas no pueden volver a aparecer
+                    levels.set(level++, null);
+                    position = 0;
+                } else {
+                    ready = expandChunk(current).iterator();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return ready.next();
+        }
+
+        /**
+         * Expande el siguiente tramo de la cota actual y devuelve sus cadenas completas en
+         * el orden de la cola. Las colas de las cotas que pueden recibir hijas se crean
+         * antes de descartar repetidas, para que en esa fase la lista de cotas no cambie.
+         */
+        private List<String> expandChunk(SharedLevel current) {
+            int end = Math.min(current.states.size(), position + CHUNK);
+            if (end - position <= Slice.SIZE) {
+                return expandSerially(current, end);
+            }
+            int count = (end - position + Slice.SIZE - 1) / Slice.SIZE;
+            slices = new Slice[count];
+            for (int i = 0; i < count; i++) {
+                int from = position + i * Slice.SIZE;
+                slices[i] = new Slice(current.states, from, Math.min(end, from + Slice.SIZE));
+            }
+            pool.invoke(new ChunkTask(this, 0, count, false));
+            int highest = level;
+            for (Slice slice : slices) {
+                highest = Math.max(highest, slice.highest);
+            }
+            ensureLevels(highest);
+            pool.invoke(new ChunkTask(this, 0, SHARDS, true));
+
+            List<String> strings = new ArrayList<>();
+            for (Slice slice : slices) {
+                strings.addAll(slice.complete);
+                for (int k = 0; k < slice.children.size(); k++) {
+                    if (slice.survives[k]) {
+                        DerivationState child = slice.children.get(k);
+                        levels.get(child.bound).states.add(child);
+                    }
+                }
+            }
+            slices = null;
+            position = end;
+            return strings;
+        }
+
+        /**
+         * Un tramo de una sola porción (cotas con pocas formas) no compensa el reparto: se
+         * expande en este hilo como en ShortestFirst
+         */
+        private List<String> expandSerially(SharedLevel current, int end) {
+            List<String> strings = new ArrayList<>();
+            for (; position < end; position++) {
+                DerivationState state = current.states.get(position);
+                if (state.suffix == null) {
+                    strings.add(state.toString());
+                    continue;
+                }
+                int nonTerminal = state.suffix.symbol;
+                for (int prod = compiled.firstProduction(nonTerminal); prod < compiled.endProduction(nonTerminal); prod++) {
+                    if (rightYield(minYield, prod) < Integer.MAX_VALUE) {
+                        offer(applyProduction(state, prod));
+                    }
+                }
+            }
+            return strings;
+        }
 
-        // Copiar símbolos antes del índice
-        for (int i = 0; i < index; i++) {
-            newState.sententialForm.add(state.sententialForm.get(i));
+        private void offer(DerivationState state) {
+            while (levels.size() <= state.bound) {
+                levels.add(null);
+            }
+            SharedLevel target = levels.get(state.bound);
+            if (target == null) {
+                target = new SharedLevel();
+                levels.set(state.bound, target);
+            }
+            if (target.shard(shardOf(state)).add(state)) {
+                target.states.add(state);
+            }
         }
 
-        // Agregar símbolos de la producción (excepto epsilon)
-        if (!prod.isEpsilonProduction()) {
-            newState.sententialForm.addAll(prod.getRightSymbols());
+        private void ensureLevels(int highest) {
+            while (levels.size() <= highest) {
+                levels.add(null);
+            }
+            for (int bound = level; bound <= highest; bound++) {
+                if (levels.get(bound) == null) {
+                    levels.set(bound, new SharedLevel());
+                }
+            }
         }
 
-        // Copiar símbolos después del índice
-        for (int i = index + 1; i < state.sententialForm.size(); i++) {
-            newState.sententialForm.add(state.sententialForm.get(i));
+        /**
+         * Primera fase de una porción: sus cadenas completas y sus hijas, en orden
+         */
+        void expand(Slice slice) {
+            for (int i = slice.from; i < slice.to; i++) {
+                DerivationState state = slice.states.get(i);
+                if (state.suffix == null) {
+                    slice.complete.add(state.toString());
+                    continue;
+                }
+                int nonTerminal = state.suffix.symbol;
+                for (int prod = compiled.firstProduction(nonTerminal); prod < compiled.endProduction(nonTerminal); prod++) {
+                    if (rightYield(minYield, prod) < Integer.MAX_VALUE) {
+                        DerivationState child = applyProduction(state, prod);
+                        slice.children.add(child);
+                        slice.highest = Math.max(slice.highest, child.bound);
+                    }
+                }
+            }
+            slice.group();
         }
 
-        return newState;
+        /**
+         * Segunda fase de un fragmento: recorre sus hijas porción a porción, en el orden
+         * del tramo, y marca las que no estaban ya en el índice de su cota
+         */
+        void deduplicate(int shard) {
+            for (Slice slice : slices) {
+                for (int j = slice.starts[shard]; j < slice.starts[shard + 1]; j++) {
+                    int k = slice.order[j];
+                    DerivationState child = slice.children.get(k);
+                    slice.survives[k] = levels.get(child.bound).shard(shard).add(child);
+                }
+            }
+        }
+    }
+
+    private static int shardOf(DerivationState state) {
+        return (int) (state.hash >>> 58); // 64 fragmentos
     }
 
     /**
-     * Encuentra el primer no terminal en la forma sentencial
+     * Porción de un tramo: posiciones [from, to) de la cola de la cota, cadenas completas
+     * que contiene y las hijas que genera, en orden y agrupadas además por fragmento
      */
-    private int findFirstNonTerminal(List<String> sententialForm) {
-        for (int i = 0; i < sententialForm.size(); i++) {
-            if (grammar.isNonTerminal(sententialForm.get(i))) {
-                return i;
+    private static final class Slice {
+        static final int SIZE = 256;
+
+        final List<DerivationState> states;
+        final int from;
+        final int to;
+        final List<String> complete = new ArrayList<>();
+        final List<DerivationState> children = new ArrayList<>();
+        int highest; // mayor cota de las hijas
+        int[] order;  // posiciones de las hijas ordenadas por fragmento
+        int[] starts; // comienzo de cada fragmento en order
+        boolean[] survives;
+
+        Slice(List<DerivationState> states, int from, int to) {
+            this.states = states;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Agrupa las hijas por fragmento (ordenación por recuento, estable)
+         */
+        void group() {
+            int size = children.size();
+            starts = new int[ParallelShortestFirst.SHARDS + 1];
+            for (DerivationState child : children) {
+                starts[shardOf(child) + 1]++;
+            }
+            for (int s = 0; s < ParallelShortestFirst.SHARDS; s++) {
+                starts[s + 1] += starts[s];
             }
+            int[] next = Arrays.copyOf(starts, ParallelShortestFirst.SHARDS);
+            order = new int[size];
+            for (int k = 0; k < size; k++) {
+                order[next[shardOf(children.get(k))]++] = k;
+            }
+            survives = new boolean[size];
         }
-        return -1;
     }
 
     /**
-     * Verifica si una forma sentencial solo contiene terminales
+     * Índices [from, to) de una fase del tramo, divididos por la mitad para que los hilos
+     * libres del pool roben trabajo: porciones que expandir o, si deduplicating, fragmentos
+     * en los que descartar repetidas
      */
-    private boolean isTerminalString(List<String> sententialForm) {
-        if (sententialForm.isEmpty()) {
-            return true;
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Las tareas no se serializan: sólo viven durante un tramo
+        private final transient ParallelShortestFirst owner;
+        private final int from;
+        private final int to;
+        private final boolean deduplicating;
+
+        ChunkTask(ParallelShortestFirst owner, int from, int to, boolean deduplicating) {
+            this.owner = owner;
+            this.from = from;
+            this.to = to;
+            this.deduplicating = deduplicating;
         }
 
-        for (String symbol : sententialForm) {
-            if (!grammar.isTerminal(symbol) && !symbol.equals("ε")) {
-                return false;
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(owner, from, middle, deduplicating),
+                        new ChunkTask(owner, middle, to, deduplicating));
+            } else if (deduplicating) {
+                owner.deduplicate(from);
+            } else {
+                owner.expand(owner.slices[from]);
             }
         }
-        return true;
     }
 
     /**
-     * Convierte una forma sentencial a cadena
+     * Cota del recorrido paralelo: cola de formas en orden secuencial, que sólo crece en
+     * la fase final de cada tramo, y un índice de repetidas por fragmento, creado por el
+     * único hilo que lo usa
      */
-    private String sententialFormToString(List<String> sententialForm) {
-        if (sententialForm.isEmpty()) {
-            return "ε";
+    private static final class SharedLevel {
+        final List<DerivationState> states = new ArrayList<>();
+        final Level[] shards = new Level[ParallelShortestFirst.SHARDS];
+
+        Level shard(int shard) {
+            if (shards[shard] == null) {
+                shards[shard] = new Level();
+            }
+            return shards[shard];
         }
+    }
+
+    /**
+     * Formas de una misma cota en orden de llegada, con un índice de direccionamiento
+     * abierto sobre su hash para descartar repetidas sin duplicar referencias en un HashSet
+     */
+    private static final class Level {
+        final List<DerivationState> states = new ArrayList<>();
+        int[] table = new int[16]; // posición en states + 1, o 0 si la casilla está libre
 
-        StringBuilder sb = new StringBuilder();
-        for (String symbol : sententialForm) {
-            if (!symbol.equals("ε")) {
-                sb.append(symbol);
+        /**
+         * Añade la forma si no estaba; devuelve si la ha añadido
+         */
+        boolean add(DerivationState state) {
+            int mask = table.length - 1;
+            int slot = (int) (state.hash ^ (state.hash >>> 32)) & mask;
+            while (table[slot] != 0) {
+                if (states.get(table[slot] - 1).equals(state)) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            states.add(state);
+            table[slot] = states.size();
+            if (2 * states.size() > table.length) {
+                rehash();
             }
+            return true;
         }
 
-        return sb.length() == 0 ? "ε" : sb.toString();
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int i = 0; i < states.size(); i++) {
+                long hash = states.get(i).hash;
+                int slot = (int) (hash ^ (hash >>> 32)) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = i + 1;
+            }
+        }
     }
 
+    // Base del hash polinómico (módulo 2^64) de las formas sentenciales
+    private static final long HASH_BASE = 0x9E3779B97F4A7C15L;
+
     /**
-     * Estado de derivación para BFS
+     * Prefijo de terminales, como lista enlazada desde el último: los hijos de un estado
+     * comparten el prefijo del padre y sólo añaden nodos para los terminales nuevos
      */
-    private static class DerivationState {
-        List<String> sententialForm;
-        int depth;
+    private static final class Prefix {
+        final Prefix parent;
+        final int symbol;
+        final int length;
+        final long hash;
+
+        Prefix(Prefix parent, int symbol) {
+            this.parent = parent;
+            this.symbol = symbol;
+            this.length = parent == null ? 1 : parent.length + 1;
+            this.hash = (parent == null ? 0 : parent.hash) * HASH_BASE + symbol + 1;
+        }
+    }
+
+    /**
+     * Resto de la forma sentencial, empezando por el primer no terminal, como pila
+     * persistente: expandir la cabeza apila el lado derecho sobre el resto sin copiarlo
+     */
+    private static final class Suffix {
+        final int symbol;
+        final Suffix next;
+        final int length;
+        final int minYield;  // suma de los rendimientos mínimos de los símbolos
+        final long hash;
+        final long power;    // HASH_BASE^length
+
+        Suffix(int symbol, int minYield, Suffix next) {
+            this.symbol = symbol;
+            this.next = next;
+            this.length = next == null ? 1 : next.length + 1;
+            this.minYield = next == null ? minYield : next.minYield + minYield;
+            long nextPower = next == null ? 1 : next.power;
+            this.hash = (symbol + 1) * nextPower + (next == null ? 0 : next.hash);
+            this.power = nextPower * HASH_BASE;
+        }
+    }
+
+    /**
+     * Estado de derivación: prefijo de terminales y sufijo compartidos con otros estados,
+     * y cota inferior de la longitud final.
+     * El hash de la forma completa se combina en O(1) a partir de los de sus dos partes;
+     * la igualdad compara las listas sólo cuando coinciden hash y longitudes.
+     */
+    private final class DerivationState {
+        final Prefix prefix;
+        final Suffix suffix;
+        final int bound;
+        final long hash;
+
+        DerivationState(Prefix prefix, Suffix suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.bound = (prefix == null ? 0 : prefix.length) + (suffix == null ? 0 : suffix.minYield);
+            long prefixHash = prefix == null ? 0 : prefix.hash;
+            this.hash = suffix == null ? prefixHash : prefixHash * suffix.power + suffix.hash;
+        }
 
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
+            if (!(o instanceof DerivationState)) return false;
             DerivationState that = (DerivationState) o;
-            return Objects.equals(sententialForm, that.sententialForm);
+            if (hash != that.hash || bound != that.bound) return false;
+            Prefix p = prefix;
+            Prefix q = that.prefix;
+            while (p != q) {
+                if (p == null || q == null || p.symbol != q.symbol) return false;
+                p = p.parent;
+                q = q.parent;
+            }
+            Suffix r = suffix;
+            Suffix t = that.suffix;
+            while (r != t) {
+                if (r == null || t == null || r.symbol != t.symbol) return false;
+                r = r.next;
+                t = t.next;
+            }
+            return true;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(sententialForm);
+            return Long.hashCode(hash);
+        }
+
+        /**
+         * Cadena de terminales de una forma completa
+         */
+        @Override
+        public String toString() {
+            if (prefix == null) {
+                return "ε";
+            }
+            int[] symbols = new int[prefix.length];
+            for (Prefix p = prefix; p != null; p = p.parent) {
+                symbols[p.length - 1] = p.symbol;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int symbol : symbols) {
+                sb.append(compiled.nameOf(symbol));
+            }
+            return sb.toString();
         }
     }
 }
@@ -0,0 +1,274 @@
+package org.example.generator;
+
+import org.example.model.CompiledGrammar;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Muestreo uniforme de cadenas del lenguaje, para generar entradas de prueba en volumen.
+ * <p>
+ * Al construirlo se calculan, para cada (no terminal, longitud) hasta la longitud máxima,
+ * las elecciones posibles (terminal, o producción A → B C con el reparto de la longitud)
+ * con sus pesos acumulados. Cada cadena se obtiene después eligiendo de arriba abajo con
+ * probabilidad proporcional al número de derivaciones de cada opción, sin cola ni
+ * retroceso: es uniforme entre las cadenas de esa longitud si la gramática no es ambigua.
+ * Los pesos van en long mientras caben y en BigInteger a partir de ahí.
+ * <p>
+ * Las tablas no cambian tras la construcción, así que una instancia puede compartirse
+ * entre hilos; cada hilo usa su propio SplittableRandom (por ejemplo, obtenido con split()
+ * de uno con semilla fija para que los resultados sean reproducibles).
+ */
+public class UniformSampler {
+
+    private final CompiledGrammar compiled;
+    private final int start;
+    private final boolean acceptsEmpty;
+    private final int[] binaryFirst;
+    private final int[] binarySecond;
+    private final int maxLength;
+
+    // choices[n][A]: elecciones de A para n terminales (null si no deriva ninguna cadena)
+    private final Choices[][] choices;
+    // lengthWeights[n]: cadenas de longitud como mucho n
+    private final BigInteger[] lengthWeights;
+
+    public UniformSampler(LanguageCounter counter, int maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("La longitud no puede ser negativa: " + maxLength);
+        }
+        this.compiled = counter.compiled;
+        this.start = counter.start;
+        this.acceptsEmpty = counter.acceptsEmpty;
+        this.binaryFirst = counter.binaryFirst;
+        this.binarySecond = counter.binarySecond;
+        this.maxLength = maxLength;
+
+        int nonTerminals = compiled.getNonTerminalCount();
+        this.choices = new Choices[maxLength + 1][nonTerminals];
+        this.lengthWeights = new BigInteger[maxLength + 1];
+        BigInteger total = BigInteger.ZERO;
+        for (int n = 0; n <= maxLength; n++) {
+            total = total.add(counter.counts(n)[start]);
+            lengthWeights[n] = total;
+        }
+
+        for (int n = 1; n <= maxLength; n++) {
+            List<List<int[]>> options = new ArrayList<>();
+            List<List<BigInteger>> weights = new ArrayList<>();
+            for (int a = 0; a < nonTerminals; a++) {
+                options.add(new ArrayList<>());
+                weights.add(new ArrayList<>());
+            }
+            if (n == 1) {
+                for (int t = 0; t < counter.producers.length; t++) {
+                    for (int a : counter.producers[t]) {
+                        options.get(a).add(new int[]{t, 0});
+                        weights.get(a).add(BigInteger.ONE);
+                    }
+                }
+            }
+            for (int b = 0; b < counter.binaryLeft.length; b++) {
+                for (int l = 1; l < n; l++) {
+                    BigInteger first = counter.counts(l)[binaryFirst[b]];
+                    BigInteger second = counter.counts(n - l)[binarySecond[b]];
+                    if (first.signum() != 0 && second.signum() != 0) {
+                        options.get(counter.binaryLeft[b]).add(new int[]{b, l});
+                        weights.get(counter.binaryLeft[b]).add(first.multiply(second));
+                    }
+                }
+            }
+            for (int a = 0; a < nonTerminals; a++) {
+                if (!options.get(a).isEmpty()) {
+                    choices[n][a] = new Choices(options.get(a), weights.get(a));
+                }
+            }
+        }
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Indica si hay cadenas con el número de terminales dado
+     */
+    public boolean hasStrings(int length) {
+        checkLength(length);
+        return length == 0 ? acceptsEmpty : choices[length][start] != null;
+    }
+
+    /**
+     * Cadena uniforme entre las que tienen el número de terminales dado
+     * @throws IllegalArgumentException si no hay ninguna
+     */
+    public String sample(int length, SplittableRandom random) {
+        if (!hasStrings(length)) {
+            throw new IllegalArgumentException("El lenguaje no tiene cadenas de longitud " + length);
+        }
+        if (length == 0) {
+            return "ε";
+        }
+
+        // Pila de (no terminal, longitud); la suma de longitudes apiladas no pasa de length
+        int[] stack = new int[2 * length + 2];
+        int top = 0;
+        stack[top++] = start;
+        stack[top++] = length;
+        StringBuilder sb = new StringBuilder();
+        while (top > 0) {
+            int n = stack[--top];
+            int a = stack[--top];
+            Choices c = choices[n][a];
+            int k = c.draw(random);
+            int split = c.split[k];
+            if (split == 0) {
+                sb.append(compiled.nameOf(c.symbol[k]));
+            } else {
+                int b = c.symbol[k];
+                stack[top++] = binarySecond[b];
+                stack[top++] = n - split;
+                stack[top++] = binaryFirst[b];
+                stack[top++] = split;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Cadena uniforme entre todas las de longitud entre shortest y longest: cada
+     * longitud se elige con probabilidad proporcional a su número de cadenas
+     * @throws IllegalArgumentException si no hay ninguna en el intervalo
+     */
+    public String sample(int shortest, int longest, SplittableRandom random) {
+        checkLength(shortest);
+        checkLength(longest);
+        BigInteger below = shortest == 0 ? BigInteger.ZERO : lengthWeights[shortest - 1];
+        BigInteger range = lengthWeights[longest].subtract(below);
+        if (shortest > longest || range.signum() <= 0) {
+            throw new IllegalArgumentException(
+                    "El lenguaje no tiene cadenas de longitud entre " + shortest + " y " + longest);
+        }
+        BigInteger r = below.add(randomBelow(range, random));
+        int low = shortest;
+        int high = longest;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lengthWeights[mid].compareTo(r) > 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return sample(low, random);
+    }
+
+    /**
+     * Lista de count cadenas de la longitud dada, elegidas de forma independiente
+     */
+    public List<String> samples(int length, int count, SplittableRandom random) {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(sample(length, random));
+        }
+        return result;
+    }
+
+    private void checkLength(int length) {
+        if (length < 0 || length > maxLength) {
+            throw new IllegalArgumentException(
+                    "La longitud debe estar entre 0 y " + maxLength + ": " + length);
+        }
+    }
+
+    /**
+     * Entero uniforme en [0, bound) por rechazo sobre bitLength bits aleatorios
+     */
+    private static BigInteger randomBelow(BigInteger bound, SplittableRandom random) {
+        if (bound.bitLength() < 63) {
+            return BigInteger.valueOf(random.nextLong(bound.longValue()));
+        }
+        int bits = bound.bitLength();
+        byte[] magnitude = new byte[(bits + 7) / 8];
+        int excess = magnitude.length * 8 - bits;
+        while (true) {
+            for (int i = 0; i < magnitude.length; i += 8) {
+                long word = random.nextLong();
+                for (int j = i; j < Math.min(i + 8, magnitude.length); j++) {
+                    magnitude[j] = (byte) word;
+                    word >>>= 8;
+                }
+            }
+            magnitude[0] &= (byte) (0xFF >>> excess);
+            BigInteger r = new BigInteger(1, magnitude);
+            if (r.compareTo(bound) < 0) {
+                return r;
+            }
+        }
+    }
+
+    /**
+     * Elecciones de un (no terminal, longitud): symbol es el terminal si split es 0 y el
+     * índice de la producción binaria si no, con split terminales para el primer símbolo
+     */
+    private static class Choices {
+        final int[] symbol;
+        final int[] split;
+        final long[] cumulative;          // null si el total no cabe en long
+        final BigInteger[] bigCumulative; // null si cabe
+
+        Choices(List<int[]> options, List<BigInteger> weights) {
+            int size = options.size();
+            this.symbol = new int[size];
+            this.split = new int[size];
+            BigInteger[] sums = new BigInteger[size];
+            BigInteger total = BigInteger.ZERO;
+            for (int i = 0; i < size; i++) {
+                symbol[i] = options.get(i)[0];
+                split[i] = options.get(i)[1];
+                total = total.add(weights.get(i));
+                sums[i] = total;
+            }
+            if (total.bitLength() < 63) {
+                this.cumulative = Arrays.stream(sums).mapToLong(BigInteger::longValue).toArray();
+                this.bigCumulative = null;
+            } else {
+                this.cumulative = null;
+                this.bigCumulative = sums;
+            }
+        }
+
+        /**
+         * Índice de la opción elegida con probabilidad proporcional a su peso
+         */
+        int draw(SplittableRandom random) {
+            int low = 0;
+            int high = symbol.length - 1;
+            if (cumulative != null) {
+                long r = random.nextLong(cumulative[high]);
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (cumulative[mid] > r) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+            } else {
+                BigInteger r = randomBelow(bigCumulative[high], random);
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (bigCumulative[mid].compareTo(r) > 0) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+            }
+            return low;
+        }
+    }
+}
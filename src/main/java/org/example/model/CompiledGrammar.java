@@ -0,0 +1,271 @@
+package org.example.model;
+
+import org.example.automaton.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Forma inmutable e indexada por enteros de una gramática, pensada para los algoritmos.
+ * Los símbolos se numeran con los terminales en [0, T) y los no terminales en [T, T + N).
+ * Las producciones se agrupan por lado izquierdo y sus lados derechos se guardan en un
+ * único arreglo con desplazamientos (formato CSR); las producciones ε tienen lado derecho vacío.
+ */
+public class CompiledGrammar {
+
+    private final Grammar grammar;
+    private final String[] symbols;
+    private final int terminalCount;
+    private final Map<String, Integer> ids;
+    private final int startSymbol;
+
+    private final Production[] productions;
+    private final int[] sourceIndex;       // producción -> índice en grammar.getProductions()
+    private final int[] left;
+    private final int[] rightOffsets;
+    private final int[] right;
+    private final int[] productionOffsets; // no terminal (desde 0) -> primera producción
+
+    private final boolean[] nullable;
+    private final Tokenizer tokenizer;
+
+    private CompiledGrammar(Grammar grammar, String[] symbols, int terminalCount, int startSymbol,
+                            Production[] productions, int[] sourceIndex, int[] left,
+                            int[] rightOffsets, int[] right, int[] productionOffsets) {
+        this.grammar = grammar;
+        this.symbols = symbols;
+        this.terminalCount = terminalCount;
+        this.ids = new HashMap<>();
+        for (int i = 0; i < symbols.length; i++) {
+            ids.put(symbols[i], i);
+        }
+        this.startSymbol = startSymbol;
+        this.productions = productions;
+        this.sourceIndex = sourceIndex;
+        this.left = left;
+        this.rightOffsets = rightOffsets;
+        this.right = right;
+        this.productionOffsets = productionOffsets;
+        this.nullable = computeNullable();
+        this.tokenizer = Tokenizer.of(Arrays.copyOf(symbols, terminalCount));
+    }
+
+    /**
+     * Forma compilada de la gramática, compartida mientras la gramática no cambie
+     */
+    public static CompiledGrammar of(Grammar grammar) {
+        return grammar.compiled();
+    }
+
+    /**
+     * Compila la gramática, validando que todos los símbolos estén definidos
+     */
+    static CompiledGrammar compile(Grammar grammar) {
+        List<String> terminals = new ArrayList<>(new TreeSet<>(grammar.getTerminals()));
+        List<String> nonTerminals = new ArrayList<>(new TreeSet<>(grammar.getNonTerminals()));
+
+        String[] symbols = new String[terminals.size() + nonTerminals.size()];
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < terminals.size(); i++) {
+            symbols[i] = terminals.get(i);
+            ids.put(terminals.get(i), i);
+        }
+        int terminalCount = terminals.size();
+        for (int i = 0; i < nonTerminals.size(); i++) {
+            String symbol = nonTerminals.get(i);
+            if (ids.containsKey(symbol)) {
+                throw new IllegalArgumentException("Símbolo terminal y no terminal a la vez: " + symbol);
+            }
+            symbols[terminalCount + i] = symbol;
+            ids.put(symbol, terminalCount + i);
+        }
+
+        Integer start = ids.get(grammar.getStartSymbol());
+        if (start == null || start < terminalCount) {
+            throw new IllegalArgumentException("El símbolo inicial debe estar en N");
+        }
+
+        // Orden estable por lado izquierdo: se conserva el orden original dentro de cada no terminal
+        List<Production> source = grammar.getProductions();
+        List<List<Integer>> byLeft = new ArrayList<>();
+        for (int i = 0; i < nonTerminals.size(); i++) {
+            byLeft.add(new ArrayList<>());
+        }
+        for (int i = 0; i < source.size(); i++) {
+            Integer id = ids.get(source.get(i).getLeft());
+            if (id == null || id < terminalCount) {
+                throw new IllegalArgumentException(
+                        "Lado izquierdo de producción debe ser no terminal: " + source.get(i).getLeft());
+            }
+            byLeft.get(id - terminalCount).add(i);
+        }
+
+        int count = source.size();
+        Production[] productions = new Production[count];
+        int[] sourceIndex = new int[count];
+        int[] left = new int[count];
+        int[] rightOffsets = new int[count + 1];
+        int[] productionOffsets = new int[nonTerminals.size() + 1];
+        List<Integer> right = new ArrayList<>();
+
+        int p = 0;
+        for (int nt = 0; nt < nonTerminals.size(); nt++) {
+            productionOffsets[nt] = p;
+            for (int index : byLeft.get(nt)) {
+                Production production = source.get(index);
+                productions[p] = production;
+                sourceIndex[p] = index;
+                left[p] = terminalCount + nt;
+                rightOffsets[p] = right.size();
+                if (!production.isEpsilonProduction()) {
+                    for (String symbol : production.getRightSymbols()) {
+                        if (symbol.equals("ε")) {
+                            continue;
+                        }
+                        Integer id = ids.get(symbol);
+                        if (id == null) {
+                            throw new IllegalArgumentException("Símbolo desconocido en producción: " + symbol);
+                        }
+                        right.add(id);
+                    }
+                }
+                p++;
+            }
+        }
+        productionOffsets[nonTerminals.size()] = p;
+        rightOffsets[count] = right.size();
+
+        int[] rightArray = new int[right.size()];
+        for (int i = 0; i < rightArray.length; i++) {
+            rightArray[i] = right.get(i);
+        }
+
+        return new CompiledGrammar(grammar, symbols, terminalCount, start, productions, sourceIndex,
+                left, rightOffsets, rightArray, productionOffsets);
+    }
+
+    private boolean[] computeNullable() {
+        boolean[] result = new boolean[symbols.length];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int p = 0; p < productions.length; p++) {
+                if (result[left[p]]) {
+                    continue;
+                }
+                boolean all = true;
+                for (int k = rightOffsets[p]; k < rightOffsets[p + 1] && all; k++) {
+                    all = result[right[k]];
+                }
+                if (all) {
+                    result[left[p]] = true;
+                    changed = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    public int getNonTerminalCount() {
+        return symbols.length - terminalCount;
+    }
+
+    public boolean isTerminal(int symbol) {
+        return symbol < terminalCount;
+    }
+
+    /**
+     * Identificador de un símbolo, o -1 si no pertenece a la gramática
+     */
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    public String nameOf(int symbol) {
+        return symbols[symbol];
+    }
+
+    public int getStartSymbol() {
+        return startSymbol;
+    }
+
+    public int getProductionCount() {
+        return productions.length;
+    }
+
+    public Production getProduction(int production) {
+        return productions[production];
+    }
+
+    /**
+     * Producciones en el orden de este índice (agrupadas por lado izquierdo)
+     */
+    public List<Production> getProductions() {
+        return Collections.unmodifiableList(Arrays.asList(productions));
+    }
+
+    /**
+     * Posición de la producción en la lista de la gramática de origen
+     */
+    public int sourceIndexOf(int production) {
+        return sourceIndex[production];
+    }
+
+    public int leftOf(int production) {
+        return left[production];
+    }
+
+    public int rightLength(int production) {
+        return rightOffsets[production + 1] - rightOffsets[production];
+    }
+
+    /**
+     * Símbolo en la posición k del lado derecho
+     */
+    public int rightSymbol(int production, int k) {
+        return right[rightOffsets[production] + k];
+    }
+
+    /**
+     * Primera producción del no terminal (rango [firstProduction, endProduction))
+     */
+    public int firstProduction(int nonTerminal) {
+        return productionOffsets[nonTerminal - terminalCount];
+    }
+
+    public int endProduction(int nonTerminal) {
+        return productionOffsets[nonTerminal - terminalCount + 1];
+    }
+
+    /**
+     * Indica si el símbolo deriva la cadena vacía
+     */
+    public boolean isNullable(int symbol) {
+        return nullable[symbol];
+    }
+
+    /**
+     * Tokenizador de terminales; sus identificadores coinciden con los de este índice
+     */
+    public Tokenizer getTokenizer() {
+        return tokenizer;
+    }
+}
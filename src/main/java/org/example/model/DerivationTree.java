@@ -1,6 +1,8 @@
 package org.example.model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 public class DerivationTree {
@@ -50,6 +52,43 @@ public class DerivationTree {
         return root;
     }
 
+    /**
+     * Reconstruye el árbol a partir de una derivación por la izquierda, dada como la
+     * secuencia de índices (en compiled.getProductions()) de las producciones aplicadas.
+     * Sólo usa la forma compilada, que no cambia aunque se edite la gramática de origen.
+     */
+    public static DerivationTree fromTrace(CompiledGrammar compiled, int[] trace) {
+        List<Production> productions = compiled.getProductions();
+        DerivationTree tree = new DerivationTree(compiled.nameOf(compiled.getStartSymbol()));
+        Deque<TreeNode> pending = new ArrayDeque<>();
+        pending.push(tree.getRoot());
+        int step = 0;
+
+        while (!pending.isEmpty() && step < trace.length) {
+            TreeNode node = pending.pop();
+            Production production = productions.get(trace[step++]);
+            node.setUsedProduction(production);
+
+            if (production.isEpsilonProduction()) {
+                node.addChild(new TreeNode("ε"));
+                continue;
+            }
+
+            for (String symbol : production.getRightSymbols()) {
+                node.addChild(new TreeNode(symbol));
+            }
+            List<TreeNode> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                int symbol = compiled.idOf(children.get(i).getSymbol());
+                if (symbol >= 0 && !compiled.isTerminal(symbol)) {
+                    pending.push(children.get(i));
+                }
+            }
+        }
+
+        return tree;
+    }
+
     /**
      * Genera una representación textual del árbol usando indentación
      */
@@ -1,9 +1,16 @@
 package org.example.model;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class Grammar {
 
@@ -12,6 +19,9 @@ public class Grammar {
     private List<Production> productions; // P
     private String startSymbol;        // S
     private GrammarType type;
+    private String contentHash;        // calculada bajo demanda
+    private volatile Map<String, List<Production>> productionsByLeft; // índice bajo demanda
+    private volatile CompiledGrammar compiled;                        // compilada bajo demanda
 
     public Grammar() {
         this.nonTerminals = new HashSet<>();
@@ -60,18 +70,103 @@ public class Grammar {
     }
 
     /**
-     * Obtiene todas las producciones para un no terminal dado
+     * Obtiene todas las producciones para un no terminal dado (vista no modificable).
+     * El índice por lado izquierdo se construye una vez y se descarta si la gramática cambia.
      */
     public List<Production> getProductionsFor(String nonTerminal) {
-        List<Production> result = new ArrayList<>();
-        for (Production p : productions) {
-            if (p.getLeft().equals(nonTerminal)) {
-                result.add(p);
+        Map<String, List<Production>> index = productionsByLeft;
+        if (index == null) {
+            index = new HashMap<>();
+            for (Production p : productions) {
+                index.computeIfAbsent(p.getLeft(), k -> new ArrayList<>()).add(p);
+            }
+            for (Map.Entry<String, List<Production>> entry : index.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
             }
+            productionsByLeft = index;
+        }
+        return index.getOrDefault(nonTerminal, Collections.emptyList());
+    }
+
+    /**
+     * Forma compilada (símbolos como enteros) de la gramática. Se construye la primera vez
+     * y se comparte entre todos los parsers hasta que la gramática se modifica.
+     *
+     * @throws IllegalArgumentException si la gramática tiene símbolos sin definir
+     */
+    public CompiledGrammar compiled() {
+        CompiledGrammar result = compiled;
+        if (result == null) {
+            result = CompiledGrammar.compile(this);
+            compiled = result;
         }
         return result;
     }
 
+    private void invalidate() {
+        this.contentHash = null;
+        this.productionsByLeft = null;
+        this.compiled = null;
+    }
+
+    /**
+     * Huella SHA-256 (hexadecimal) del contenido de la gramática: tipo, símbolo inicial,
+     * N y T ordenados y P en su orden. Gramáticas con el mismo contenido comparten huella.
+     */
+    public String contentHash() {
+        String hash = contentHash;
+        if (hash == null) {
+            hash = computeContentHash();
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    private String computeContentHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+
+        updateDigest(digest, String.valueOf(type));
+        updateDigest(digest, String.valueOf(startSymbol));
+        updateDigest(digest, String.valueOf(nonTerminals.size()));
+        for (String symbol : new TreeSet<>(nonTerminals)) {
+            updateDigest(digest, symbol);
+        }
+        updateDigest(digest, String.valueOf(terminals.size()));
+        for (String symbol : new TreeSet<>(terminals)) {
+            updateDigest(digest, symbol);
+        }
+        updateDigest(digest, String.valueOf(productions.size()));
+        for (Production p : productions) {
+            updateDigest(digest, p.getLeft());
+            updateDigest(digest, String.valueOf(p.getRightSymbols().size()));
+            for (String symbol : p.getRightSymbols()) {
+                updateDigest(digest, symbol);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    // Cada campo va precedido de su longitud para que la codificación no sea ambigua
+    private static void updateDigest(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
     /**
      * Verifica si un símbolo es terminal
      */
@@ -86,29 +181,32 @@ public class Grammar {
         return nonTerminals.contains(symbol);
     }
 
-    // Getters y Setters
+    // Getters y Setters; los getters devuelven vistas no modificables
     public Set<String> getNonTerminals() {
-        return new HashSet<>(nonTerminals);
+        return Collections.unmodifiableSet(nonTerminals);
     }
 
     public void setNonTerminals(Set<String> nonTerminals) {
         this.nonTerminals = new HashSet<>(nonTerminals);
+        invalidate();
     }
 
     public Set<String> getTerminals() {
-        return new HashSet<>(terminals);
+        return Collections.unmodifiableSet(terminals);
     }
 
     public void setTerminals(Set<String> terminals) {
         this.terminals = new HashSet<>(terminals);
+        invalidate();
     }
 
     public List<Production> getProductions() {
-        return new ArrayList<>(productions);
+        return Collections.unmodifiableList(productions);
     }
 
     public void setProductions(List<Production> productions) {
         this.productions = new ArrayList<>(productions);
+        invalidate();
     }
 
     public String getStartSymbol() {
@@ -117,6 +215,7 @@ public class Grammar {
 
     public void setStartSymbol(String startSymbol) {
         this.startSymbol = startSymbol;
+        invalidate();
     }
 
     public GrammarType getType() {
@@ -125,6 +224,7 @@ public class Grammar {
 
     public void setType(GrammarType type) {
         this.type = type;
+        invalidate();
     }
 
     @Override
@@ -1,6 +1,7 @@
 package org.example.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -13,7 +14,28 @@ public class Production {
     public Production(String left, String right) {
         this.left = left;
         this.right = right;
-        this.rightSymbols = parseRight(right);
+        this.rightSymbols = Collections.unmodifiableList(parseRight(right));
+    }
+
+    /**
+     * Producción con los símbolos del lado derecho ya separados (vacío para ε). Los
+     * símbolos son la forma canónica de la producción; el lado derecho textual sólo es su
+     * representación para mostrarla, con los símbolos separados por espacios.
+     */
+    public Production(String left, List<String> rightSymbols) {
+        for (String symbol : rightSymbols) {
+            if (symbol.isEmpty() || symbol.chars().anyMatch(Character::isWhitespace)) {
+                throw new IllegalArgumentException("Símbolo no válido en el lado derecho: '" + symbol + "'");
+            }
+        }
+        this.left = left;
+        if (rightSymbols.isEmpty()) {
+            this.right = "ε";
+            this.rightSymbols = List.of("ε");
+        } else {
+            this.right = String.join(" ", rightSymbols);
+            this.rightSymbols = List.copyOf(rightSymbols);
+        }
     }
 
     /**
@@ -70,12 +92,20 @@ public class Production {
         return left;
     }
 
+    /**
+     * Lado derecho como texto. No siempre vuelve a dar los mismos símbolos al parsearlo
+     * (un único símbolo de varios caracteres se lee carácter a carácter): la producción
+     * se identifica por getRightSymbols.
+     */
     public String getRight() {
         return right;
     }
 
+    /**
+     * Símbolos del lado derecho (vista no modificable)
+     */
     public List<String> getRightSymbols() {
-        return new ArrayList<>(rightSymbols);
+        return rightSymbols;
     }
 
     @Override
@@ -88,11 +118,11 @@ public class Production {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Production that = (Production) o;
-        return Objects.equals(left, that.left) && Objects.equals(right, that.right);
+        return Objects.equals(left, that.left) && rightSymbols.equals(that.rightSymbols);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(left, right);
+        return Objects.hash(left, rightSymbols);
     }
 }
@@ -0,0 +1,367 @@
+package org.example.parser;
+
+import org.example.automaton.Tokenizer;
+import org.example.model.CompiledGrammar;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.transform.ChomskyNormalForm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parser CYK sobre la Forma Normal de Chomsky de la gramática. Cada celda de la tabla
+ * es un conjunto de bits de no terminales; la tabla se llena por longitudes de tramo y
+ * las celdas de una misma longitud, que son independientes, se calculan en paralelo
+ * en un ForkJoinPool. Los árboles devueltos están expresados en la gramática en FNC.
+ */
+public class CYKParser implements Parser {
+
+    // Trabajo mínimo (celdas × cortes) de una tarea antes de dividirla
+    private static final int SEQUENTIAL_WORK = 1 << 12;
+
+    private final ChomskyNormalForm normalForm;
+    private final CompiledGrammar compiled;
+    private final ForkJoinPool pool;
+
+    private final int words;
+    private final int terminalCount;
+    private final long[] terminalRules;  // [terminal * words + palabra] -> no terminales A con A → terminal
+
+    // Producciones A → B C agrupadas por B: [binaryOffsets[B], binaryOffsets[B + 1])
+    private final int[] binaryOffsets;
+    private final int[] binaryRight;      // C (índice de no terminal)
+    private final int[] binaryLeft;       // A (índice de no terminal)
+    private final int[] binaryProduction;
+
+    public CYKParser(Grammar grammar) {
+        this(grammar, ForkJoinPool.commonPool());
+    }
+
+    public CYKParser(Grammar grammar, ForkJoinPool pool) {
+        this.normalForm = ChomskyNormalForm.of(grammar);
+        this.compiled = CompiledGrammar.of(normalForm.getGrammar());
+        this.pool = pool;
+
+        this.terminalCount = compiled.getTerminalCount();
+        int nonTerminals = compiled.getNonTerminalCount();
+        this.words = Math.max(1, (nonTerminals + 63) >>> 6);
+        this.terminalRules = new long[terminalCount * words];
+
+        int[] counts = new int[nonTerminals + 1];
+        for (int p = 0; p < compiled.getProductionCount(); p++) {
+            if (compiled.rightLength(p) == 2) {
+                counts[compiled.rightSymbol(p, 0) - terminalCount + 1]++;
+            }
+        }
+        for (int b = 0; b < nonTerminals; b++) {
+            counts[b + 1] += counts[b];
+        }
+        this.binaryOffsets = counts.clone();
+        this.binaryRight = new int[counts[nonTerminals]];
+        this.binaryLeft = new int[counts[nonTerminals]];
+        this.binaryProduction = new int[counts[nonTerminals]];
+
+        for (int p = 0; p < compiled.getProductionCount(); p++) {
+            int left = compiled.leftOf(p) - terminalCount;
+            if (compiled.rightLength(p) == 1) {
+                int terminal = compiled.rightSymbol(p, 0);
+                terminalRules[terminal * words + (left >>> 6)] |= 1L << left;
+            } else if (compiled.rightLength(p) == 2) {
+                int slot = counts[compiled.rightSymbol(p, 0) - terminalCount]++;
+                binaryRight[slot] = compiled.rightSymbol(p, 1) - terminalCount;
+                binaryLeft[slot] = left;
+                binaryProduction[slot] = p;
+            }
+        }
+    }
+
+    /**
+     * Gramática en FNC sobre la que trabaja el parser
+     */
+    public Grammar getNormalForm() {
+        return normalForm.getGrammar();
+    }
+
+    @Override
+    public ParseResult parse(String input) {
+        if (Tokenizer.isEmptyInput(input)) {
+            return normalForm.acceptsEmpty()
+                    ? ParseResult.withLazyTree(true, this::emptyTree, "Cadena vacía aceptada (CYK)")
+                    : new ParseResult(false, null, "Cadena vacía no aceptada");
+        }
+
+        int[] tokens = compiled.getTokenizer().tokenize(input);
+        if (tokens == null) {
+            return new ParseResult(false, null, "Cadena rechazada - contiene símbolos que no son terminales");
+        }
+
+        Table table = fill(tokens);
+        if (!table.has(0, tokens.length, compiled.getStartSymbol() - terminalCount)) {
+            return new ParseResult(false, null,
+                    String.format("Cadena rechazada - no pertenece al lenguaje (CYK: %d símbolos)", tokens.length));
+        }
+
+        return ParseResult.withLazyTree(true, () -> buildTree(table),
+                String.format("Cadena aceptada (CYK: %d símbolos, %d celdas)", tokens.length, table.cellCount()));
+    }
+
+    @Override
+    public boolean recognize(String input) {
+        if (Tokenizer.isEmptyInput(input)) {
+            return normalForm.acceptsEmpty();
+        }
+        int[] tokens = compiled.getTokenizer().tokenize(input);
+        return tokens != null && fill(tokens).has(0, tokens.length, compiled.getStartSymbol() - terminalCount);
+    }
+
+    private Table fill(int[] tokens) {
+        int n = tokens.length;
+        Table table = new Table(tokens);
+        long[] result = new long[words];
+
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(terminalRules, tokens[i] * words, table.byStart, table.startOffset(i, 1), words);
+            System.arraycopy(terminalRules, tokens[i] * words, table.byEnd, table.endOffset(i + 1, 1), words);
+        }
+
+        for (int length = 2; length <= n; length++) {
+            int cells = n - length + 1;
+            if ((long) cells * (length - 1) <= SEQUENTIAL_WORK) {
+                for (int i = 0; i < cells; i++) {
+                    fillCell(table, i, length, result);
+                }
+            } else {
+                pool.invoke(new SpanTask(table, length, 0, cells));
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Calcula la celda [i, i + length) combinando todos los cortes ya calculados. Las
+     * partes izquierdas se leen de la tabla por inicio y las derechas de la tabla por
+     * fin, ambas contiguas al recorrer los cortes.
+     */
+    private void fillCell(Table table, int i, int length, long[] result) {
+        long[] byStart = table.byStart;
+        long[] byEnd = table.byEnd;
+        int leftBase = table.startOffset(i, 1);
+        int rightBase = table.endOffset(i + length, 1);
+        if (words == 1) {
+            // Caso habitual (hasta 64 no terminales): una palabra por celda
+            long cell = 0L;
+            for (int k = 1; k < length; k++) {
+                long bits = byStart[leftBase + k - 1];
+                long rightCell = byEnd[rightBase + length - k - 1];
+                if (bits == 0L || rightCell == 0L) {
+                    continue;
+                }
+                while (bits != 0) {
+                    int b = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    for (int r = binaryOffsets[b]; r < binaryOffsets[b + 1]; r++) {
+                        if ((rightCell & (1L << binaryRight[r])) != 0) {
+                            cell |= 1L << binaryLeft[r];
+                        }
+                    }
+                }
+            }
+            byStart[table.startOffset(i, length)] = cell;
+            byEnd[table.endOffset(i + length, length)] = cell;
+            return;
+        }
+
+        Arrays.fill(result, 0L);
+        for (int k = 1; k < length; k++) {
+            int left = leftBase + (k - 1) * words;
+            int right = rightBase + (length - k - 1) * words;
+            if (isEmpty(byEnd, right)) {
+                continue;
+            }
+            for (int w = 0; w < words; w++) {
+                long bits = byStart[left + w];
+                while (bits != 0) {
+                    int b = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    for (int r = binaryOffsets[b]; r < binaryOffsets[b + 1]; r++) {
+                        int c = binaryRight[r];
+                        if ((byEnd[right + (c >>> 6)] & (1L << c)) != 0) {
+                            int a = binaryLeft[r];
+                            result[a >>> 6] |= 1L << a;
+                        }
+                    }
+                }
+            }
+        }
+
+        System.arraycopy(result, 0, byStart, table.startOffset(i, length), words);
+        System.arraycopy(result, 0, byEnd, table.endOffset(i + length, length), words);
+    }
+
+    private boolean isEmpty(long[] cells, int offset) {
+        for (int w = 0; w < words; w++) {
+            if (cells[offset + w] != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Celdas [from, to) de una longitud de tramo, divididas por la mitad mientras el
+     * trabajo supere el umbral
+     */
+    private class SpanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Las tareas no se serializan: la tabla sólo vive durante el llenado
+        private final transient Table table;
+        private final int length;
+        private final int from;
+        private final int to;
+
+        SpanTask(Table table, int length, int from, int to) {
+            this.table = table;
+            this.length = length;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1 || (long) (to - from) * (length - 1) <= SEQUENTIAL_WORK) {
+                long[] result = new long[words];
+                for (int i = from; i < to; i++) {
+                    fillCell(table, i, length, result);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SpanTask(table, length, from, middle), new SpanTask(table, length, middle, to));
+        }
+    }
+
+    private DerivationTree emptyTree() {
+        DerivationTree tree = new DerivationTree(compiled.nameOf(compiled.getStartSymbol()));
+        int start = compiled.getStartSymbol();
+        for (int p = compiled.firstProduction(start); p < compiled.endProduction(start); p++) {
+            if (compiled.rightLength(p) == 0) {
+                tree.getRoot().setUsedProduction(compiled.getProduction(p));
+            }
+        }
+        tree.getRoot().addChild(new DerivationTree.TreeNode("ε"));
+        return tree;
+    }
+
+    /**
+     * Reconstruye un árbol en FNC desde la tabla, con una pila explícita: para cada
+     * nodo se busca una producción y un corte cuyos dos lados estén en sus celdas
+     */
+    private DerivationTree buildTree(Table table) {
+        int start = compiled.getStartSymbol();
+        DerivationTree tree = new DerivationTree(compiled.nameOf(start));
+        Deque<int[]> pending = new ArrayDeque<>();
+        List<DerivationTree.TreeNode> nodes = new ArrayList<>();
+        nodes.add(tree.getRoot());
+        pending.push(new int[]{start - terminalCount, 0, table.n, 0});
+
+        while (!pending.isEmpty()) {
+            int[] span = pending.pop();
+            int a = span[0];
+            int from = span[1];
+            int length = span[2];
+            DerivationTree.TreeNode node = nodes.get(span[3]);
+
+            if (length == 1) {
+                int terminal = table.tokens[from];
+                for (int p = compiled.firstProduction(a + terminalCount); p < compiled.endProduction(a + terminalCount); p++) {
+                    if (compiled.rightLength(p) == 1 && compiled.rightSymbol(p, 0) == terminal) {
+                        node.setUsedProduction(compiled.getProduction(p));
+                        break;
+                    }
+                }
+                node.addChild(new DerivationTree.TreeNode(compiled.nameOf(terminal)));
+                continue;
+            }
+
+            found:
+            for (int k = 1; k < length; k++) {
+                for (int b = 0; b < compiled.getNonTerminalCount(); b++) {
+                    if (!table.has(from, k, b)) {
+                        continue;
+                    }
+                    for (int r = binaryOffsets[b]; r < binaryOffsets[b + 1]; r++) {
+                        int c = binaryRight[r];
+                        if (binaryLeft[r] == a && table.has(from + k, length - k, c)) {
+                            node.setUsedProduction(compiled.getProduction(binaryProduction[r]));
+                            DerivationTree.TreeNode leftChild = new DerivationTree.TreeNode(compiled.nameOf(b + terminalCount));
+                            DerivationTree.TreeNode rightChild = new DerivationTree.TreeNode(compiled.nameOf(c + terminalCount));
+                            node.addChild(leftChild);
+                            node.addChild(rightChild);
+                            nodes.add(leftChild);
+                            pending.push(new int[]{b, from, k, nodes.size() - 1});
+                            nodes.add(rightChild);
+                            pending.push(new int[]{c, from + k, length - k, nodes.size() - 1});
+                            break found;
+                        }
+                    }
+                }
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * Tabla triangular guardada dos veces: por inicio (la celda (i, longitud) en
+     * byStart[startOffset(i, longitud)]) y por fin (en byEnd[endOffset(i + longitud, longitud)]),
+     * cada celda con words palabras consecutivas
+     */
+    private class Table {
+        final int n;
+        final int[] tokens;
+        final long[] byStart;
+        final long[] byEnd;
+
+        Table(int[] tokens) {
+            this.n = tokens.length;
+            this.tokens = tokens;
+            long size = (long) n * (n + 1) / 2 * words;
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Entrada demasiado larga para CYK: " + n + " símbolos");
+            }
+            this.byStart = new long[(int) size];
+            this.byEnd = new long[(int) size];
+        }
+
+        /**
+         * Las celdas que empiezan en i ocupan n - i posiciones, por longitud creciente
+         */
+        int startOffset(int i, int length) {
+            long row = (long) i * n - (long) i * (i - 1) / 2;
+            return (int) ((row + length - 1) * words);
+        }
+
+        /**
+         * Las celdas que terminan en j ocupan j posiciones, por longitud creciente
+         */
+        int endOffset(int j, int length) {
+            long row = (long) (j - 1) * j / 2;
+            return (int) ((row + length - 1) * words);
+        }
+
+        boolean has(int i, int length, int nonTerminal) {
+            return (byStart[startOffset(i, length) + (nonTerminal >>> 6)] & (1L << nonTerminal)) != 0;
+        }
+
+        long cellCount() {
+            return (long) n * (n + 1) / 2;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package org.example.parser;
+
+import org.example.model.CompiledGrammar;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parser de Earley para cualquier gramática libre de contexto. Los ítems son pares
+ * (regla con punto, origen) de enteros agrupados en un conjunto por posición; las
+ * producciones ε se tratan con la corrección de Aycock–Horspool (al predecir un no
+ * terminal anulable se avanza el punto sobre él). Coste O(n³) en el peor caso, O(n²)
+ * para gramáticas no ambiguas y casi lineal para la mayoría de gramáticas LR.
+ */
+public class EarleyParser implements Parser {
+
+    private final CompiledGrammar compiled;
+
+    // Regla con punto: dottedBase[p] + posición del punto
+    private final int[] dottedBase;
+    private final int[] dottedProduction;
+    private final int[] dottedNext;        // símbolo tras el punto, o -1 si el ítem está completo
+
+    public EarleyParser(Grammar grammar) {
+        this(CompiledGrammar.of(grammar));
+    }
+
+    public EarleyParser(CompiledGrammar compiled) {
+        this.compiled = compiled;
+
+        int productions = compiled.getProductionCount();
+        this.dottedBase = new int[productions];
+        int total = 0;
+        for (int p = 0; p < productions; p++) {
+            dottedBase[p] = total;
+            total += compiled.rightLength(p) + 1;
+        }
+
+        this.dottedProduction = new int[total];
+        this.dottedNext = new int[total];
+        for (int p = 0; p < productions; p++) {
+            int length = compiled.rightLength(p);
+            for (int dot = 0; dot <= length; dot++) {
+                dottedProduction[dottedBase[p] + dot] = p;
+                dottedNext[dottedBase[p] + dot] = dot < length ? compiled.rightSymbol(p, dot) : -1;
+            }
+        }
+    }
+
+    @Override
+    public ParseResult parse(String input) {
+        int[] tokens = compiled.getTokenizer().tokenizeInput(input);
+        if (tokens == null) {
+            return new ParseResult(false, null, "Cadena rechazada - contiene símbolos que no son terminales");
+        }
+
+        Chart chart = buildChart(tokens);
+        if (!chart.isAccepted()) {
+            return new ParseResult(false, null, String.format(
+                    "Cadena rechazada - no pertenece al lenguaje (Earley: error en el símbolo %d, %d ítems)",
+                    chart.failurePosition() + 1, chart.itemCount()));
+        }
+
+        ParseForest forest = buildForest(chart);
+        ParseResult result = ParseResult.withLazyTree(true, () -> forest.trees().next(),
+                String.format("Cadena aceptada (Earley: %d símbolos, %d ítems%s)", tokens.length,
+                        chart.itemCount(), forest.isAmbiguous() ? ", ambigua" : ""));
+        result.setForest(forest);
+        result.setAmbiguous(forest.isAmbiguous());
+        return result;
+    }
+
+    @Override
+    public boolean recognize(String input) {
+        int[] tokens = compiled.getTokenizer().tokenizeInput(input);
+        return tokens != null && buildChart(tokens).isAccepted();
+    }
+
+    private Chart buildChart(int[] tokens) {
+        int n = tokens.length;
+        Chart chart = new Chart(tokens);
+        int start = compiled.getStartSymbol();
+        for (int p = compiled.firstProduction(start); p < compiled.endProduction(start); p++) {
+            chart.add(0, dottedBase[p], 0);
+        }
+
+        for (int i = 0; i <= n; i++) {
+            ItemSet set = chart.sets[i];
+            if (set == null) {
+                // Ningún ítem llegó a esta posición: la entrada se rechaza aquí
+                break;
+            }
+            chart.last = i;
+
+            for (int k = 0; k < set.size; k++) {
+                int rule = set.rules[k];
+                int origin = set.origins[k];
+                int next = dottedNext[rule];
+
+                if (next < 0) {
+                    // Completar: avanzar los ítems del origen que esperaban este no terminal
+                    int left = compiled.leftOf(dottedProduction[rule]);
+                    ItemSet originSet = chart.sets[origin];
+                    for (int w = originSet.waiting(left); w >= 0; w = originSet.link[w]) {
+                        chart.add(i, originSet.rules[w] + 1, originSet.origins[w]);
+                    }
+                } else if (compiled.isTerminal(next)) {
+                    if (i < n && tokens[i] == next) {
+                        chart.add(i + 1, rule + 1, origin);
+                    }
+                } else {
+                    // Predecir, una sola vez por no terminal y posición (el primer ítem que lo espera)
+                    if (set.link[k] < 0) {
+                        for (int p = compiled.firstProduction(next); p < compiled.endProduction(next); p++) {
+                            chart.add(i, dottedBase[p], i);
+                        }
+                    }
+                    if (compiled.isNullable(next)) {
+                        chart.add(i, rule + 1, origin);
+                    }
+                }
+            }
+        }
+
+        return chart;
+    }
+
+    /**
+     * Construye el SPPF binarizado a partir de los ítems del chart (construcción de Scott
+     * sobre el reconocedor de Earley). Cada nodo se crea una sola vez por (símbolo o
+     * prefijo, inicio, fin) y se expande desde una cola de trabajo, sin recursión; los
+     * cortes de un no terminal son los orígenes de sus ítems completos en el fin del tramo,
+     * validados con el ítem del prefijo.
+     */
+    private ParseForest buildForest(Chart chart) {
+        return new ForestBuilder(chart).build();
+    }
+
+    private class ForestBuilder {
+        final Chart chart;
+        final long width;
+        final Map<Long, ParseForest.Node> symbolNodes = new HashMap<>();
+        final Map<Long, ParseForest.Node> intermediateNodes = new HashMap<>();
+        final Deque<Pending> pending = new ArrayDeque<>();
+        final int[] seen;
+        int stamp;
+
+        ForestBuilder(Chart chart) {
+            this.chart = chart;
+            this.width = chart.tokens.length + 1;
+            this.seen = new int[chart.tokens.length + 1];
+        }
+
+        ParseForest build() {
+            ParseForest.Node root = symbolNode(compiled.getStartSymbol(), 0, chart.tokens.length);
+
+            while (!pending.isEmpty()) {
+                Pending next = pending.poll();
+                ParseForest.Node node = next.node;
+                if (next.intermediate) {
+                    int production = dottedProduction[next.id];
+                    addSplits(node, production, next.id - dottedBase[production], node.getFrom(), node.getTo());
+                    continue;
+                }
+                for (int p = compiled.firstProduction(next.id); p < compiled.endProduction(next.id); p++) {
+                    int length = compiled.rightLength(p);
+                    if (!chart.contains(node.getTo(), dottedBase[p] + length, node.getFrom())) {
+                        continue;
+                    }
+                    if (length == 0) {
+                        node.addFamily(new ParseForest.PackedNode(compiled.getProduction(p), node.getTo(), null, null));
+                    } else {
+                        addSplits(node, p, length, node.getFrom(), node.getTo());
+                    }
+                }
+            }
+
+            boolean ambiguous = false;
+            for (ParseForest.Node node : symbolNodes.values()) {
+                ambiguous |= node.isAmbiguous();
+            }
+            for (ParseForest.Node node : intermediateNodes.values()) {
+                ambiguous |= node.isAmbiguous();
+            }
+            return new ParseForest(root, symbolNodes.size() + intermediateNodes.size(), ambiguous);
+        }
+
+        /**
+         * Añade al nodo una alternativa por cada corte válido del símbolo dot - 1 de la
+         * producción: prefijo de dot - 1 símbolos en [from, k) y el símbolo en [k, to)
+         */
+        void addSplits(ParseForest.Node node, int production, int dot, int from, int to) {
+            int symbol = compiled.rightSymbol(production, dot - 1);
+            int prefix = dottedBase[production] + dot - 1;
+            Production used = compiled.getProduction(production);
+
+            if (compiled.isTerminal(symbol)) {
+                int k = to - 1;
+                if (k >= from && chart.tokens[k] == symbol && chart.contains(k, prefix, from)) {
+                    node.addFamily(new ParseForest.PackedNode(used, k,
+                            prefixNode(production, dot - 1, from, k), symbolNode(symbol, k, to)));
+                }
+                return;
+            }
+
+            stamp++;
+            ItemSet endSet = chart.sets[to];
+            for (int item = endSet.completed(symbol); item >= 0; item = endSet.link[item]) {
+                int k = endSet.origins[item];
+                if (k < from || seen[k] == stamp || !chart.contains(k, prefix, from)) {
+                    continue;
+                }
+                seen[k] = stamp;
+                node.addFamily(new ParseForest.PackedNode(used, k,
+                        prefixNode(production, dot - 1, from, k), symbolNode(symbol, k, to)));
+            }
+        }
+
+        ParseForest.Node symbolNode(int symbol, int from, int to) {
+            long key = (symbol * width + from) * width + to;
+            ParseForest.Node node = symbolNodes.get(key);
+            if (node == null) {
+                boolean terminal = compiled.isTerminal(symbol);
+                node = new ParseForest.Node(compiled.nameOf(symbol), null, 0, from, to, terminal);
+                symbolNodes.put(key, node);
+                if (!terminal) {
+                    pending.add(new Pending(node, symbol, false));
+                }
+            }
+            return node;
+        }
+
+        /**
+         * Nodo de los primeros dot símbolos de la producción: null si no hay ninguno,
+         * el propio nodo de símbolo si hay uno solo, o un nodo intermedio
+         */
+        ParseForest.Node prefixNode(int production, int dot, int from, int to) {
+            if (dot == 0) {
+                return null;
+            }
+            if (dot == 1) {
+                return symbolNode(compiled.rightSymbol(production, 0), from, to);
+            }
+            int rule = dottedBase[production] + dot;
+            long key = (rule * width + from) * width + to;
+            ParseForest.Node node = intermediateNodes.get(key);
+            if (node == null) {
+                node = new ParseForest.Node(null, compiled.getProduction(production), dot, from, to, false);
+                intermediateNodes.put(key, node);
+                pending.add(new Pending(node, rule, true));
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Nodo del bosque pendiente de expandir: id es el símbolo, o la regla con punto si es intermedio
+     */
+    private static class Pending {
+        final ParseForest.Node node;
+        final int id;
+        final boolean intermediate;
+
+        Pending(ParseForest.Node node, int id, boolean intermediate) {
+            this.node = node;
+            this.id = id;
+            this.intermediate = intermediate;
+        }
+    }
+    /**
+     * Conjuntos de ítems de una ejecución, uno por posición de la entrada
+     */
+    private class Chart {
+        final int[] tokens;
+        final ItemSet[] sets;
+        int last;
+
+        Chart(int[] tokens) {
+            this.tokens = tokens;
+            this.sets = new ItemSet[tokens.length + 1];
+        }
+
+        void add(int position, int rule, int origin) {
+            ItemSet set = sets[position];
+            if (set == null) {
+                set = new ItemSet(compiled.getTerminalCount(), compiled.getNonTerminalCount());
+                sets[position] = set;
+            }
+            int next = dottedNext[rule];
+            if (next < 0) {
+                set.add(rule, origin, -1, compiled.leftOf(dottedProduction[rule]));
+            } else {
+                set.add(rule, origin, compiled.isTerminal(next) ? -1 : next, -1);
+            }
+        }
+
+        boolean contains(int position, int rule, int origin) {
+            return sets[position] != null && sets[position].contains(rule, origin);
+        }
+
+        boolean isAccepted() {
+            ItemSet set = sets[tokens.length];
+            if (set == null) {
+                return false;
+            }
+            int start = compiled.getStartSymbol();
+            for (int p = compiled.firstProduction(start); p < compiled.endProduction(start); p++) {
+                if (set.contains(dottedBase[p] + compiled.rightLength(p), 0)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int failurePosition() {
+            return last;
+        }
+
+        int itemCount() {
+            int count = 0;
+            for (ItemSet set : sets) {
+                if (set != null) {
+                    count += set.size;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Conjunto de ítems de una posición: arreglos paralelos en orden de inserción, una
+     * tabla hash abierta para descartar duplicados y, por no terminal, listas enlazadas
+     * de los ítems que lo esperan tras el punto y de los ítems completos que lo derivan
+     */
+    private static class ItemSet {
+        private final int terminalCount;
+        int[] rules = new int[8];
+        int[] origins = new int[8];
+        int[] link = new int[8];   // siguiente ítem de la misma lista; -1 marca el primero insertado
+        int size;
+
+        private final int[] waitingHead;
+        private final int[] completedHead;
+        private long[] table = new long[16];
+
+        ItemSet(int terminalCount, int nonTerminalCount) {
+            this.terminalCount = terminalCount;
+            this.waitingHead = new int[nonTerminalCount];
+            this.completedHead = new int[nonTerminalCount];
+            Arrays.fill(waitingHead, -1);
+            Arrays.fill(completedHead, -1);
+            Arrays.fill(table, -1L);
+        }
+
+        int waiting(int nonTerminal) {
+            return waitingHead[nonTerminal - terminalCount];
+        }
+
+        int completed(int nonTerminal) {
+            return completedHead[nonTerminal - terminalCount];
+        }
+
+        boolean contains(int rule, int origin) {
+            long key = key(rule, origin);
+            int mask = table.length - 1;
+            for (int slot = hash(key) & mask; table[slot] != -1L; slot = (slot + 1) & mask) {
+                if (table[slot] == key) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(int rule, int origin, int waitingOn, int completedLeft) {
+            if (!insert(key(rule, origin))) {
+                return;
+            }
+            if (size == rules.length) {
+                rules = Arrays.copyOf(rules, size * 2);
+                origins = Arrays.copyOf(origins, size * 2);
+                link = Arrays.copyOf(link, size * 2);
+            }
+            rules[size] = rule;
+            origins[size] = origin;
+            link[size] = -1;
+            if (waitingOn >= 0) {
+                link[size] = waitingHead[waitingOn - terminalCount];
+                waitingHead[waitingOn - terminalCount] = size;
+            } else if (completedLeft >= 0) {
+                link[size] = completedHead[completedLeft - terminalCount];
+                completedHead[completedLeft - terminalCount] = size;
+            }
+            size++;
+        }
+
+        private boolean insert(long key) {
+            if ((size + 1) * 2 > table.length) {
+                long[] old = table;
+                table = new long[old.length * 2];
+                Arrays.fill(table, -1L);
+                for (long entry : old) {
+                    if (entry != -1L) {
+                        place(entry);
+                    }
+                }
+            }
+            int mask = table.length - 1;
+            int slot = hash(key) & mask;
+            while (table[slot] != -1L) {
+                if (table[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+            return true;
+        }
+
+        private void place(long key) {
+            int mask = table.length - 1;
+            int slot = hash(key) & mask;
+            while (table[slot] != -1L) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+        }
+
+        private static long key(int rule, int origin) {
+            return ((long) rule << 32) | origin;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.parser;
+
+import org.example.model.CompiledGrammar;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+
+import java.util.Arrays;
+
+/**
+ * Parser predictivo dirigido por la tabla LL(1). Usa una pila explícita de símbolos,
+ * por lo que no hay recursión ni vuelta atrás: tiempo lineal en la longitud de la entrada.
+ * Las producciones aplicadas forman la derivación por la izquierda, de la que se
+ * reconstruye el árbol bajo demanda.
+ */
+public class LL1Parser implements Parser {
+
+    private final CompiledGrammar compiled;
+    private final LL1Table table;
+
+    public LL1Parser(Grammar grammar) {
+        this(LL1Table.of(grammar));
+    }
+
+    /**
+     * @throws IllegalArgumentException si la tabla tiene conflictos
+     */
+    public LL1Parser(LL1Table table) {
+        if (table.hasConflicts()) {
+            throw new IllegalArgumentException(table.conflictReport());
+        }
+        this.table = table;
+        this.compiled = table.getCompiledGrammar();
+    }
+
+    public LL1Table getTable() {
+        return table;
+    }
+
+    @Override
+    public ParseResult parse(String input) {
+        int[] tokens = compiled.getTokenizer().tokenizeInput(input);
+        if (tokens == null) {
+            return new ParseResult(false, null, "Cadena rechazada - contiene símbolos que no son terminales");
+        }
+
+        Run run = new Run(tokens, true);
+        if (!run.execute()) {
+            return new ParseResult(false, null, run.errorMessage());
+        }
+
+        int[] steps = run.trace();
+        return ParseResult.withLazyTree(true,
+                () -> DerivationTree.fromTrace(compiled, steps),
+                String.format("Cadena aceptada (LL(1): %d símbolos, %d producciones)", tokens.length, steps.length));
+    }
+
+    @Override
+    public boolean recognize(String input) {
+        int[] tokens = compiled.getTokenizer().tokenizeInput(input);
+        return tokens != null && new Run(tokens, false).execute();
+    }
+
+    /**
+     * Estado de un análisis: pila de símbolos, posición y producciones aplicadas
+     */
+    private class Run {
+        private final int[] tokens;
+        private final boolean tracing;
+        private int[] stack = new int[16];
+        private int top;
+        private int[] trace;
+        private int traceSize;
+        private int position;
+        private int failedSymbol = -1;
+
+        Run(int[] tokens, boolean tracing) {
+            this.tokens = tokens;
+            this.tracing = tracing;
+            this.trace = tracing ? new int[Math.max(16, tokens.length)] : null;
+        }
+
+        boolean execute() {
+            int end = table.getEndMarker();
+            stack[top++] = compiled.getStartSymbol();
+
+            while (top > 0) {
+                int symbol = stack[--top];
+                int lookahead = position < tokens.length ? tokens[position] : end;
+
+                if (compiled.isTerminal(symbol)) {
+                    if (symbol != lookahead) {
+                        failedSymbol = symbol;
+                        return false;
+                    }
+                    position++;
+                    continue;
+                }
+
+                int production = table.get(symbol, lookahead);
+                if (production == LL1Table.NONE) {
+                    failedSymbol = symbol;
+                    return false;
+                }
+                if (tracing) {
+                    if (traceSize == trace.length) {
+                        trace = Arrays.copyOf(trace, traceSize * 2);
+                    }
+                    trace[traceSize++] = production;
+                }
+
+                int length = compiled.rightLength(production);
+                if (top + length > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + length));
+                }
+                for (int k = length - 1; k >= 0; k--) {
+                    stack[top++] = compiled.rightSymbol(production, k);
+                }
+            }
+
+            if (position < tokens.length) {
+                failedSymbol = -1;
+                return false;
+            }
+            return true;
+        }
+
+        int[] trace() {
+            return Arrays.copyOf(trace, traceSize);
+        }
+
+        String errorMessage() {
+            String found = position < tokens.length
+                    ? "'" + compiled.nameOf(tokens[position]) + "'"
+                    : "fin de entrada";
+            String expected;
+            if (failedSymbol < 0) {
+                expected = "fin de entrada";
+            } else if (compiled.isTerminal(failedSymbol)) {
+                expected = "'" + compiled.nameOf(failedSymbol) + "'";
+            } else {
+                expected = String.join(", ", table.expected(failedSymbol));
+            }
+            return String.format("Cadena rechazada - %s inesperado en el símbolo %d (se esperaba: %s)",
+                    found, position + 1, expected);
+        }
+    }
+}
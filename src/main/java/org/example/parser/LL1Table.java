@@ -0,0 +1,157 @@
+package org.example.parser;
+
+import org.example.analysis.GrammarAnalysis;
+import org.example.model.CompiledGrammar;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tabla de análisis LL(1): para cada no terminal y terminal de preanálisis (o fin de
+ * entrada), la producción a aplicar. Las celdas con más de una producción candidata
+ * se registran como conflictos; en la tabla queda la primera.
+ */
+public class LL1Table {
+
+    public static final int NONE = -1;
+
+    private final CompiledGrammar compiled;
+    private final GrammarAnalysis analysis;
+    private final int columns;
+    private final int[] cells;   // [(no terminal - T) * columns + terminal] -> producción o NONE
+    private final List<Conflict> conflicts = new ArrayList<>();
+
+    private LL1Table(CompiledGrammar compiled, GrammarAnalysis analysis) {
+        this.compiled = compiled;
+        this.analysis = analysis;
+        this.columns = compiled.getTerminalCount() + 1;
+        this.cells = new int[compiled.getNonTerminalCount() * columns];
+        Arrays.fill(cells, NONE);
+
+        for (int p = 0; p < compiled.getProductionCount(); p++) {
+            int row = (compiled.leftOf(p) - compiled.getTerminalCount()) * columns;
+            BitSet predict = analysis.predict(p);
+            for (int t = predict.nextSetBit(0); t >= 0; t = predict.nextSetBit(t + 1)) {
+                if (cells[row + t] == NONE) {
+                    cells[row + t] = p;
+                } else {
+                    conflicts.add(new Conflict(compiled.nameOf(compiled.leftOf(p)), terminalName(t),
+                            compiled.getProduction(cells[row + t]), compiled.getProduction(p)));
+                }
+            }
+        }
+    }
+
+    public static LL1Table of(Grammar grammar) {
+        return of(CompiledGrammar.of(grammar));
+    }
+
+    public static LL1Table of(CompiledGrammar compiled) {
+        return new LL1Table(compiled, new GrammarAnalysis(compiled));
+    }
+
+    /**
+     * Celda de la tabla con un preanálisis dado (getEndMarker() para el fin de entrada)
+     */
+    public int get(int nonTerminal, int lookahead) {
+        return cells[(nonTerminal - compiled.getTerminalCount()) * columns + lookahead];
+    }
+
+    public int getEndMarker() {
+        return compiled.getTerminalCount();
+    }
+
+    public CompiledGrammar getCompiledGrammar() {
+        return compiled;
+    }
+
+    public GrammarAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    /**
+     * Indica si la gramática es LL(1)
+     */
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    public List<Conflict> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * Informe legible de los conflictos, una línea por celda en conflicto
+     */
+    public String conflictReport() {
+        if (conflicts.isEmpty()) {
+            return "La gramática es LL(1): no hay conflictos";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("La gramática no es LL(1): ").append(conflicts.size()).append(" conflicto(s)\n");
+        for (Conflict conflict : conflicts) {
+            sb.append("  ").append(conflict).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Terminales (o "$") con entrada en la fila de un no terminal
+     */
+    List<String> expected(int nonTerminal) {
+        List<String> result = new ArrayList<>();
+        for (int t = 0; t < columns; t++) {
+            if (get(nonTerminal, t) != NONE) {
+                result.add(terminalName(t));
+            }
+        }
+        return result;
+    }
+
+    String terminalName(int terminal) {
+        return terminal == getEndMarker() ? GrammarAnalysis.END_MARKER : compiled.nameOf(terminal);
+    }
+
+    /**
+     * Dos producciones del mismo no terminal que compiten por un mismo preanálisis
+     */
+    public static class Conflict {
+        private final String nonTerminal;
+        private final String lookahead;
+        private final Production first;
+        private final Production second;
+
+        public Conflict(String nonTerminal, String lookahead, Production first, Production second) {
+            this.nonTerminal = nonTerminal;
+            this.lookahead = lookahead;
+            this.first = first;
+            this.second = second;
+        }
+
+        public String getNonTerminal() {
+            return nonTerminal;
+        }
+
+        public String getLookahead() {
+            return lookahead;
+        }
+
+        public Production getFirst() {
+            return first;
+        }
+
+        public Production getSecond() {
+            return second;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("M[%s, %s]: %s  |  %s", nonTerminal, lookahead, first, second);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.parser;
+
+import org.example.model.CompiledGrammar;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+
+import java.util.Arrays;
+
+/**
+ * Parser por desplazamiento-reducción dirigido por tablas LR (LALR(1) por defecto).
+ * El análisis sólo usa la pila de estados y las tablas, en tiempo lineal; las
+ * reducciones se anotan junto con la posición de la entrada en que ocurren y el árbol
+ * se construye de abajo arriba, a partir de ellas, sólo si se solicita.
+ */
+public class LRParser implements Parser {
+
+    private final CompiledGrammar compiled;
+    private final LRTable table;
+
+    public LRParser(Grammar grammar) {
+        this(LRTable.of(grammar));
+    }
+
+    public LRParser(Grammar grammar, LRTable.Mode mode) {
+        this(LRTable.of(grammar, mode));
+    }
+
+    /**
+     * @throws IllegalArgumentException si la tabla tiene conflictos
+     */
+    public LRParser(LRTable table) {
+        if (table.hasConflicts()) {
+            throw new IllegalArgumentException(table.conflictReport());
+        }
+        this.table = table;
+        this.compiled = table.getCompiledGrammar();
+    }
+
+    public LRTable getTable() {
+        return table;
+    }
+
+    @Override
+    public ParseResult parse(String input) {
+        int[] tokens = compiled.getTokenizer().tokenizeInput(input);
+        if (tokens == null) {
+            return new ParseResult(false, null, "Cadena rechazada - contiene símbolos que no son terminales");
+        }
+
+        Run run = new Run(tokens, true);
+        if (!run.execute()) {
+            return new ParseResult(false, null, run.errorMessage());
+        }
+
+        int[] reductions = run.reductions();
+        String name = table.getMode() == LRTable.Mode.LALR1 ? "LALR(1)" : "LR(1)";
+        return ParseResult.withLazyTree(true, () -> buildTree(tokens, reductions),
+                String.format("Cadena aceptada (%s: %d símbolos, %d reducciones)", name, tokens.length, reductions.length / 2));
+    }
+
+    @Override
+    public boolean recognize(String input) {
+        int[] tokens = compiled.getTokenizer().tokenizeInput(input);
+        return tokens != null && new Run(tokens, false).execute();
+    }
+
+    /**
+     * Repite el análisis sobre la secuencia de reducciones (producción, tokens desplazados
+     * hasta ese momento): cada desplazamiento apila una hoja y cada reducción agrupa los
+     * últimos nodos bajo su lado izquierdo
+     */
+    private DerivationTree buildTree(int[] tokens, int[] reductions) {
+        DerivationTree.TreeNode[] nodes = new DerivationTree.TreeNode[Math.max(1, tokens.length + 1)];
+        int top = 0;
+        int shifted = 0;
+
+        for (int r = 0; r < reductions.length; r += 2) {
+            int production = reductions[r];
+            int position = reductions[r + 1];
+            while (shifted < position) {
+                if (top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                }
+                nodes[top++] = new DerivationTree.TreeNode(compiled.nameOf(tokens[shifted++]));
+            }
+
+            int length = compiled.rightLength(production);
+            DerivationTree.TreeNode node = new DerivationTree.TreeNode(compiled.nameOf(compiled.leftOf(production)));
+            node.setUsedProduction(compiled.getProduction(production));
+            if (length == 0) {
+                node.addChild(new DerivationTree.TreeNode("ε"));
+            }
+            for (int k = top - length; k < top; k++) {
+                node.addChild(nodes[k]);
+            }
+            top -= length;
+            if (top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+            }
+            nodes[top++] = node;
+        }
+
+        DerivationTree tree = new DerivationTree(compiled.nameOf(compiled.getStartSymbol()));
+        DerivationTree.TreeNode root = nodes[0];
+        tree.getRoot().setUsedProduction(root.getUsedProduction());
+        for (DerivationTree.TreeNode child : root.getChildren()) {
+            tree.getRoot().addChild(child);
+        }
+        return tree;
+    }
+
+    /**
+     * Estado de un análisis: pila de estados y, si se pide, las reducciones aplicadas
+     */
+    private class Run {
+        private final int[] tokens;
+        private final boolean tracing;
+        private int[] states = new int[64];
+        private int top;
+        private int[] reductions;
+        private int reductionSize;
+        private int position;
+        private int failedState;
+
+        Run(int[] tokens, boolean tracing) {
+            this.tokens = tokens;
+            this.tracing = tracing;
+            this.reductions = tracing ? new int[Math.max(16, tokens.length * 4)] : null;
+        }
+
+        boolean execute() {
+            int end = table.getEndMarker();
+            int augmented = table.getAugmentedProduction();
+            states[top++] = 0;
+
+            while (true) {
+                int state = states[top - 1];
+                int lookahead = position < tokens.length ? tokens[position] : end;
+                int action = table.action(state, lookahead);
+
+                if (action == LRTable.ERROR) {
+                    failedState = state;
+                    return false;
+                }
+
+                if (action > 0) {
+                    if (top == states.length) {
+                        states = Arrays.copyOf(states, top * 2);
+                    }
+                    states[top++] = action - 1;
+                    position++;
+                    continue;
+                }
+
+                int production = -action - 1;
+                if (production == augmented) {
+                    return true;
+                }
+                if (tracing) {
+                    if (reductionSize + 2 > reductions.length) {
+                        reductions = Arrays.copyOf(reductions, reductions.length * 2);
+                    }
+                    reductions[reductionSize++] = production;
+                    reductions[reductionSize++] = position;
+                }
+
+                top -= compiled.rightLength(production);
+                int target = table.go(states[top - 1], compiled.leftOf(production));
+                if (top == states.length) {
+                    states = Arrays.copyOf(states, top * 2);
+                }
+                states[top++] = target;
+            }
+        }
+
+        int[] reductions() {
+            return Arrays.copyOf(reductions, reductionSize);
+        }
+
+        String errorMessage() {
+            String found = position < tokens.length
+                    ? "'" + compiled.nameOf(tokens[position]) + "'"
+                    : "fin de entrada";
+            return String.format("Cadena rechazada - %s inesperado en el símbolo %d (se esperaba: %s)",
+                    found, position + 1, String.join(", ", table.expected(failedState)));
+        }
+    }
+}
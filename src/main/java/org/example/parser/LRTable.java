@@ -0,0 +1,580 @@
+package org.example.parser;
+
+import org.example.analysis.GrammarAnalysis;
+import org.example.model.CompiledGrammar;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tablas ACTION/GOTO de un analizador LR sobre la gramática aumentada S' → S.
+ * LALR(1) se construye sobre el autómata LR(0) propagando los símbolos de preanálisis
+ * entre ítems núcleo; LR(1) canónico construye los conjuntos de ítems con preanálisis.
+ * Las tablas son arreglos planos de enteros. Los conflictos se registran y se resuelven
+ * como yacc: desplazar antes que reducir y, entre reducciones, la primera producción.
+ */
+public class LRTable {
+
+    public enum Mode {
+        LALR1, LR1
+    }
+
+    public static final int ERROR = 0;
+
+    private final CompiledGrammar compiled;
+    private final GrammarAnalysis analysis;
+    private final Mode mode;
+
+    // Producciones más la aumentada (índice augmented) y reglas con punto
+    private final int augmented;
+    private final int[] dottedBase;
+    private final int[] dottedProduction;
+    private final int[] dottedNext;
+    private final BitSet[] firstAfter;     // FIRST de lo que sigue al símbolo tras el punto
+    private final boolean[] nullableAfter;
+
+    private final int lookaheadMarker;     // "#" de la propagación LALR
+
+    // Estados: ítems núcleo ordenados, sus preanálisis y transiciones [estado * símbolos + símbolo]
+    private final List<int[]> kernels = new ArrayList<>();
+    private final List<BitSet[]> lookaheads = new ArrayList<>();
+    private int[] transitions = new int[0];
+
+    // Tablas finales: inmutables una vez construidas, se pueden compartir entre hilos
+    private final int stateCount;
+    private final int[] action;    // [estado * columnas + terminal]: > 0 desplazar a (v - 1), < 0 reducir (-v - 1)
+    private final int[] gotoTable; // [estado * no terminales + (A - T)] -> estado o -1
+    private final List<Conflict> conflicts = new ArrayList<>();
+
+    private LRTable(CompiledGrammar compiled, Mode mode) {
+        this.compiled = compiled;
+        this.analysis = new GrammarAnalysis(compiled);
+        this.mode = mode;
+        this.augmented = compiled.getProductionCount();
+        this.lookaheadMarker = compiled.getTerminalCount() + 1;
+
+        this.dottedBase = new int[augmented + 1];
+        int total = 0;
+        for (int p = 0; p <= augmented; p++) {
+            dottedBase[p] = total;
+            total += length(p) + 1;
+        }
+        this.dottedProduction = new int[total];
+        this.dottedNext = new int[total];
+        this.firstAfter = new BitSet[total];
+        this.nullableAfter = new boolean[total];
+        for (int p = 0; p <= augmented; p++) {
+            for (int dot = 0; dot <= length(p); dot++) {
+                int d = dottedBase[p] + dot;
+                dottedProduction[d] = p;
+                dottedNext[d] = dot < length(p) ? symbol(p, dot) : -1;
+                if (dot < length(p)) {
+                    firstAfter[d] = p == augmented ? new BitSet() : analysis.firstOfSuffix(p, dot + 1);
+                    nullableAfter[d] = p == augmented || analysis.isSuffixNullable(p, dot + 1);
+                }
+            }
+        }
+
+        if (mode == Mode.LALR1) {
+            buildLalr();
+        } else {
+            buildCanonical();
+        }
+        this.stateCount = kernels.size();
+        this.action = new int[stateCount * getColumns()];
+        this.gotoTable = new int[stateCount * compiled.getNonTerminalCount()];
+        fillTables();
+    }
+
+    // Tablas ya construidas (sin conflictos): no se conservan las estructuras de construcción
+    private LRTable(CompiledGrammar compiled, Mode mode, int stateCount, int[] action, int[] gotoTable) {
+        this.compiled = compiled;
+        this.analysis = null;
+        this.mode = mode;
+        this.augmented = compiled.getProductionCount();
+        this.lookaheadMarker = compiled.getTerminalCount() + 1;
+        this.dottedBase = null;
+        this.dottedProduction = null;
+        this.dottedNext = null;
+        this.firstAfter = null;
+        this.nullableAfter = null;
+        this.stateCount = stateCount;
+        this.action = action;
+        this.gotoTable = gotoTable;
+    }
+
+    /**
+     * Tablas LALR(1) de la gramática
+     */
+    public static LRTable of(Grammar grammar) {
+        return of(CompiledGrammar.of(grammar), Mode.LALR1);
+    }
+
+    public static LRTable of(Grammar grammar, Mode mode) {
+        return of(CompiledGrammar.of(grammar), mode);
+    }
+
+    public static LRTable of(CompiledGrammar compiled, Mode mode) {
+        return new LRTable(compiled, mode);
+    }
+
+    /**
+     * Reconstruye unas tablas sin conflictos a partir de sus arreglos (por ejemplo, leídos
+     * de disco), con la codificación de action y go
+     * @throws IllegalArgumentException si las dimensiones o las entradas no encajan con la gramática
+     */
+    public static LRTable fromTables(CompiledGrammar compiled, Mode mode, int stateCount, int[] action, int[] gotoTable) {
+        int columns = compiled.getTerminalCount() + 1;
+        if (stateCount <= 0 || action.length != stateCount * columns
+                || gotoTable.length != stateCount * compiled.getNonTerminalCount()) {
+            throw new IllegalArgumentException("Las dimensiones de las tablas LR no corresponden a la gramática");
+        }
+        for (int value : action) {
+            if (value > stateCount || value < -(compiled.getProductionCount() + 1)) {
+                throw new IllegalArgumentException("Acción LR fuera de rango: " + value);
+            }
+        }
+        for (int value : gotoTable) {
+            if (value < -1 || value >= stateCount) {
+                throw new IllegalArgumentException("Transición GOTO fuera de rango: " + value);
+            }
+        }
+        return new LRTable(compiled, mode, stateCount, action, gotoTable);
+    }
+
+    private int length(int production) {
+        return production == augmented ? 1 : compiled.rightLength(production);
+    }
+
+    private int symbol(int production, int k) {
+        return production == augmented ? compiled.getStartSymbol() : compiled.rightSymbol(production, k);
+    }
+
+    private int symbolCount() {
+        return compiled.getSymbolCount();
+    }
+
+    // --- Autómata LR(0) y propagación de preanálisis (LALR) ---
+
+    private void buildLalr() {
+        Map<String, Integer> index = new HashMap<>();
+        int[] startKernel = {dottedBase[augmented]};
+        addState(startKernel, index);
+
+        for (int s = 0; s < kernels.size(); s++) {
+            int[] items = closure0(kernels.get(s));
+            for (Map.Entry<Integer, int[]> entry : advance(items).entrySet()) {
+                int target = addState(entry.getValue(), index);
+                transitions[s * symbolCount() + entry.getKey()] = target;
+            }
+        }
+
+        // Preanálisis espontáneos y enlaces de propagación entre ítems núcleo
+        for (int s = 0; s < kernels.size(); s++) {
+            int[] kernel = kernels.get(s);
+            BitSet[] own = new BitSet[kernel.length];
+            for (int k = 0; k < kernel.length; k++) {
+                own[k] = new BitSet();
+            }
+            lookaheads.add(own);
+        }
+        lookaheads.get(0)[0].set(getEndMarker());
+
+        List<int[]> links = new ArrayList<>();
+        for (int s = 0; s < kernels.size(); s++) {
+            int[] kernel = kernels.get(s);
+            for (int k = 0; k < kernel.length; k++) {
+                BitSet marker = new BitSet();
+                marker.set(lookaheadMarker);
+                Map<Integer, BitSet> closure = closure1(new int[]{kernel[k]}, new BitSet[]{marker});
+                for (Map.Entry<Integer, BitSet> item : closure.entrySet()) {
+                    int d = item.getKey();
+                    if (dottedNext[d] < 0) {
+                        continue;
+                    }
+                    int target = transitions[s * symbolCount() + dottedNext[d]];
+                    int targetIndex = Arrays.binarySearch(kernels.get(target), d + 1);
+                    BitSet spontaneous = (BitSet) item.getValue().clone();
+                    spontaneous.clear(lookaheadMarker);
+                    lookaheads.get(target)[targetIndex].or(spontaneous);
+                    if (item.getValue().get(lookaheadMarker)) {
+                        links.add(new int[]{s, k, target, targetIndex});
+                    }
+                }
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int[] link : links) {
+                BitSet from = lookaheads.get(link[0])[link[1]];
+                BitSet to = lookaheads.get(link[2])[link[3]];
+                int before = to.cardinality();
+                to.or(from);
+                changed |= to.cardinality() != before;
+            }
+        }
+    }
+
+    private int addState(int[] kernel, Map<String, Integer> index) {
+        String key = Arrays.toString(kernel);
+        Integer existing = index.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int id = kernels.size();
+        kernels.add(kernel);
+        index.put(key, id);
+        growTransitions();
+        return id;
+    }
+
+    private void growTransitions() {
+        int needed = kernels.size() * symbolCount();
+        if (needed > transitions.length) {
+            int old = transitions.length;
+            transitions = Arrays.copyOf(transitions, Math.max(needed, old * 2));
+            Arrays.fill(transitions, old, transitions.length, -1);
+        }
+    }
+
+    private int[] closure0(int[] kernel) {
+        BitSet present = new BitSet();
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int d : kernel) {
+            present.set(d);
+            pending.add(d);
+        }
+        while (!pending.isEmpty()) {
+            int next = dottedNext[pending.poll()];
+            if (next < 0 || compiled.isTerminal(next)) {
+                continue;
+            }
+            for (int q = compiled.firstProduction(next); q < compiled.endProduction(next); q++) {
+                if (!present.get(dottedBase[q])) {
+                    present.set(dottedBase[q]);
+                    pending.add(dottedBase[q]);
+                }
+            }
+        }
+        return present.stream().toArray();
+    }
+
+    /**
+     * Núcleos destino agrupados por el símbolo que se desplaza
+     */
+    private Map<Integer, int[]> advance(int[] items) {
+        Map<Integer, List<Integer>> grouped = new TreeMap<>();
+        for (int d : items) {
+            if (dottedNext[d] >= 0) {
+                grouped.computeIfAbsent(dottedNext[d], k -> new ArrayList<>()).add(d + 1);
+            }
+        }
+        Map<Integer, int[]> result = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : grouped.entrySet()) {
+            int[] kernel = entry.getValue().stream().mapToInt(Integer::intValue).sorted().toArray();
+            result.put(entry.getKey(), kernel);
+        }
+        return result;
+    }
+
+    // --- Conjuntos canónicos LR(1) ---
+
+    private void buildCanonical() {
+        Map<String, Integer> index = new HashMap<>();
+        BitSet end = new BitSet();
+        end.set(getEndMarker());
+        addCanonicalState(new int[]{dottedBase[augmented]}, new BitSet[]{end}, index);
+
+        for (int s = 0; s < kernels.size(); s++) {
+            Map<Integer, BitSet> closure = closure1(kernels.get(s), lookaheads.get(s));
+            Map<Integer, Map<Integer, BitSet>> grouped = new TreeMap<>();
+            for (Map.Entry<Integer, BitSet> item : closure.entrySet()) {
+                int d = item.getKey();
+                if (dottedNext[d] >= 0) {
+                    grouped.computeIfAbsent(dottedNext[d], k -> new TreeMap<>())
+                            .computeIfAbsent(d + 1, k -> new BitSet()).or(item.getValue());
+                }
+            }
+            for (Map.Entry<Integer, Map<Integer, BitSet>> entry : grouped.entrySet()) {
+                int[] kernel = entry.getValue().keySet().stream().mapToInt(Integer::intValue).toArray();
+                BitSet[] sets = entry.getValue().values().toArray(new BitSet[0]);
+                int target = addCanonicalState(kernel, sets, index);
+                transitions[s * symbolCount() + entry.getKey()] = target;
+            }
+        }
+    }
+
+    private int addCanonicalState(int[] kernel, BitSet[] sets, Map<String, Integer> index) {
+        String key = Arrays.toString(kernel) + Arrays.toString(sets);
+        Integer existing = index.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int id = kernels.size();
+        kernels.add(kernel);
+        lookaheads.add(sets);
+        index.put(key, id);
+        growTransitions();
+        return id;
+    }
+
+    /**
+     * Cierre LR(1): ítems (regla con punto) con su conjunto de preanálisis
+     */
+    private Map<Integer, BitSet> closure1(int[] kernel, BitSet[] sets) {
+        Map<Integer, BitSet> items = new LinkedHashMap<>();
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int k = 0; k < kernel.length; k++) {
+            items.put(kernel[k], (BitSet) sets[k].clone());
+            pending.add(kernel[k]);
+        }
+
+        while (!pending.isEmpty()) {
+            int d = pending.poll();
+            int next = dottedNext[d];
+            if (next < 0 || compiled.isTerminal(next)) {
+                continue;
+            }
+            BitSet inherited = (BitSet) firstAfter[d].clone();
+            if (nullableAfter[d]) {
+                inherited.or(items.get(d));
+            }
+            for (int q = compiled.firstProduction(next); q < compiled.endProduction(next); q++) {
+                int start = dottedBase[q];
+                BitSet current = items.get(start);
+                if (current == null) {
+                    items.put(start, (BitSet) inherited.clone());
+                    pending.add(start);
+                } else {
+                    int before = current.cardinality();
+                    current.or(inherited);
+                    if (current.cardinality() != before) {
+                        pending.add(start);
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    // --- Tablas ---
+
+    private void fillTables() {
+        int columns = getColumns();
+        int nonTerminals = compiled.getNonTerminalCount();
+        Arrays.fill(gotoTable, -1);
+
+        for (int s = 0; s < stateCount; s++) {
+            for (int x = 0; x < symbolCount(); x++) {
+                int target = transitions[s * symbolCount() + x];
+                if (target < 0) {
+                    continue;
+                }
+                if (compiled.isTerminal(x)) {
+                    setAction(s, x, target + 1);
+                } else {
+                    gotoTable[s * nonTerminals + x - compiled.getTerminalCount()] = target;
+                }
+            }
+
+            for (Map.Entry<Integer, BitSet> item : closure1(kernels.get(s), lookaheads.get(s)).entrySet()) {
+                int d = item.getKey();
+                if (dottedNext[d] >= 0) {
+                    continue;
+                }
+                int production = dottedProduction[d];
+                BitSet set = item.getValue();
+                for (int a = set.nextSetBit(0); a >= 0; a = set.nextSetBit(a + 1)) {
+                    if (a < columns) {
+                        setAction(s, a, -(production + 1));
+                    }
+                }
+            }
+        }
+    }
+
+    private void setAction(int state, int terminal, int value) {
+        int cell = state * getColumns() + terminal;
+        int current = action[cell];
+        if (current == ERROR || current == value) {
+            action[cell] = value;
+            return;
+        }
+
+        if (current > 0 || value > 0) {
+            int reduce = current < 0 ? current : value;
+            conflicts.add(new Conflict(state, terminalName(terminal), Conflict.Kind.SHIFT_REDUCE,
+                    List.of(productionOf(-reduce - 1))));
+            action[cell] = current > 0 ? current : value;
+        } else {
+            int first = Math.min(-current - 1, -value - 1);
+            int second = Math.max(-current - 1, -value - 1);
+            conflicts.add(new Conflict(state, terminalName(terminal), Conflict.Kind.REDUCE_REDUCE,
+                    List.of(productionOf(first), productionOf(second))));
+            action[cell] = -(first + 1);
+        }
+    }
+
+    private Production productionOf(int production) {
+        if (production != augmented) {
+            return compiled.getProduction(production);
+        }
+        String start = compiled.nameOf(compiled.getStartSymbol());
+        return new Production(start + "'", List.of(start));
+    }
+
+    String terminalName(int terminal) {
+        return terminal == getEndMarker() ? GrammarAnalysis.END_MARKER : compiled.nameOf(terminal);
+    }
+
+    // --- Consulta ---
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public CompiledGrammar getCompiledGrammar() {
+        return compiled;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getEndMarker() {
+        return compiled.getTerminalCount();
+    }
+
+    /**
+     * Columnas de ACTION: terminales más el fin de entrada
+     */
+    public int getColumns() {
+        return compiled.getTerminalCount() + 1;
+    }
+
+    /**
+     * Índice de la producción aumentada S' → S; reducirla con "$" es aceptar
+     */
+    public int getAugmentedProduction() {
+        return augmented;
+    }
+
+    /**
+     * Acción codificada: ERROR, desplazar (v > 0, estado v - 1) o reducir (v < 0, producción -v - 1)
+     */
+    public int action(int state, int terminal) {
+        return action[state * getColumns() + terminal];
+    }
+
+    public int go(int state, int nonTerminal) {
+        return gotoTable[state * compiled.getNonTerminalCount() + nonTerminal - compiled.getTerminalCount()];
+    }
+
+    /**
+     * Copia de la tabla ACTION, estado por estado
+     */
+    public int[] getActionTable() {
+        return action.clone();
+    }
+
+    /**
+     * Copia de la tabla GOTO, estado por estado (-1 sin transición)
+     */
+    public int[] getGotoTable() {
+        return gotoTable.clone();
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    public List<Conflict> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    public String conflictReport() {
+        String name = mode == Mode.LALR1 ? "LALR(1)" : "LR(1)";
+        if (conflicts.isEmpty()) {
+            return String.format("La gramática es %s: %d estados, sin conflictos", name, stateCount);
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("La gramática no es %s: %d conflicto(s) en %d estados\n", name, conflicts.size(), stateCount));
+        for (Conflict conflict : conflicts) {
+            sb.append("  ").append(conflict).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Terminales (o "$") con acción en un estado
+     */
+    List<String> expected(int state) {
+        List<String> result = new ArrayList<>();
+        for (int t = 0; t < getColumns(); t++) {
+            if (action(state, t) != ERROR) {
+                result.add(terminalName(t));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Conflicto en una celda de ACTION
+     */
+    public static class Conflict {
+        public enum Kind {
+            SHIFT_REDUCE, REDUCE_REDUCE
+        }
+
+        private final int state;
+        private final String lookahead;
+        private final Kind kind;
+        private final List<Production> productions;
+
+        public Conflict(int state, String lookahead, Kind kind, List<Production> productions) {
+            this.state = state;
+            this.lookahead = lookahead;
+            this.kind = kind;
+            this.productions = productions;
+        }
+
+        public int getState() {
+            return state;
+        }
+
+        public String getLookahead() {
+            return lookahead;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public List<Production> getProductions() {
+            return productions;
+        }
+
+        @Override
+        public String toString() {
+            String kindName = kind == Kind.SHIFT_REDUCE ? "desplazamiento/reducción" : "reducción/reducción";
+            List<String> names = new ArrayList<>();
+            for (Production production : productions) {
+                names.add(production.toString());
+            }
+            return String.format("Estado %d, '%s': conflicto %s (%s)", state, lookahead, kindName, String.join("  |  ", names));
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package org.example.parser;
+
+import org.example.model.DerivationTree;
+import org.example.model.Production;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Bosque de análisis compartido y empaquetado (SPPF) binarizado: todas las derivaciones
+ * de una cadena en espacio polinómico. Los nodos de símbolo (X, i, j) indican que X
+ * deriva tokens[i, j); los nodos intermedios (A → X1..Xd · ..., i, j) agrupan un prefijo
+ * del lado derecho. Cada alternativa (nodo empaquetado) tiene a lo sumo dos hijos:
+ * el prefijo a la izquierda y el último símbolo a la derecha.
+ */
+public class ParseForest {
+
+    private final Node root;
+    private final int nodeCount;
+    private final boolean ambiguous;
+
+    ParseForest(Node root, int nodeCount, boolean ambiguous) {
+        this.root = root;
+        this.nodeCount = nodeCount;
+        this.ambiguous = ambiguous;
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Indica si algún nodo tiene más de una alternativa, es decir, si la cadena admite
+     * más de un árbol de derivación
+     */
+    public boolean isAmbiguous() {
+        return ambiguous;
+    }
+
+    /**
+     * Recorre perezosamente los árboles de derivación del bosque. Se omiten los árboles
+     * que repiten un mismo nodo de símbolo en un camino (ciclos A ⇒+ A), que serían infinitos.
+     */
+    public Iterator<DerivationTree> trees() {
+        return new TreeIterator();
+    }
+
+    public static class Node {
+        private final String symbol;
+        private final Production production;
+        private final int dot;
+        private final int from;
+        private final int to;
+        private final boolean terminal;
+        private final List<PackedNode> families = new ArrayList<>();
+
+        Node(String symbol, Production production, int dot, int from, int to, boolean terminal) {
+            this.symbol = symbol;
+            this.production = production;
+            this.dot = dot;
+            this.from = from;
+            this.to = to;
+            this.terminal = terminal;
+        }
+
+        void addFamily(PackedNode family) {
+            families.add(family);
+        }
+
+        /**
+         * Símbolo del nodo, o null si es un nodo intermedio
+         */
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Producción del prefijo (sólo nodos intermedios)
+         */
+        public Production getProduction() {
+            return production;
+        }
+
+        /**
+         * Número de símbolos del prefijo (sólo nodos intermedios)
+         */
+        public int getDot() {
+            return dot;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        public boolean isTerminal() {
+            return terminal;
+        }
+
+        public boolean isIntermediate() {
+            return symbol == null;
+        }
+
+        public boolean isAmbiguous() {
+            return families.size() > 1;
+        }
+
+        public List<PackedNode> getFamilies() {
+            return Collections.unmodifiableList(families);
+        }
+
+        @Override
+        public String toString() {
+            String label = symbol != null ? symbol : production.getLeft() + " → " + production.getRight() + " ·" + dot;
+            return String.format("(%s, %d, %d)", label, from, to);
+        }
+    }
+
+    /**
+     * Alternativa de un nodo: producción aplicada, posición de corte y los dos hijos
+     * (left es null si el prefijo es vacío; ambos son null en una producción ε)
+     */
+    public static class PackedNode {
+        private final Production production;
+        private final int pivot;
+        private final Node left;
+        private final Node right;
+
+        PackedNode(Production production, int pivot, Node left, Node right) {
+            this.production = production;
+            this.pivot = pivot;
+            this.left = left;
+            this.right = right;
+        }
+
+        public Production getProduction() {
+            return production;
+        }
+
+        public int getPivot() {
+            return pivot;
+        }
+
+        public Node getLeft() {
+            return left;
+        }
+
+        public Node getRight() {
+            return right;
+        }
+    }
+
+    /**
+     * Enumeración en orden lexicográfico de las secuencias de elecciones: cada árbol se
+     * reconstruye recorriendo el bosque en preorden y tomando, en el k-ésimo nodo con
+     * varias alternativas, la alternativa choices[k]. Si un recorrido cae en un ciclo,
+     * ninguna extensión de sus elecciones es válida y se avanza la última elección.
+     */
+    private class TreeIterator implements Iterator<DerivationTree> {
+        private final List<Integer> choices = new ArrayList<>();
+        private final List<Integer> counts = new ArrayList<>();
+        private DerivationTree next;
+        private boolean finished = root == null;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                next = traverse();
+                if (!advance()) {
+                    finished = true;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public DerivationTree next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DerivationTree tree = next;
+            next = null;
+            return tree;
+        }
+
+        /**
+         * Pasa a la siguiente secuencia de elecciones; false si no quedan
+         */
+        private boolean advance() {
+            for (int k = choices.size() - 1; k >= 0; k--) {
+                if (choices.get(k) + 1 < counts.get(k)) {
+                    choices.set(k, choices.get(k) + 1);
+                    choices.subList(k + 1, choices.size()).clear();
+                    counts.subList(k + 1, counts.size()).clear();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int choose(Node node, int[] point) {
+            int count = node.families.size();
+            if (count == 1) {
+                return 0;
+            }
+            int k = point[0]++;
+            if (k == choices.size()) {
+                choices.add(0);
+                counts.add(count);
+            }
+            return choices.get(k);
+        }
+
+        /**
+         * Construye el árbol de las elecciones actuales; devuelve null si cae en un ciclo,
+         * dejando las elecciones truncadas en la última usada
+         */
+        private DerivationTree traverse() {
+            int[] point = {0};
+            DerivationTree tree = new DerivationTree(root.symbol);
+            Set<Node> path = new HashSet<>();
+            Deque<Object[]> stack = new ArrayDeque<>();
+            stack.push(new Object[]{root, tree.getRoot()});
+
+            while (!stack.isEmpty()) {
+                Object[] frame = stack.pop();
+                Node node = (Node) frame[0];
+                if (frame[1] == null) {
+                    // Marca de salida: el nodo deja de estar en el camino actual
+                    path.remove(node);
+                    continue;
+                }
+                DerivationTree.TreeNode treeNode = (DerivationTree.TreeNode) frame[1];
+                if (node.terminal) {
+                    continue;
+                }
+
+                path.add(node);
+                stack.push(new Object[]{node, null});
+
+                PackedNode family = node.families.get(choose(node, point));
+                treeNode.setUsedProduction(family.production);
+                if (family.right == null) {
+                    treeNode.addChild(new DerivationTree.TreeNode("ε"));
+                    continue;
+                }
+
+                // Hijos de derecha a izquierda, desplegando la cadena de nodos intermedios
+                List<Node> children = new ArrayList<>();
+                children.add(family.right);
+                Node prefix = family.left;
+                while (prefix != null && prefix.isIntermediate()) {
+                    PackedNode split = prefix.families.get(choose(prefix, point));
+                    children.add(split.right);
+                    prefix = split.left;
+                }
+                if (prefix != null) {
+                    children.add(prefix);
+                }
+                Collections.reverse(children);
+
+                for (Node child : children) {
+                    if (path.contains(child)) {
+                        choices.subList(point[0], choices.size()).clear();
+                        counts.subList(point[0], counts.size()).clear();
+                        return null;
+                    }
+                }
+
+                List<DerivationTree.TreeNode> created = new ArrayList<>();
+                for (Node child : children) {
+                    DerivationTree.TreeNode childNode = new DerivationTree.TreeNode(child.symbol);
+                    treeNode.addChild(childNode);
+                    created.add(childNode);
+                }
+                for (int c = children.size() - 1; c >= 0; c--) {
+                    stack.push(new Object[]{children.get(c), created.get(c)});
+                }
+            }
+
+            choices.subList(point[0], choices.size()).clear();
+            counts.subList(point[0], counts.size()).clear();
+            return tree;
+        }
+    }
+}
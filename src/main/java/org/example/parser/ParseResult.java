@@ -2,10 +2,19 @@ package org.example.parser;
 
 import org.example.model.DerivationTree;
 
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
 public class ParseResult {
     private boolean accepted;
     private DerivationTree derivationTree;
+    private Supplier<DerivationTree> treeBuilder;
     private String message;
+    private ParseForest forest;
+    private boolean ambiguous;
+    private long memoLookups;
+    private long memoHits;
 
     public ParseResult(boolean accepted, DerivationTree derivationTree, String message) {
         this.accepted = accepted;
@@ -13,11 +22,24 @@ public class ParseResult {
         this.message = message;
     }
 
+    /**
+     * Crea un resultado cuyo árbol de derivación sólo se construye la primera vez que se solicita
+     */
+    public static ParseResult withLazyTree(boolean accepted, Supplier<DerivationTree> treeBuilder, String message) {
+        ParseResult result = new ParseResult(accepted, null, message);
+        result.treeBuilder = treeBuilder;
+        return result;
+    }
+
     public boolean isAccepted() {
         return accepted;
     }
 
-    public DerivationTree getDerivationTree() {
+    public synchronized DerivationTree getDerivationTree() {
+        if (derivationTree == null && treeBuilder != null) {
+            derivationTree = treeBuilder.get();
+            treeBuilder = null;
+        }
         return derivationTree;
     }
 
@@ -25,14 +47,78 @@ public class ParseResult {
         return message;
     }
 
+    /**
+     * Bosque con todas las derivaciones, si el parser lo construye
+     */
+    public ParseForest getForest() {
+        return forest;
+    }
+
+    public void setForest(ParseForest forest) {
+        this.forest = forest;
+    }
+
+    /**
+     * Indica si la cadena tiene más de un árbol de derivación
+     */
+    public boolean isAmbiguous() {
+        return ambiguous;
+    }
+
+    public void setAmbiguous(boolean ambiguous) {
+        this.ambiguous = ambiguous;
+    }
+
+    /**
+     * Consultas a la memoria del parser packrat y cuántas encontraron el resultado
+     */
+    public void setMemoStatistics(long lookups, long hits) {
+        this.memoLookups = lookups;
+        this.memoHits = hits;
+    }
+
+    public long getMemoLookups() {
+        return memoLookups;
+    }
+
+    public long getMemoHits() {
+        return memoHits;
+    }
+
+    /**
+     * Proporción de consultas a la memoria resueltas sin analizar (0 si no hubo consultas)
+     */
+    public double getMemoHitRate() {
+        return memoLookups == 0 ? 0 : (double) memoHits / memoLookups;
+    }
+
+    /**
+     * Recorre perezosamente todos los árboles de derivación: los del bosque si existe,
+     * o el único árbol del resultado en otro caso
+     */
+    public Iterator<DerivationTree> derivationTrees() {
+        if (forest != null) {
+            return forest.trees();
+        }
+        DerivationTree tree = getDerivationTree();
+        return tree == null ? Collections.emptyIterator() : Collections.singletonList(tree).iterator();
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Estado: ").append(accepted ? "ACEPTADA" : "RECHAZADA").append("\n");
         sb.append("Mensaje: ").append(message).append("\n");
+        if (ambiguous) {
+            sb.append("Ambigua: la cadena tiene más de un árbol de derivación\n");
+        }
+        if (memoLookups > 0) {
+            sb.append(String.format("Memoria: %d consultas, %.1f%% aciertos%n", memoLookups, 100 * getMemoHitRate()));
+        }
 
-        if (accepted && derivationTree != null) {
-            sb.append(derivationTree.toGraphicalString());
+        DerivationTree tree = getDerivationTree();
+        if (accepted && tree != null) {
+            sb.append(tree.toGraphicalString());
         }
 
         return sb.toString();
@@ -1,5 +1,10 @@
 package org.example.parser;
 
+/**
+ * Analizador sintáctico de una gramática. Las implementaciones son inmutables una vez
+ * construidas: cada llamada a parse o recognize usa su propio estado de trabajo, de modo
+ * que una misma instancia puede compartirse entre hilos sin sincronización
+ */
 public interface Parser {
     /**
      * Parsea una cadena de entrada
@@ -7,4 +12,13 @@ public interface Parser {
      * @return Resultado del parsing
      */
     ParseResult parse(String input);
+
+    /**
+     * Indica si la cadena pertenece al lenguaje, sin construir árbol de derivación
+     * @param input La cadena a reconocer
+     * @return true si la cadena es aceptada
+     */
+    default boolean recognize(String input) {
+        return parse(input).isAccepted();
+    }
 }
@@ -1,24 +1,175 @@
 package org.example.parser;
 
+import org.example.automaton.RegularAutomaton;
+import org.example.model.CompiledGrammar;
 import org.example.model.Grammar;
+import org.example.persistence.CompiledTableCache;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Elige y construye el parser de cada gramática. Los parsers construidos se guardan en
+ * una caché LRU indexada por la huella de contenido de la gramática, de modo que los
+ * análisis repetidos con la misma gramática no vuelven a construir tablas ni autómatas.
+ * Los parsers son inmutables, así que una misma instancia sirve a todos los hilos.
+ */
 public class ParserFactory {
 
+    /** Parsers que conserva la caché por defecto */
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
+    private static final LinkedHashMap<String, Parser> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static int cacheSize = DEFAULT_CACHE_SIZE;
+    private static long hits;
+    private static long misses;
+    private static volatile CompiledTableCache tableCache;
+
     /**
-            * Crea el parser óptimo para la gramática dada
+            * Crea el parser óptimo para la gramática dada, o lo reutiliza si ya se construyó
+     * para una gramática con el mismo contenido
      */
     public static Parser createParser(Grammar grammar) {
         if (grammar == null) {
             throw new IllegalArgumentException("La gramática no puede ser nula");
         }
 
+        String key = grammar.contentHash();
+        synchronized (CACHE) {
+            Parser cached = CACHE.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // Se construye fuera del bloqueo; si otro hilo se adelanta, se conserva el suyo
+        Parser parser = buildParser(grammar);
+        synchronized (CACHE) {
+            if (cacheSize == 0) {
+                return parser;
+            }
+            Parser previous = CACHE.putIfAbsent(key, parser);
+            if (previous != null) {
+                return previous;
+            }
+            evict();
+            return parser;
+        }
+    }
+
+    private static Parser buildParser(Grammar grammar) {
+        CompiledTableCache disk = tableCache;
         switch (grammar.getType()) {
             case TYPE_3:
-                return new Type3Parser(grammar);
+                // AUTO: AFD mínimo salvo que la determinización supere el tamaño límite
+                if (disk != null) {
+                    return new Type3Parser(grammar, disk.automaton(grammar));
+                }
+                return new Type3Parser(grammar, RegularAutomaton.Mode.AUTO);
             case TYPE_2:
-                return new Type2Parser(grammar);
+                // LL(1) o LALR(1) si sus tablas no tienen conflictos; si no, Earley, que acepta
+                // cualquier gramática libre de contexto
+                CompiledGrammar compiled = CompiledGrammar.of(grammar);
+                LL1Table llTable = LL1Table.of(compiled);
+                if (!llTable.hasConflicts()) {
+                    return new LL1Parser(llTable);
+                }
+                LRTable lrTable = disk != null
+                        ? disk.lrTable(grammar, LRTable.Mode.LALR1)
+                        : LRTable.of(compiled, LRTable.Mode.LALR1);
+                if (!lrTable.hasConflicts()) {
+                    return new LRParser(lrTable);
+                }
+                return new EarleyParser(compiled);
             default:
                 throw new IllegalArgumentException("Tipo de gramática no soportado: " + grammar.getType());
         }
     }
+
+    /**
+     * Descarta los parsers usados hace más tiempo hasta respetar el tamaño máximo
+     */
+    private static void evict() {
+        Iterator<String> eldest = CACHE.keySet().iterator();
+        while (CACHE.size() > cacheSize) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Caché en disco de tablas LALR(1) y AFD compilados, consultada al construir parsers
+     * nuevos; null compila siempre en memoria. Sin llamar a este método no hay caché en
+     * disco: la aplicación JavaFX activa CompiledTableCache.createDefault() al arrancar.
+     */
+    public static void setTableCache(CompiledTableCache cache) {
+        tableCache = cache;
+    }
+
+    public static CompiledTableCache getTableCache() {
+        return tableCache;
+    }
+
+    /**
+     * @param size número máximo de parsers en la caché; 0 la desactiva
+     */
+    public static void setCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("El tamaño de la caché no puede ser negativo: " + size);
+        }
+        synchronized (CACHE) {
+            cacheSize = size;
+            evict();
+        }
+    }
+
+    public static int getCacheSize() {
+        synchronized (CACHE) {
+            return cacheSize;
+        }
+    }
+
+    /**
+     * Número de parsers guardados actualmente
+     */
+    public static int getCachedCount() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * Vacía la caché y pone a cero sus estadísticas
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    public static long getCacheHits() {
+        synchronized (CACHE) {
+            return hits;
+        }
+    }
+
+    public static long getCacheMisses() {
+        synchronized (CACHE) {
+            return misses;
+        }
+    }
+
+    /**
+     * Proporción de peticiones servidas desde la caché (0 si no hubo ninguna)
+     */
+    public static double getCacheHitRate() {
+        synchronized (CACHE) {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
 }
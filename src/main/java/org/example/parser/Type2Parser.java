@@ -1,165 +1,453 @@
 package org.example.parser;
 
+import org.example.automaton.Tokenizer;
+import org.example.model.CompiledGrammar;
 import org.example.model.DerivationTree;
 import org.example.model.Grammar;
 import org.example.model.Production;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Parser descendente recursivo con vuelta atrás y elección ordenada: cada no terminal
+ * se queda con la primera alternativa que tiene éxito, y su alternativa ε, si la tiene,
+ * se prueba después de todas las demás. En modo packrat los resultados
+ * (no terminal, posición) se memorizan, de modo que ningún tramo de la entrada se
+ * analiza dos veces desde el mismo no terminal, y la recursión por la izquierda se
+ * resuelve haciendo crecer una semilla. Trabaja sobre la forma compilada de la
+ * gramática: símbolos y producciones son enteros.
+ */
 public class Type2Parser implements Parser {
 
-    private Grammar grammar;
-    private int stepCount;
-    private final int MAX_STEPS = 10000;
+    /** Ventana de memorización que desactiva el modo packrat */
+    public static final int NO_MEMO = 0;
+
+    /** Posiciones de entrada cuya memoria se conserva por defecto */
+    public static final int DEFAULT_MEMO_WINDOW = 4096;
+
+    private static final int MAX_STEPS = 10000;
+
+    private final CompiledGrammar compiled;
+    private final int memoWindow;
 
     public Type2Parser(Grammar grammar) {
-        this.grammar = grammar;
+        this(grammar, DEFAULT_MEMO_WINDOW);
+    }
+
+    /**
+     * @param memoWindow número de posiciones de entrada cuya memoria se conserva
+     *                   (las más antiguas se descartan), o NO_MEMO para la vuelta
+     *                   atrás sin memoria
+     */
+    public Type2Parser(Grammar grammar, int memoWindow) {
+        if (memoWindow < 0) {
+            throw new IllegalArgumentException("La ventana de memorización no puede ser negativa: " + memoWindow);
+        }
+        this.compiled = CompiledGrammar.of(grammar);
+        this.memoWindow = memoWindow;
+    }
+
+    public boolean isMemoizing() {
+        return memoWindow != NO_MEMO;
     }
 
     @Override
     public ParseResult parse(String input) {
-        stepCount = 0;
-
-        if (input.isEmpty() || input.equals("ε")) {
+        if (Tokenizer.isEmptyInput(input)) {
             return parseEpsilon();
         }
 
-        List<String> inputSymbols = tokenize(input);
-        DerivationTree tree = new DerivationTree(grammar.getStartSymbol());
+        int[] inputSymbols = compiled.getTokenizer().tokenize(input);
+        if (inputSymbols == null) {
+            return new ParseResult(false, null, "Cadena rechazada - contiene símbolos que no son terminales");
+        }
+        if (isMemoizing()) {
+            return parsePackrat(inputSymbols, input);
+        }
+        Search search = new Search(inputSymbols, new Trace());
+
+        if (search.run()) {
+            int[] steps = search.trace.toArray();
+            return ParseResult.withLazyTree(true,
+                    () -> DerivationTree.fromTrace(compiled, steps),
+                    String.format("Cadena aceptada (pasos: %d, cadena: '%s')", search.steps, input));
+        }
 
-        if (parseRecursive(tree.getRoot(), inputSymbols, 0)) {
-            String generated = tree.getGeneratedString();
-            String original = String.join("", inputSymbols);
+        return new ParseResult(false, null,
+                String.format("Cadena rechazada - no pertenece al lenguaje (pasos explorados: %d)", search.steps));
+    }
 
-            if (generated.equals(original)) {
-                return new ParseResult(true, tree,
-                        String.format("Cadena aceptada (pasos: %d, cadena: '%s')", stepCount, generated));
+    @Override
+    public boolean recognize(String input) {
+        if (Tokenizer.isEmptyInput(input)) {
+            return findEpsilonProduction(compiled.getStartSymbol()) >= 0;
+        }
+
+        int[] inputSymbols = compiled.getTokenizer().tokenize(input);
+        if (inputSymbols == null) {
+            return false;
+        }
+        if (isMemoizing()) {
+            return new Packrat(inputSymbols).run() != null;
+        }
+        return new Search(inputSymbols, null).run();
+    }
+
+    private ParseResult parsePackrat(int[] inputSymbols, String input) {
+        Packrat packrat = new Packrat(inputSymbols);
+        Result root = packrat.run();
+
+        ParseResult result;
+        if (root != null) {
+            int[] steps = packrat.trace(root);
+            result = ParseResult.withLazyTree(true,
+                    () -> DerivationTree.fromTrace(compiled, steps),
+                    String.format("Cadena aceptada (pasos: %d, memo: %d/%d aciertos, cadena: '%s')",
+                            packrat.steps, packrat.hits, packrat.lookups, input));
+        } else {
+            result = new ParseResult(false, null,
+                    String.format("Cadena rechazada - no pertenece al lenguaje (pasos explorados: %d, memo: %d/%d aciertos)",
+                            packrat.steps, packrat.hits, packrat.lookups));
+        }
+        result.setMemoStatistics(packrat.lookups, packrat.hits);
+        return result;
+    }
+
+    /**
+     * Primera producción ε del no terminal, o -1 si no tiene
+     */
+    private int findEpsilonProduction(int nonTerminal) {
+        for (int id = compiled.firstProduction(nonTerminal); id < compiled.endProduction(nonTerminal); id++) {
+            if (compiled.rightLength(id) == 0) {
+                return id;
             }
         }
+        return -1;
+    }
 
-        return new ParseResult(false, null,
-                String.format("Cadena rechazada - no pertenece al lenguaje (pasos explorados: %d)", stepCount));
+    private ParseResult parseEpsilon() {
+        int id = findEpsilonProduction(compiled.getStartSymbol());
+        if (id >= 0) {
+            Production prod = compiled.getProduction(id);
+            DerivationTree tree = new DerivationTree(compiled.nameOf(compiled.getStartSymbol()));
+            tree.getRoot().setUsedProduction(prod);
+            tree.getRoot().addChild(new DerivationTree.TreeNode("ε"));
+            return new ParseResult(true, tree, "Cadena vacía aceptada");
+        }
+        return new ParseResult(false, null, "Cadena vacía no aceptada");
     }
 
-    private List<String> tokenize(String input) {
-        List<String> symbols = new ArrayList<>();
-        int i = 0;
+    /**
+     * Estado de un análisis con vuelta atrás sin memoria: entrada, pasos dados y, si
+     * trace no es null, las producciones aplicadas (derivación por la izquierda)
+     */
+    private class Search {
+        private final int[] input;
+        private final Trace trace;
+        private int steps;
 
-        while (i < input.length()) {
-            boolean matched = false;
+        Search(int[] input, Trace trace) {
+            this.input = input;
+            this.trace = trace;
+        }
 
-            for (String terminal : grammar.getTerminals()) {
-                if (input.startsWith(terminal, i)) {
-                    symbols.add(terminal);
-                    i += terminal.length();
-                    matched = true;
-                    break;
+        boolean run() {
+            return parseRecursive(compiled.getStartSymbol(), 0) == input.length;
+        }
+
+        /**
+         * Intenta derivar un prefijo de la entrada desde el símbolo dado.
+         * Devuelve la posición final alcanzada, o -1 si falla
+         */
+        private int parseRecursive(int symbol, int position) {
+            if (++steps > MAX_STEPS) {
+                return -1;
+            }
+
+            if (compiled.isTerminal(symbol)) {
+                return position < input.length && input[position] == symbol ? position + 1 : -1;
+            }
+
+            for (int id = compiled.firstProduction(symbol); id < compiled.endProduction(symbol); id++) {
+                if (compiled.rightLength(id) == 0) {
+                    continue;
+                }
+                int mark = trace == null ? 0 : trace.size();
+                if (trace != null) {
+                    trace.add(id);
+                }
+
+                int end = tryProduction(id, position);
+                if (end >= 0) {
+                    return end;
+                }
+
+                if (trace != null) {
+                    trace.truncate(mark);
                 }
             }
 
-            if (!matched) {
-                symbols.add(String.valueOf(input.charAt(i)));
-                i++;
+            // La alternativa ε se prueba la última, cuando ninguna consume entrada
+            int epsilon = findEpsilonProduction(symbol);
+            if (epsilon >= 0) {
+                if (trace != null) {
+                    trace.add(epsilon);
+                }
+                return position;
             }
+            return -1;
         }
 
-        return symbols;
-    }
+        private int tryProduction(int production, int position) {
+            int length = compiled.rightLength(production);
+            int currentPos = position;
 
-    private boolean parseRecursive(DerivationTree.TreeNode node, List<String> input, int position) {
-        if (++stepCount > MAX_STEPS) {
-            return false;
+            for (int k = 0; k < length; k++) {
+                int symbol = compiled.rightSymbol(production, k);
+                if (compiled.isTerminal(symbol)) {
+                    if (currentPos < input.length && input[currentPos] == symbol) {
+                        currentPos++;
+                    } else {
+                        return -1;
+                    }
+                } else {
+                    currentPos = parseRecursive(symbol, currentPos);
+                    if (currentPos < 0) {
+                        return -1;
+                    }
+                }
+            }
+
+            return currentPos;
         }
+    }
 
-        String symbol = node.getSymbol();
+    /**
+     * Estado de un análisis packrat. La memoria guarda, por posición y no terminal, el
+     * resultado del análisis; las filas viven en un buffer circular de memoWindow
+     * posiciones y se reutilizan (descartando su contenido) al llegar a posiciones nuevas.
+     * <p>
+     * Un no terminal en curso en una posición deja una semilla (inicialmente un fallo)
+     * que reciben las llamadas recursivas por la izquierda; si se usa, el análisis se
+     * repite con la semilla mejorada mientras avance más en la entrada. Los resultados
+     * que dependen de la semilla de un antecesor no se memorizan.
+     */
+    private class Packrat {
+        private final int[] input;
+        private final Result[][] rows;
+        private final int[] rowPosition;
+        private final long maxSteps;
+        private final int[] activePosition;
+        private final int[] activeDepth;
+        private final Result[] activeSeed;
+        private final boolean[] seedUsed;
+        private int depth;
+        private int dependsOn = Integer.MAX_VALUE;
+        private long steps;
+        private long lookups;
+        private long hits;
 
-        if (grammar.isTerminal(symbol)) {
-            return position < input.size() && input.get(position).equals(symbol);
+        Packrat(int[] input) {
+            this.input = input;
+            int count = compiled.getNonTerminalCount();
+            this.rows = new Result[Math.min(memoWindow, input.length + 1)][];
+            this.rowPosition = new int[rows.length];
+            Arrays.fill(rowPosition, -1);
+            this.maxSteps = (long) MAX_STEPS * (input.length + 1);
+            this.activePosition = new int[count];
+            Arrays.fill(activePosition, -1);
+            this.activeDepth = new int[count];
+            this.activeSeed = new Result[count];
+            this.seedUsed = new boolean[count];
         }
 
-        for (Production prod : grammar.getProductionsFor(symbol)) {
-            if (tryProduction(node, prod, input, position)) {
-                return true;
+        /**
+         * Analiza desde el símbolo inicial; null si la entrada no se deriva completa
+         */
+        Result run() {
+            Result root = apply(compiled.getStartSymbol(), 0);
+            return root.end == input.length ? root : null;
+        }
+
+        private Result[] row(int position) {
+            int slot = position % rows.length;
+            if (rowPosition[slot] != position) {
+                if (rows[slot] == null) {
+                    rows[slot] = new Result[compiled.getNonTerminalCount()];
+                } else {
+                    Arrays.fill(rows[slot], null);
+                }
+                rowPosition[slot] = position;
             }
+            return rows[slot];
         }
 
-        return false;
-    }
+        private Result apply(int symbol, int position) {
+            int id = symbol - compiled.getTerminalCount();
+
+            // Las posiciones crecen a lo largo de la pila de llamadas, así que basta
+            // comparar con la última activación del no terminal
+            if (activePosition[id] == position) {
+                seedUsed[id] = true;
+                dependsOn = Math.min(dependsOn, activeDepth[id]);
+                return activeSeed[id];
+            }
+
+            lookups++;
+            Result memo = row(position)[id];
+            if (memo != null) {
+                hits++;
+                return memo;
+            }
+            if (++steps > maxSteps) {
+                return Result.FAILED;
+            }
+
+            int savedPosition = activePosition[id];
+            int savedDepth = activeDepth[id];
+            Result savedSeed = activeSeed[id];
+            boolean savedUsed = seedUsed[id];
+            int outerDependsOn = dependsOn;
+            int ancestors = Integer.MAX_VALUE;
 
-    private boolean tryProduction(DerivationTree.TreeNode node, Production production,
-                                  List<String> input, int position) {
-        if (production.isEpsilonProduction()) {
-            if (position == 0 && !input.isEmpty()) {
-                return false;
+            depth++;
+            activePosition[id] = position;
+            activeDepth[id] = depth;
+            Result seed = Result.FAILED;
+            Result result;
+            while (true) {
+                activeSeed[id] = seed;
+                seedUsed[id] = false;
+                dependsOn = Integer.MAX_VALUE;
+                Result attempt = evaluate(symbol, position);
+                if (dependsOn < depth) {
+                    ancestors = Math.min(ancestors, dependsOn);
+                }
+                if (!seedUsed[id]) {
+                    result = attempt;
+                    break;
+                }
+                if (attempt.end <= seed.end) {
+                    result = seed;
+                    break;
+                }
+                seed = attempt;
             }
-            node.setUsedProduction(production);
-            node.addChild(new DerivationTree.TreeNode("ε"));
-            return true;
+            depth--;
+            activePosition[id] = savedPosition;
+            activeDepth[id] = savedDepth;
+            activeSeed[id] = savedSeed;
+            seedUsed[id] = savedUsed;
+
+            if (ancestors == Integer.MAX_VALUE) {
+                row(position)[id] = result;
+            }
+            dependsOn = Math.min(outerDependsOn, ancestors);
+            return result;
         }
 
-        List<DerivationTree.TreeNode> children = createChildren(production);
-        int currentPos = position;
-        List<DerivationTree.TreeNode> successfulChildren = new ArrayList<>();
+        private Result evaluate(int symbol, int position) {
+            int epsilon = -1;
+            for (int id = compiled.firstProduction(symbol); id < compiled.endProduction(symbol); id++) {
+                int length = compiled.rightLength(id);
+                if (length == 0) {
+                    if (epsilon < 0) {
+                        epsilon = id;
+                    }
+                    continue;
+                }
 
-        for (DerivationTree.TreeNode child : children) {
-            if (grammar.isTerminal(child.getSymbol())) {
-                if (currentPos < input.size() && input.get(currentPos).equals(child.getSymbol())) {
-                    successfulChildren.add(child);
-                    currentPos++;
-                } else {
-                    return false;
+                List<Result> children = new ArrayList<>();
+                int currentPos = position;
+                for (int k = 0; k < length; k++) {
+                    int rightSymbol = compiled.rightSymbol(id, k);
+                    if (compiled.isTerminal(rightSymbol)) {
+                        if (currentPos < input.length && input[currentPos] == rightSymbol) {
+                            currentPos++;
+                            continue;
+                        }
+                        currentPos = -1;
+                        break;
+                    }
+                    Result child = apply(rightSymbol, currentPos);
+                    if (child.end < 0) {
+                        currentPos = -1;
+                        break;
+                    }
+                    children.add(child);
+                    currentPos = child.end;
                 }
-            } else {
-                if (parseRecursive(child, input, currentPos)) {
-                    successfulChildren.add(child);
-                    currentPos += countConsumedSymbols(child);
-                } else {
-                    return false;
+
+                if (currentPos >= 0) {
+                    return new Result(currentPos, id, children.toArray(Result.NO_CHILDREN));
                 }
             }
+            return epsilon >= 0 ? new Result(position, epsilon, Result.NO_CHILDREN) : Result.FAILED;
         }
 
-        node.setUsedProduction(production);
-        for (DerivationTree.TreeNode child : successfulChildren) {
-            node.addChild(child);
+        /**
+         * Producciones de la derivación por la izquierda, en preorden
+         */
+        int[] trace(Result root) {
+            Trace trace = new Trace();
+            List<Result> stack = new ArrayList<>();
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                Result result = stack.remove(stack.size() - 1);
+                trace.add(result.production);
+                for (int k = result.children.length - 1; k >= 0; k--) {
+                    stack.add(result.children[k]);
+                }
+            }
+            return trace.toArray();
         }
-        return true;
     }
 
-    private List<DerivationTree.TreeNode> createChildren(Production production) {
-        List<DerivationTree.TreeNode> children = new ArrayList<>();
-        for (String s : production.getRightSymbols()) {
-            children.add(new DerivationTree.TreeNode(s));
+    /**
+     * Resultado memorizado: posición final (-1 si falla), producción elegida y
+     * resultados de los no terminales del lado derecho
+     */
+    private static class Result {
+        static final Result[] NO_CHILDREN = new Result[0];
+        static final Result FAILED = new Result(-1, -1, NO_CHILDREN);
+
+        final int end;
+        final int production;
+        final Result[] children;
+
+        Result(int end, int production, Result[] children) {
+            this.end = end;
+            this.production = production;
+            this.children = children;
         }
-        return children;
     }
 
-    private int countConsumedSymbols(DerivationTree.TreeNode node) {
-        if (node.getSymbol().equals("ε")) {
-            return 0;
+    /**
+     * Secuencia compacta de índices de producción aplicados
+     */
+    private static class Trace {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
         }
 
-        if (node.isLeaf()) {
-            return grammar.isTerminal(node.getSymbol()) ? 1 : 0;
+        int size() {
+            return size;
         }
 
-        int count = 0;
-        for (DerivationTree.TreeNode child : node.getChildren()) {
-            count += countConsumedSymbols(child);
+        void truncate(int newSize) {
+            size = newSize;
         }
-        return count;
-    }
 
-    private ParseResult parseEpsilon() {
-        for (Production prod : grammar.getProductionsFor(grammar.getStartSymbol())) {
-            if (prod.isEpsilonProduction()) {
-                DerivationTree tree = new DerivationTree(grammar.getStartSymbol());
-                tree.getRoot().setUsedProduction(prod);
-                tree.getRoot().addChild(new DerivationTree.TreeNode("ε"));
-                return new ParseResult(true, tree, "Cadena vacía aceptada");
-            }
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
         }
-        return new ParseResult(false, null, "Cadena vacía no aceptada");
     }
-}
\ No newline at end of file
+}
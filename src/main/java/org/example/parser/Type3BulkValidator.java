@@ -0,0 +1,295 @@
+package org.example.parser;
+
+import org.example.automaton.RegularAutomaton;
+import org.example.automaton.RegularEngine;
+import org.example.automaton.Tokenizer;
+import org.example.model.Grammar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Validación masiva de archivos de líneas contra una gramática Tipo 3. El archivo se
+ * proyecta en memoria por regiones que terminan en fin de línea, y cada región se
+ * recorre en paralelo con el autómata directamente sobre los bytes (UTF-8), sin crear
+ * cadenas ni árboles por línea.
+ */
+public class Type3BulkValidator {
+
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+    private static final int DEFAULT_MAX_REPORTED = 1000;
+
+    private final RegularEngine engine;
+    private final Tokenizer tokenizer;
+    private final int threads;
+    private final int maxReported;
+
+    public Type3BulkValidator(Grammar grammar) {
+        this(grammar, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_REPORTED);
+    }
+
+    /**
+     * @param threads     número de hilos de validación
+     * @param maxReported máximo de posiciones de líneas rechazadas a conservar
+     */
+    public Type3BulkValidator(Grammar grammar, int threads, int maxReported) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un hilo");
+        }
+        RegularAutomaton automaton = RegularAutomaton.of(grammar);
+        this.engine = automaton.getEngine();
+        this.tokenizer = automaton.getByteTokenizer();
+        this.threads = threads;
+        this.maxReported = maxReported;
+    }
+
+    /**
+     * Resultado de la validación: conteos y posiciones (en bytes) del inicio de las
+     * líneas rechazadas, en orden de aparición
+     */
+    public static class BulkResult {
+        private final long accepted;
+        private final long rejected;
+        private final long[] rejectedOffsets;
+
+        public BulkResult(long accepted, long rejected, long[] rejectedOffsets) {
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.rejectedOffsets = rejectedOffsets;
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long[] getRejectedOffsets() {
+            return rejectedOffsets.clone();
+        }
+
+        /**
+         * Indica si hubo más líneas rechazadas que posiciones conservadas
+         */
+        public boolean isTruncated() {
+            return rejectedOffsets.length < rejected;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Líneas aceptadas: %d, rechazadas: %d", accepted, rejected);
+        }
+    }
+
+    /**
+     * Valida cada línea del archivo ('\n' o '\r\n' como separador)
+     */
+    public BulkResult validate(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLines(channel);
+            int chunks = bounds.length - 1;
+
+            if (chunks == 1 || threads == 1) {
+                ChunkResult total = new ChunkResult(maxReported);
+                for (int i = 0; i < chunks; i++) {
+                    validateChunk(channel, bounds[i], bounds[i + 1], total);
+                }
+                return total.toBulkResult();
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, chunks));
+            try {
+                List<Future<ChunkResult>> futures = new ArrayList<>();
+                for (int i = 0; i < chunks; i++) {
+                    long start = bounds[i];
+                    long end = bounds[i + 1];
+                    futures.add(executor.submit(() -> {
+                        ChunkResult partial = new ChunkResult(maxReported);
+                        validateChunk(channel, start, end, partial);
+                        return partial;
+                    }));
+                }
+
+                ChunkResult total = new ChunkResult(maxReported);
+                for (Future<ChunkResult> future : futures) {
+                    total.merge(future.get());
+                }
+                return total.toBulkResult();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Validación interrumpida", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Error validando el archivo", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Calcula los límites de las regiones: cada una termina justo después de un '\n'
+     * (o en el fin del archivo) y ninguna supera el tamaño máximo proyectable
+     */
+    private long[] splitAtLines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = Math.max(MIN_CHUNK_SIZE, size / (threads * 4L));
+        target = Math.min(target, MAX_CHUNK_SIZE);
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = 0;
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+
+        while (position < size) {
+            long end = Math.min(size, position + target);
+            if (end < size) {
+                end = nextLineStart(channel, end, size, probe);
+                if (end - position > Integer.MAX_VALUE) {
+                    throw new IOException("Línea demasiado larga cerca de la posición " + position);
+                }
+            }
+            bounds.add(end);
+            position = end;
+        }
+
+        if (bounds.size() == 1) {
+            bounds.add(0L);
+        }
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private void validateChunk(FileChannel channel, long start, long end, ChunkResult result) throws IOException {
+        int length = (int) (end - start);
+        if (length == 0) {
+            return;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        RegularEngine.Run run = engine.newRun();
+
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && buffer.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+
+            if (acceptsLine(buffer, lineStart, contentEnd, run)) {
+                result.accepted++;
+            } else {
+                result.reject(start + lineStart);
+            }
+
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private boolean acceptsLine(ByteBuffer buffer, int from, int to, RegularEngine.Run run) {
+        run.reset();
+        int position = from;
+
+        while (position < to) {
+            // Coincidencia más larga desde la posición actual
+            int node = tokenizer.root();
+            int symbol = Tokenizer.NONE;
+            int matchEnd = position;
+            for (int i = position; i < to; i++) {
+                node = tokenizer.step(node, buffer.get(i));
+                if (node == Tokenizer.NONE) {
+                    break;
+                }
+                if (tokenizer.symbolAt(node) != Tokenizer.NONE) {
+                    symbol = tokenizer.symbolAt(node);
+                    matchEnd = i + 1;
+                }
+            }
+
+            if (symbol == Tokenizer.NONE || !run.step(symbol)) {
+                return false;
+            }
+            position = matchEnd;
+        }
+
+        return run.isAccepting();
+    }
+
+    /**
+     * Acumulador de una región; las posiciones rechazadas quedan en orden creciente
+     */
+    private static class ChunkResult {
+        final int maxReported;
+        long accepted;
+        long rejected;
+        long[] offsets = new long[16];
+        int offsetCount;
+
+        ChunkResult(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        void reject(long offset) {
+            rejected++;
+            if (offsetCount < maxReported) {
+                if (offsetCount == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, Math.min(maxReported, offsetCount * 2));
+                }
+                offsets[offsetCount++] = offset;
+            }
+        }
+
+        void merge(ChunkResult other) {
+            accepted += other.accepted;
+            for (int i = 0; i < other.offsetCount; i++) {
+                reject(other.offsets[i]);
+            }
+            rejected += other.rejected - other.offsetCount;
+        }
+
+        BulkResult toBulkResult() {
+            return new BulkResult(accepted, rejected, Arrays.copyOf(offsets, offsetCount));
+        }
+    }
+}
@@ -1,155 +1,164 @@
 package org.example.parser;
 
+import org.example.automaton.NFA;
+import org.example.automaton.RegularAutomaton;
+import org.example.automaton.RegularEngine;
+import org.example.automaton.Tokenizer;
+import org.example.model.CompiledGrammar;
 import org.example.model.DerivationTree;
 import org.example.model.Grammar;
 import org.example.model.Production;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 
 public class Type3Parser implements Parser {
 
-    private Grammar grammar;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final CompiledGrammar compiled;
+    private final RegularAutomaton automaton;
+    private final NFA nfa;
+    private final RegularEngine engine;
 
     public Type3Parser(Grammar grammar) {
-        this.grammar = grammar;
-        validateType3();
+        this(grammar, RegularAutomaton.Mode.AUTO);
     }
 
-    private void validateType3() {
-        for (Production prod : grammar.getProductions()) {
-            List<String> right = prod.getRightSymbols();
-
-            if (prod.isEpsilonProduction()) {
-                continue;
-            }
-
-            if (right.size() > 2) {
-                throw new IllegalArgumentException(
-                        "Producción no es Tipo 3: " + prod + " (tiene más de 2 símbolos)");
-            }
-
-            if (!grammar.isTerminal(right.get(0))) {
-                throw new IllegalArgumentException(
-                        "Producción no es Tipo 3: " + prod + " (debe comenzar con terminal)");
-            }
+    /**
+     * @param mode motor de reconocimiento (AFD mínimo, simulación con bits o automático)
+     */
+    public Type3Parser(Grammar grammar, RegularAutomaton.Mode mode) {
+        this(grammar, RegularAutomaton.of(grammar, mode));
+    }
 
-            if (right.size() == 2 && !grammar.isNonTerminal(right.get(1))) {
-                throw new IllegalArgumentException(
-                        "Producción no es Tipo 3: " + prod + " (segundo símbolo debe ser no terminal)");
-            }
-        }
+    /**
+     * @param automaton autómata ya compilado de la gramática; el parser sólo usa su forma
+     *                  compilada, así que editar después la gramática no le afecta
+     */
+    public Type3Parser(Grammar grammar, RegularAutomaton automaton) {
+        this.compiled = automaton.getCompiledGrammar();
+        this.automaton = automaton;
+        this.nfa = automaton.getNfa();
+        this.engine = automaton.getEngine();
     }
 
     @Override
     public ParseResult parse(String input) {
-        if (input.isEmpty() || input.equals("ε")) {
+        if (Tokenizer.isEmptyInput(input)) {
             return parseEpsilon();
         }
 
-        List<String> inputSymbols = tokenize(input);
-        DerivationTree tree = new DerivationTree(grammar.getStartSymbol());
+        int[] inputSymbols = automaton.tokenize(input);
 
-        if (parseIterative(tree.getRoot(), inputSymbols)) {
-            return new ParseResult(true, tree,
-                    "Cadena aceptada (Parser Tipo 3 - " + inputSymbols.size() + " símbolos procesados)");
+        if (inputSymbols != null && engine.accepts(inputSymbols)) {
+            // El árbol se reconstruye desde el AFN sólo si se solicita
+            return ParseResult.withLazyTree(true,
+                    () -> DerivationTree.fromTrace(compiled, nfa.acceptingPath(inputSymbols)),
+                    "Cadena aceptada (Parser Tipo 3 - " + inputSymbols.length + " símbolos procesados)");
         }
 
         return new ParseResult(false, null, "Cadena rechazada por gramática regular");
     }
 
-    private boolean parseIterative(DerivationTree.TreeNode root, List<String> input) {
-        String currentState = grammar.getStartSymbol();
-        DerivationTree.TreeNode currentNode = root;
-        int position = 0;
-
-        while (position < input.size()) {
-            String currentSymbol = input.get(position);
-            Production usedProduction = findProduction(currentState, currentSymbol);
-
-            if (usedProduction == null) {
-                return false;
-            }
-
-            List<String> right = usedProduction.getRightSymbols();
-            String nextState = (right.size() == 2) ? right.get(1) : null;
-
-            currentNode.setUsedProduction(usedProduction);
-            currentNode.addChild(new DerivationTree.TreeNode(currentSymbol));
-
-            if (nextState != null) {
-                DerivationTree.TreeNode nextNode = new DerivationTree.TreeNode(nextState);
-                currentNode.addChild(nextNode);
-                currentNode = nextNode;
-                currentState = nextState;
-            } else {
-                position++;
-                return position == input.size();
-            }
-
-            position++;
+    @Override
+    public boolean recognize(String input) {
+        if (Tokenizer.isEmptyInput(input)) {
+            return automaton.acceptsEmpty();
         }
+        return automaton.accepts(input);
+    }
 
-        for (Production prod : grammar.getProductionsFor(currentState)) {
-            if (prod.isEpsilonProduction()) {
-                currentNode.setUsedProduction(prod);
-                currentNode.addChild(new DerivationTree.TreeNode("ε"));
-                return true;
+    /**
+     * Reconoce una entrada leída por fragmentos con memoria constante.
+     * No construye árbol de derivación; la lectura se detiene en cuanto la entrada es rechazada.
+     */
+    public ParseResult parse(Reader reader) throws IOException {
+        Type3Recognizer recognizer = new Type3Recognizer(automaton);
+        char[] buffer = new char[STREAM_BUFFER_SIZE];
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            if (!recognizer.feed(buffer, 0, read)) {
+                return streamRejected(recognizer);
             }
         }
 
-        return false;
+        return streamResult(recognizer);
     }
 
-    private Production findProduction(String currentState, String symbol) {
-        for (Production prod : grammar.getProductionsFor(currentState)) {
-            if (prod.isEpsilonProduction()) {
-                continue;
+    /**
+     * Reconoce el contenido de un canal codificado en UTF-8
+     */
+    public ParseResult parse(ReadableByteChannel channel) throws IOException {
+        return parse(channel, StandardCharsets.UTF_8);
+    }
+
+    public ParseResult parse(ReadableByteChannel channel, Charset charset) throws IOException {
+        Type3Recognizer recognizer = new Type3Recognizer(automaton);
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer bytes = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(STREAM_BUFFER_SIZE);
+        boolean endOfInput = false;
+
+        while (!endOfInput) {
+            endOfInput = channel.read(bytes) == -1;
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
             }
+            bytes.compact();
 
-            List<String> right = prod.getRightSymbols();
-            if (right.get(0).equals(symbol)) {
-                return prod;
+            chars.flip();
+            boolean alive = recognizer.feed(chars);
+            chars.clear();
+            if (!alive) {
+                return streamRejected(recognizer);
             }
         }
-        return null;
-    }
-
-    private List<String> tokenize(String input) {
-        List<String> symbols = new ArrayList<>();
-        int i = 0;
 
-        while (i < input.length()) {
-            boolean matched = false;
+        decoder.flush(chars);
+        chars.flip();
+        if (!recognizer.feed(chars)) {
+            return streamRejected(recognizer);
+        }
 
-            for (String terminal : grammar.getTerminals()) {
-                if (input.startsWith(terminal, i)) {
-                    symbols.add(terminal);
-                    i += terminal.length();
-                    matched = true;
-                    break;
-                }
-            }
+        return streamResult(recognizer);
+    }
 
-            if (!matched) {
-                symbols.add(String.valueOf(input.charAt(i)));
-                i++;
-            }
+    private ParseResult streamResult(Type3Recognizer recognizer) {
+        if (recognizer.isAccepting()) {
+            return new ParseResult(true, null,
+                    "Cadena aceptada (Parser Tipo 3 - " + recognizer.getPosition() + " caracteres leídos en flujo)");
         }
+        return new ParseResult(false, null, "Cadena rechazada por gramática regular");
+    }
 
-        return symbols;
+    private ParseResult streamRejected(Type3Recognizer recognizer) {
+        return new ParseResult(false, null,
+                "Cadena rechazada por gramática regular (en el carácter " + recognizer.getPosition() + ")");
     }
 
     private ParseResult parseEpsilon() {
-        for (Production prod : grammar.getProductionsFor(grammar.getStartSymbol())) {
-            if (prod.isEpsilonProduction()) {
-                DerivationTree tree = new DerivationTree(grammar.getStartSymbol());
-                tree.getRoot().setUsedProduction(prod);
-                tree.getRoot().addChild(new DerivationTree.TreeNode("ε"));
-                return new ParseResult(true, tree, "Cadena vacía aceptada (Parser Tipo 3)");
-            }
+        Production prod = nfa.getEpsilonProduction(nfa.getStartState());
+        if (prod != null) {
+            DerivationTree tree = new DerivationTree(compiled.nameOf(compiled.getStartSymbol()));
+            tree.getRoot().setUsedProduction(prod);
+            tree.getRoot().addChild(new DerivationTree.TreeNode("ε"));
+            return new ParseResult(true, tree, "Cadena vacía aceptada (Parser Tipo 3)");
         }
 
         return new ParseResult(false, null, "Cadena vacía no aceptada");
     }
-}
\ No newline at end of file
+}
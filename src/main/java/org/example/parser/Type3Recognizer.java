@@ -0,0 +1,220 @@
+package org.example.parser;
+
+import org.example.automaton.RegularAutomaton;
+import org.example.automaton.RegularEngine;
+import org.example.automaton.Tokenizer;
+import org.example.model.Grammar;
+
+import java.nio.CharBuffer;
+
+/**
+ * Reconocedor incremental para gramáticas Tipo 3. La entrada se entrega por fragmentos
+ * y sólo se conserva el estado del autómata más el terminal en curso, de modo que la
+ * memoria es constante. El rechazo es inmediato en cuanto el autómata queda en el estado muerto.
+ * Guarda el estado de una única entrada, así que no debe compartirse entre hilos; el
+ * autómata subyacente sí, y cada hilo puede crear su propio reconocedor.
+ */
+public class Type3Recognizer {
+
+    private final Tokenizer tokenizer;
+    private final RegularEngine.Run run;
+    private final RegularEngine.Run savedRun;
+
+    // Terminal en curso: caracteres leídos desde su inicio y la coincidencia más larga hasta ahora
+    private final char[] token;
+    private int tokenLength;
+    private int node;
+    private int matchLength;
+    private int matchSymbol;
+
+    private long position;
+    private boolean rejected; // ningún terminal encaja en la entrada
+
+    // Área de trabajo para volver a procesar los caracteres sobrantes de un terminal
+    private char[] work;
+    private char[] spare;
+    private final char[] leftover;
+    private final char[] saved;
+
+    public Type3Recognizer(Grammar grammar) {
+        this(RegularAutomaton.of(grammar));
+    }
+
+    public Type3Recognizer(RegularAutomaton automaton) {
+        this.tokenizer = automaton.getTokenizer();
+        this.run = automaton.getEngine().newRun();
+        this.savedRun = automaton.getEngine().newRun();
+        int capacity = tokenizer.getMaxLength() + 1;
+        this.token = new char[capacity];
+        this.work = new char[capacity];
+        this.spare = new char[capacity];
+        this.leftover = new char[capacity];
+        this.saved = new char[capacity];
+        restart();
+    }
+
+    /**
+     * Vuelve al estado inicial para reconocer una nueva entrada
+     */
+    public void reset() {
+        restart();
+    }
+
+    private void restart() {
+        run.reset();
+        position = 0;
+        rejected = false;
+        clearToken();
+    }
+
+    public boolean feed(char c) {
+        if (!isDead()) {
+            position++;
+            consume(c);
+        }
+        return !isDead();
+    }
+
+    /**
+     * Procesa un fragmento de la entrada; devuelve false si ya no puede ser aceptada
+     */
+    public boolean feed(char[] chars, int offset, int length) {
+        for (int i = offset; i < offset + length && !isDead(); i++) {
+            position++;
+            consume(chars[i]);
+        }
+        return !isDead();
+    }
+
+    public boolean feed(char[] chars) {
+        return feed(chars, 0, chars.length);
+    }
+
+    /**
+     * Procesa los caracteres restantes del buffer, dejándolo consumido
+     */
+    public boolean feed(CharBuffer buffer) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset() + buffer.position();
+            int length = buffer.remaining();
+            buffer.position(buffer.limit());
+            return feed(buffer.array(), offset, length);
+        }
+        while (buffer.hasRemaining() && !isDead()) {
+            position++;
+            consume(buffer.get());
+        }
+        return !isDead();
+    }
+
+    /**
+     * Indica si lo leído hasta ahora pertenece al lenguaje
+     */
+    public boolean isAccepting() {
+        if (isDead()) {
+            return false;
+        }
+        if (tokenLength == 0) {
+            return run.isAccepting();
+        }
+
+        // Cerrar el terminal en curso sobre una copia para no alterar el estado
+        savedRun.copyFrom(run);
+        int savedLength = tokenLength;
+        int savedNode = node;
+        int savedMatchLength = matchLength;
+        int savedMatchSymbol = matchSymbol;
+        System.arraycopy(token, 0, saved, 0, tokenLength);
+
+        flush();
+        boolean accepting = !isDead() && run.isAccepting();
+
+        run.copyFrom(savedRun);
+        rejected = false;
+        tokenLength = savedLength;
+        node = savedNode;
+        matchLength = savedMatchLength;
+        matchSymbol = savedMatchSymbol;
+        System.arraycopy(saved, 0, token, 0, tokenLength);
+        return accepting;
+    }
+
+    /**
+     * Indica si la entrada ya fue rechazada, sin importar lo que llegue después
+     */
+    public boolean isDead() {
+        return rejected || run.isDead();
+    }
+
+    /**
+     * Número de caracteres procesados; tras un rechazo, posición del carácter que lo provocó
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    private void consume(char c) {
+        int workLength = 1;
+        int workPos = 0;
+        work[0] = c;
+
+        while (workPos < workLength) {
+            char ch = work[workPos++];
+            int child = tokenizer.step(node, ch);
+
+            if (child != Tokenizer.NONE) {
+                node = child;
+                token[tokenLength++] = ch;
+                if (tokenizer.symbolAt(child) != Tokenizer.NONE) {
+                    matchSymbol = tokenizer.symbolAt(child);
+                    matchLength = tokenLength;
+                }
+                continue;
+            }
+
+            if (matchLength == 0 || !run.step(matchSymbol)) {
+                rejected = true;
+                return;
+            }
+
+            // Sobrante del terminal + carácter actual + lo que quedaba por procesar
+            int length = 0;
+            for (int i = matchLength; i < tokenLength; i++) {
+                spare[length++] = token[i];
+            }
+            spare[length++] = ch;
+            for (int i = workPos; i < workLength; i++) {
+                spare[length++] = work[i];
+            }
+            char[] swap = work;
+            work = spare;
+            spare = swap;
+            workLength = length;
+            workPos = 0;
+            clearToken();
+        }
+    }
+
+    private void flush() {
+        while (tokenLength > 0 && !isDead()) {
+            if (matchLength == 0 || !run.step(matchSymbol)) {
+                rejected = true;
+                return;
+            }
+
+            int length = tokenLength - matchLength;
+            System.arraycopy(token, matchLength, leftover, 0, length);
+            clearToken();
+            for (int i = 0; i < length && !isDead(); i++) {
+                consume(leftover[i]);
+            }
+        }
+    }
+
+    private void clearToken() {
+        tokenLength = 0;
+        node = tokenizer.root();
+        matchLength = 0;
+        matchSymbol = Tokenizer.NONE;
+    }
+}
@@ -0,0 +1,614 @@
+package org.example.persistence;
+
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Formato textual BNF/EBNF de gramáticas:
+ * <pre>
+ * Expr   ::= Term ( ("+" | "-") Term )* ;
+ * Term   ::= Factor+ ;
+ * Factor ::= "id" | "(" Expr ")" | &lt;número&gt;? ;
+ * </pre>
+ * Los terminales van entre comillas (simples o dobles) y se toman enteros, sin la
+ * separación por caracteres de Production; los nombres sin comillas (o entre &lt; &gt; si
+ * tienen otros caracteres) son no terminales si tienen alguna regla y terminales si no.
+ * Las reglas usan ::=, -&gt; o →, alternativas con |, ε (o epsilon o una alternativa
+ * vacía) y terminan en ; o al empezar la siguiente. Los comentarios van de // a fin de
+ * línea. El símbolo inicial es el de la primera regla.
+ * <p>
+ * La lectura es de una sola pasada: las construcciones EBNF se traducen sobre la marcha
+ * a no terminales nuevos (X* a F → X F | ε, X+ a X seguido de X*, X? a F → X | ε y los
+ * grupos a F → alternativas); sus nombres se eligen al final para no chocar con ninguno
+ * del archivo.
+ */
+class BnfFormat {
+
+    private BnfFormat() {
+    }
+
+    // --- Lectura ---
+
+    /**
+     * @param type tipo de la gramática, o null para deducirlo (Tipo 3 si todas las
+     *             producciones son lineales por la derecha)
+     */
+    static Grammar read(Reader reader, Grammar.GrammarType type) throws IOException {
+        return new Parser(new Lexer(reader)).parse(type);
+    }
+
+    private enum Kind {
+        NAME, TERMINAL, EPSILON, DEFINE, BAR, SEMICOLON, LPAREN, RPAREN, STAR, PLUS, QUESTION, END
+    }
+
+    private static class Token {
+        final Kind kind;
+        final String text;
+        final int line;
+        final int column;
+
+        Token(Kind kind, String text, int line, int column) {
+            this.kind = kind;
+            this.text = text;
+            this.line = line;
+            this.column = column;
+        }
+
+        String describe() {
+            return kind == Kind.END ? "el fin del archivo" : "'" + text + "'";
+        }
+    }
+
+    /**
+     * Analizador léxico incremental con dos símbolos de anticipación
+     */
+    private static class Lexer {
+        private static final int EOF = -1;
+
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder text = new StringBuilder();
+        private final Deque<Token> lookahead = new ArrayDeque<>();
+        private int length;
+        private int index;
+        private int line = 1;
+        private int column = 1;
+
+        Lexer(Reader in) {
+            this.in = in;
+        }
+
+        Token peek() throws IOException {
+            if (lookahead.isEmpty()) {
+                lookahead.add(scan());
+            }
+            return lookahead.peekFirst();
+        }
+
+        Token peekSecond() throws IOException {
+            Token first = peek();
+            if (lookahead.size() == 1) {
+                if (first.kind == Kind.END) {
+                    return first;
+                }
+                lookahead.add(scan());
+            }
+            return lookahead.peekLast();
+        }
+
+        Token next() throws IOException {
+            Token token = peek();
+            lookahead.pollFirst();
+            return token;
+        }
+
+        private int peekChar() throws IOException {
+            if (index == length) {
+                length = in.read(buffer);
+                index = 0;
+                if (length <= 0) {
+                    length = 0;
+                    return EOF;
+                }
+            }
+            return buffer[index];
+        }
+
+        private int nextChar() throws IOException {
+            int c = peekChar();
+            if (c == EOF) {
+                return EOF;
+            }
+            index++;
+            if (c == '\n') {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+            return c;
+        }
+
+        private Token scan() throws IOException {
+            int c = skipBlanks();
+            int startLine = line;
+            int startColumn = column;
+            if (c == EOF) {
+                return new Token(Kind.END, "", startLine, startColumn);
+            }
+
+            if (isNameChar(c)) {
+                text.setLength(0);
+                while (isNameChar(peekChar())) {
+                    text.append((char) nextChar());
+                }
+                String name = text.toString();
+                Kind kind = name.equals("epsilon") ? Kind.EPSILON : Kind.NAME;
+                return new Token(kind, name, startLine, startColumn);
+            }
+
+            nextChar();
+            switch (c) {
+                case '"':
+                case '\'':
+                    return new Token(Kind.TERMINAL, quoted((char) c, startLine, startColumn), startLine, startColumn);
+                case '<':
+                    return new Token(Kind.NAME, quoted('>', startLine, startColumn), startLine, startColumn);
+                case 'ε':
+                    return new Token(Kind.EPSILON, "ε", startLine, startColumn);
+                case '→':
+                    return new Token(Kind.DEFINE, "→", startLine, startColumn);
+                case '|':
+                    return new Token(Kind.BAR, "|", startLine, startColumn);
+                case ';':
+                    return new Token(Kind.SEMICOLON, ";", startLine, startColumn);
+                case '(':
+                    return new Token(Kind.LPAREN, "(", startLine, startColumn);
+                case ')':
+                    return new Token(Kind.RPAREN, ")", startLine, startColumn);
+                case '*':
+                    return new Token(Kind.STAR, "*", startLine, startColumn);
+                case '+':
+                    return new Token(Kind.PLUS, "+", startLine, startColumn);
+                case '?':
+                    return new Token(Kind.QUESTION, "?", startLine, startColumn);
+                case '-':
+                    if (peekChar() == '>') {
+                        nextChar();
+                        return new Token(Kind.DEFINE, "->", startLine, startColumn);
+                    }
+                    break;
+                case ':':
+                    if (peekChar() == ':') {
+                        nextChar();
+                        if (peekChar() == '=') {
+                            nextChar();
+                            return new Token(Kind.DEFINE, "::=", startLine, startColumn);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+            throw new GrammarPersistence.FormatException("carácter inesperado '" + (char) c + "'", startLine, startColumn);
+        }
+
+        /**
+         * Salta espacios y comentarios; devuelve el siguiente carácter sin consumirlo
+         */
+        private int skipBlanks() throws IOException {
+            while (true) {
+                int c = peekChar();
+                if (c != EOF && Character.isWhitespace(c)) {
+                    nextChar();
+                } else if (c == '/') {
+                    int startLine = line;
+                    int startColumn = column;
+                    nextChar();
+                    if (peekChar() != '/') {
+                        throw new GrammarPersistence.FormatException("carácter inesperado '/'", startLine, startColumn);
+                    }
+                    while (c != EOF && c != '\n') {
+                        c = nextChar();
+                    }
+                } else {
+                    return c;
+                }
+            }
+        }
+
+        /**
+         * Contenido hasta el delimitador de cierre, con \ para escapar el siguiente carácter
+         */
+        private String quoted(char close, int startLine, int startColumn) throws IOException {
+            text.setLength(0);
+            while (true) {
+                int c = nextChar();
+                if (c == EOF || c == '\n') {
+                    throw new GrammarPersistence.FormatException("falta el cierre " + close, startLine, startColumn);
+                }
+                if (c == close) {
+                    break;
+                }
+                if (c == '\\') {
+                    c = nextChar();
+                    if (c == EOF) {
+                        throw new GrammarPersistence.FormatException("falta el cierre " + close, startLine, startColumn);
+                    }
+                }
+                text.append((char) c);
+            }
+            String value = text.toString();
+            if (value.isEmpty() || value.chars().anyMatch(Character::isWhitespace)
+                    || value.equals("ε") || value.equals("epsilon")) {
+                throw new GrammarPersistence.FormatException("símbolo no válido: '" + value + "'", startLine, startColumn);
+            }
+            return value;
+        }
+
+        private static boolean isNameChar(int c) {
+            return c != EOF && c != 'ε' && (Character.isLetterOrDigit(c) || c == '_');
+        }
+    }
+
+    /**
+     * Analizador descendente de reglas. Los símbolos se numeran según aparecen; los no
+     * terminales nuevos no tienen nombre hasta el final.
+     */
+    private static class Parser {
+        private final Lexer lexer;
+        private final List<String> names = new ArrayList<>();      // null para los nuevos
+        private final List<String> bases = new ArrayList<>();      // base del nombre de los nuevos
+        private final List<Token> firstUse = new ArrayList<>();
+        private final Map<String, Integer> named = new HashMap<>();
+        private final Map<String, Integer> desugared = new HashMap<>(); // "X*" o "X?" ya traducidos
+        private final Set<Integer> defined = new LinkedHashSet<>();
+        private final List<Integer> lefts = new ArrayList<>();
+        private final List<int[]> rights = new ArrayList<>();
+        private final Set<Integer> order = new LinkedHashSet<>(); // no terminales en orden de aparición
+        private String rule;
+
+        Parser(Lexer lexer) {
+            this.lexer = lexer;
+        }
+
+        Grammar parse(Grammar.GrammarType type) throws IOException {
+            while (lexer.peek().kind != Kind.END) {
+                Token name = lexer.next();
+                if (name.kind != Kind.NAME) {
+                    throw error("se esperaba el nombre de una regla", name);
+                }
+                Token define = lexer.next();
+                if (define.kind != Kind.DEFINE) {
+                    throw error("se esperaba ::=, -> o →", define);
+                }
+                rule = name.text;
+                int left = symbol(name, false);
+                defined.add(left);
+                order.add(left);
+
+                List<List<Integer>> alternatives = alternatives();
+                for (List<Integer> alternative : alternatives) {
+                    add(left, alternative);
+                }
+                Token end = lexer.peek();
+                if (end.kind == Kind.SEMICOLON) {
+                    lexer.next();
+                } else if (end.kind != Kind.END && !startsRule()) {
+                    throw error("se esperaba ;", end);
+                }
+            }
+            if (lefts.isEmpty()) {
+                throw new GrammarPersistence.FormatException("el archivo no contiene reglas", lexer.line, lexer.column);
+            }
+            return build(type);
+        }
+
+        private boolean startsRule() throws IOException {
+            return lexer.peek().kind == Kind.NAME && lexer.peekSecond().kind == Kind.DEFINE;
+        }
+
+        private List<List<Integer>> alternatives() throws IOException {
+            List<List<Integer>> alternatives = new ArrayList<>();
+            alternatives.add(sequence());
+            while (lexer.peek().kind == Kind.BAR) {
+                lexer.next();
+                alternatives.add(sequence());
+            }
+            return alternatives;
+        }
+
+        private List<Integer> sequence() throws IOException {
+            List<Integer> sequence = new ArrayList<>();
+            while (true) {
+                Token token = lexer.peek();
+                if (token.kind == Kind.EPSILON) {
+                    lexer.next();
+                    continue;
+                }
+                if (token.kind == Kind.NAME) {
+                    if (startsRule()) {
+                        return sequence;
+                    }
+                } else if (token.kind != Kind.TERMINAL && token.kind != Kind.LPAREN) {
+                    return sequence;
+                }
+                item(sequence);
+            }
+        }
+
+        /**
+         * Un símbolo o grupo con sus sufijos *, + y ?, añadido al final de la secuencia
+         */
+        private void item(List<Integer> sequence) throws IOException {
+            Token token = lexer.next();
+            int symbol;
+            if (token.kind == Kind.LPAREN) {
+                List<List<Integer>> group = alternatives();
+                Token close = lexer.next();
+                if (close.kind != Kind.RPAREN) {
+                    throw error("se esperaba )", close);
+                }
+                if (group.size() == 1 && group.get(0).size() == 1) {
+                    symbol = group.get(0).get(0);
+                } else {
+                    if (group.size() == 1 && !isSuffix(lexer.peek().kind)) {
+                        sequence.addAll(group.get(0));
+                        return;
+                    }
+                    symbol = fresh("grp");
+                    for (List<Integer> alternative : group) {
+                        add(symbol, alternative);
+                    }
+                }
+            } else {
+                symbol = symbol(token, token.kind == Kind.TERMINAL);
+            }
+
+            while (isSuffix(lexer.peek().kind)) {
+                Kind suffix = lexer.next().kind;
+                if (suffix == Kind.STAR) {
+                    symbol = star(symbol);
+                } else if (suffix == Kind.QUESTION) {
+                    symbol = optional(symbol);
+                } else {
+                    // X+ = X X*; si le siguen más sufijos, la pareja se agrupa
+                    int repeat = star(symbol);
+                    if (!isSuffix(lexer.peek().kind)) {
+                        sequence.add(symbol);
+                        sequence.add(repeat);
+                        return;
+                    }
+                    int group = fresh("grp");
+                    add(group, List.of(symbol, repeat));
+                    symbol = group;
+                }
+            }
+            sequence.add(symbol);
+        }
+
+        private static boolean isSuffix(Kind kind) {
+            return kind == Kind.STAR || kind == Kind.PLUS || kind == Kind.QUESTION;
+        }
+
+        private int star(int symbol) {
+            Integer known = desugared.get(symbol + "*");
+            if (known != null) {
+                return known;
+            }
+            int star = fresh("rep");
+            add(star, List.of(symbol, star));
+            add(star, List.of());
+            desugared.put(symbol + "*", star);
+            return star;
+        }
+
+        private int optional(int symbol) {
+            Integer known = desugared.get(symbol + "?");
+            if (known != null) {
+                return known;
+            }
+            int optional = fresh("opt");
+            add(optional, List.of(symbol));
+            add(optional, List.of());
+            desugared.put(symbol + "?", optional);
+            return optional;
+        }
+
+        private int symbol(Token token, boolean terminal) {
+            String key = (terminal ? "\"" : "<") + token.text;
+            Integer id = named.get(key);
+            if (id == null) {
+                id = names.size();
+                names.add(token.text);
+                bases.add(null);
+                firstUse.add(token);
+                named.put(key, id);
+            }
+            return id;
+        }
+
+        private int fresh(String kind) {
+            int id = names.size();
+            names.add(null);
+            bases.add(rule + "_" + kind);
+            firstUse.add(null);
+            defined.add(id);
+            order.add(id);
+            return id;
+        }
+
+        private void add(int left, List<Integer> right) {
+            int[] symbols = new int[right.size()];
+            for (int k = 0; k < symbols.length; k++) {
+                symbols[k] = right.get(k);
+            }
+            lefts.add(left);
+            rights.add(symbols);
+        }
+
+        /**
+         * Nombra los no terminales nuevos, clasifica los símbolos y agrupa las
+         * producciones por lado izquierdo en orden de aparición
+         */
+        private Grammar build(Grammar.GrammarType type) throws IOException {
+            Set<String> used = new HashSet<>();
+            for (int id = 0; id < names.size(); id++) {
+                if (names.get(id) != null) {
+                    used.add(names.get(id));
+                }
+            }
+            Map<String, Integer> next = new HashMap<>();
+            Set<String> nonTerminals = new LinkedHashSet<>();
+            Set<String> terminals = new LinkedHashSet<>();
+            for (int id = 0; id < names.size(); id++) {
+                if (names.get(id) == null) {
+                    // Cada base continúa su numeración, para no repetir las comprobaciones
+                    String base = bases.get(id);
+                    int k = next.getOrDefault(base, 0);
+                    String name = k == 0 ? base : base + k;
+                    while (!used.add(name)) {
+                        name = base + ++k;
+                    }
+                    next.put(base, k + 1);
+                    names.set(id, name);
+                }
+                if (defined.contains(id)) {
+                    nonTerminals.add(names.get(id));
+                }
+            }
+            for (int id = 0; id < names.size(); id++) {
+                if (!defined.contains(id)) {
+                    if (nonTerminals.contains(names.get(id))) {
+                        Token token = firstUse.get(id);
+                        throw new GrammarPersistence.FormatException(
+                                "'" + names.get(id) + "' se usa como terminal y como no terminal", token.line, token.column);
+                    }
+                    terminals.add(names.get(id));
+                }
+            }
+
+            Map<Integer, List<Production>> byLeft = new LinkedHashMap<>();
+            for (int id : order) {
+                byLeft.put(id, new ArrayList<>());
+            }
+            for (int p = 0; p < lefts.size(); p++) {
+                List<String> right = new ArrayList<>();
+                for (int symbol : rights.get(p)) {
+                    right.add(names.get(symbol));
+                }
+                byLeft.get(lefts.get(p)).add(new Production(names.get(lefts.get(p)), right));
+            }
+            List<Production> productions = new ArrayList<>();
+            for (List<Production> group : byLeft.values()) {
+                productions.addAll(group);
+            }
+
+            Grammar grammar = new Grammar();
+            grammar.setNonTerminals(nonTerminals);
+            grammar.setTerminals(terminals);
+            grammar.setProductions(productions);
+            grammar.setStartSymbol(names.get(order.iterator().next()));
+            grammar.setType(type != null ? type : inferType(productions, terminals));
+            return grammar;
+        }
+
+        private static Grammar.GrammarType inferType(List<Production> productions, Set<String> terminals) {
+            for (Production p : productions) {
+                int length = p.length();
+                List<String> right = p.getRightSymbols();
+                if (length > 2 || (length >= 1 && !terminals.contains(right.get(0)))
+                        || (length == 2 && terminals.contains(right.get(1)))) {
+                    return Grammar.GrammarType.TYPE_2;
+                }
+            }
+            return Grammar.GrammarType.TYPE_3;
+        }
+
+        private static GrammarPersistence.FormatException error(String message, Token token) {
+            return new GrammarPersistence.FormatException(
+                    message + (token.kind == Kind.END ? "" : ", se encontró " + token.describe()),
+                    token.line, token.column);
+        }
+    }
+
+    // --- Escritura ---
+
+    /**
+     * Escribe las reglas agrupadas por lado izquierdo, empezando por el símbolo inicial.
+     * Los terminales van siempre entre comillas y los no terminales sin ellas, o entre
+     * &lt; &gt; si su nombre no es un identificador.
+     */
+    static void write(Grammar grammar, Writer writer) throws IOException {
+        Map<String, List<Production>> byLeft = new LinkedHashMap<>();
+        if (grammar.getStartSymbol() != null) {
+            byLeft.put(grammar.getStartSymbol(), new ArrayList<>());
+        }
+        for (Production p : grammar.getProductions()) {
+            byLeft.computeIfAbsent(p.getLeft(), k -> new ArrayList<>()).add(p);
+        }
+        Set<String> terminals = grammar.getTerminals();
+
+        for (Map.Entry<String, List<Production>> entry : byLeft.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            String left = nonTerminal(entry.getKey());
+            writer.write(left);
+            writer.write(" ::=");
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                if (i > 0) {
+                    writer.write("\n");
+                    writer.write(" ".repeat(left.length() + 2));
+                    writer.write("|");
+                }
+                Production p = entry.getValue().get(i);
+                if (p.isEpsilonProduction()) {
+                    writer.write(" ε");
+                    continue;
+                }
+                for (String symbol : p.getRightSymbols()) {
+                    writer.write(' ');
+                    writer.write(terminals.contains(symbol) ? escape(symbol, '"', '"') : nonTerminal(symbol));
+                }
+            }
+            writer.write(" ;\n");
+        }
+        writer.flush();
+    }
+
+    private static String nonTerminal(String name) {
+        boolean plain = !name.isEmpty() && !name.equals("epsilon");
+        for (int i = 0; i < name.length() && plain; i++) {
+            plain = Lexer.isNameChar(name.charAt(i));
+        }
+        return plain ? name : escape(name, '<', '>');
+    }
+
+    private static String escape(String value, char open, char close) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append(open);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == close || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append(close).toString();
+    }
+}
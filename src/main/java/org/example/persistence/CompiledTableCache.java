@@ -0,0 +1,373 @@
+package org.example.persistence;
+
+import org.example.automaton.DFA;
+import org.example.automaton.RegularAutomaton;
+import org.example.model.CompiledGrammar;
+import org.example.model.Grammar;
+import org.example.parser.LRTable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Caché en disco de las tablas compiladas (LR y AFD mínimo), un archivo por gramática y
+ * tipo de tabla, nombrado por la huella de contenido de la gramática. El formato binario
+ * es versionado: cabecera, tabla de símbolos internados en el orden de la gramática
+ * compilada, las tablas como enteros sin procesar y un CRC32 final. Los archivos se leen
+ * proyectándolos en memoria; si faltan, están dañados o no corresponden a la gramática,
+ * las tablas se vuelven a compilar y se reescriben.
+ */
+public class CompiledTableCache {
+
+    /** Versión del formato; los archivos de otra versión se consideran obsoletos */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Propiedad del sistema con el directorio de la caché por defecto; vacía la desactiva
+     */
+    public static final String DIRECTORY_PROPERTY = "grammar.tableCache";
+
+    private static final int MAGIC = 0x47524D54; // "GRMT"
+    private static final int KIND_LR = 1;
+    private static final int KIND_DFA = 2;
+
+    private final Path directory;
+
+    public CompiledTableCache(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("El directorio de la caché no puede ser nulo");
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Caché que usa la aplicación: en el directorio de la propiedad DIRECTORY_PROPERTY o,
+     * si no está definida, en ~/.project_grammar/tables; null si la propiedad está vacía
+     */
+    public static CompiledTableCache createDefault() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        if (configured == null) {
+            return new CompiledTableCache(Path.of(System.getProperty("user.home"), ".project_grammar", "tables"));
+        }
+        return configured.isBlank() ? null : new CompiledTableCache(Path.of(configured));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Tablas LR de la gramática: se leen de la caché o, si no es posible, se construyen y,
+     * si no tienen conflictos, se guardan
+     */
+    public LRTable lrTable(Grammar grammar, LRTable.Mode mode) {
+        LRTable cached = loadLRTable(grammar, mode);
+        if (cached != null) {
+            return cached;
+        }
+        LRTable table = LRTable.of(CompiledGrammar.of(grammar), mode);
+        if (!table.hasConflicts()) {
+            storeQuietly(() -> storeLRTable(grammar, table));
+        }
+        return table;
+    }
+
+    /**
+     * Autómata de una gramática Tipo 3: el AFD mínimo se lee de la caché o se compila en
+     * modo AUTO; sólo se guarda si la compilación eligió el AFD
+     */
+    public RegularAutomaton automaton(Grammar grammar) {
+        DFA dfa = loadDFA(grammar);
+        if (dfa != null) {
+            return RegularAutomaton.of(grammar, dfa);
+        }
+        RegularAutomaton automaton = RegularAutomaton.of(grammar, RegularAutomaton.Mode.AUTO);
+        if (!automaton.isBitParallel()) {
+            storeQuietly(() -> storeDFA(grammar, (DFA) automaton.getEngine()));
+        }
+        return automaton;
+    }
+
+    /**
+     * Lee las tablas LR guardadas; null si no existen, están dañadas o son obsoletas
+     */
+    public LRTable loadLRTable(Grammar grammar, LRTable.Mode mode) {
+        CompiledGrammar compiled = CompiledGrammar.of(grammar);
+        ByteBuffer buffer = map(fileFor(grammar, mode.name()), grammar, compiled, KIND_LR);
+        if (buffer == null) {
+            return null;
+        }
+        try {
+            if (buffer.getInt() != mode.ordinal()) {
+                return null;
+            }
+            int stateCount = buffer.getInt();
+            int[] action = readInts(buffer);
+            int[] gotoTable = readInts(buffer);
+            return LRTable.fromTables(compiled, mode, stateCount, action, gotoTable);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public void storeLRTable(Grammar grammar, LRTable table) throws IOException {
+        if (table.hasConflicts()) {
+            throw new IllegalArgumentException("Sólo se guardan tablas LR sin conflictos");
+        }
+        CompiledGrammar compiled = table.getCompiledGrammar();
+        write(fileFor(grammar, table.getMode().name()), grammar, compiled, KIND_LR, out -> {
+            out.writeInt(table.getMode().ordinal());
+            out.writeInt(table.getStateCount());
+            writeInts(out, table.getActionTable());
+            writeInts(out, table.getGotoTable());
+        });
+    }
+
+    /**
+     * Lee el AFD mínimo guardado; null si no existe, está dañado o es obsoleto
+     */
+    public DFA loadDFA(Grammar grammar) {
+        CompiledGrammar compiled = CompiledGrammar.of(grammar);
+        ByteBuffer buffer = map(fileFor(grammar, "DFA"), grammar, compiled, KIND_DFA);
+        if (buffer == null) {
+            return null;
+        }
+        try {
+            int stateCount = buffer.getInt();
+            int startState = buffer.getInt();
+            int[] accepting = readInts(buffer);
+            int[] cells = readInts(buffer);
+            int symbols = compiled.getTerminalCount();
+            if (stateCount <= 0 || startState < 0 || startState >= stateCount
+                    || cells.length != stateCount * symbols) {
+                return null;
+            }
+
+            int[][] transitions = new int[stateCount][];
+            for (int q = 0; q < stateCount; q++) {
+                transitions[q] = new int[symbols];
+                System.arraycopy(cells, q * symbols, transitions[q], 0, symbols);
+            }
+            for (int target : cells) {
+                if (target < DFA.DEAD || target >= stateCount) {
+                    return null;
+                }
+            }
+            BitSet acceptingStates = new BitSet(stateCount);
+            for (int q : accepting) {
+                if (q < 0 || q >= stateCount) {
+                    return null;
+                }
+                acceptingStates.set(q);
+            }
+            return new DFA(terminalNames(compiled), transitions, acceptingStates, startState);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    public void storeDFA(Grammar grammar, DFA dfa) throws IOException {
+        CompiledGrammar compiled = CompiledGrammar.of(grammar);
+        int stateCount = dfa.getStateCount();
+        int symbols = dfa.getAlphabetSize();
+        if (symbols != compiled.getTerminalCount()) {
+            throw new IllegalArgumentException("El alfabeto del AFD no corresponde a la gramática");
+        }
+
+        int acceptingCount = 0;
+        int[] cells = new int[stateCount * symbols];
+        for (int q = 0; q < stateCount; q++) {
+            if (dfa.isAccepting(q)) {
+                acceptingCount++;
+            }
+            for (int a = 0; a < symbols; a++) {
+                cells[q * symbols + a] = dfa.next(q, a);
+            }
+        }
+        int[] accepting = new int[acceptingCount];
+        for (int q = 0, k = 0; q < stateCount; q++) {
+            if (dfa.isAccepting(q)) {
+                accepting[k++] = q;
+            }
+        }
+
+        write(fileFor(grammar, "DFA"), grammar, compiled, KIND_DFA, out -> {
+            out.writeInt(stateCount);
+            out.writeInt(dfa.getStartState());
+            writeInts(out, accepting);
+            writeInts(out, cells);
+        });
+    }
+
+    private Path fileFor(Grammar grammar, String table) {
+        return directory.resolve(grammar.contentHash() + "-" + table.toLowerCase() + ".tbl");
+    }
+
+    // --- Formato ---
+
+    private interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface Store {
+        void run() throws IOException;
+    }
+
+    /**
+     * Guarda sin propagar errores: la caché es sólo una optimización
+     */
+    private static void storeQuietly(Store store) {
+        try {
+            store.run();
+        } catch (IOException e) {
+            // Se seguirá compilando en cada arranque
+        }
+    }
+
+    /**
+     * Escribe en un archivo temporal y lo renombra, para que un lector nunca vea un
+     * archivo a medias
+     */
+    private void write(Path file, Grammar grammar, CompiledGrammar compiled, int kind, Payload payload) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "tables", ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream stream = Files.newOutputStream(temp)) {
+                DataOutputStream out = new DataOutputStream(
+                        new CheckedOutputStream(new BufferedOutputStream(stream), crc));
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(kind);
+                writeString(out, grammar.contentHash());
+                out.writeInt(compiled.getTerminalCount());
+                out.writeInt(compiled.getSymbolCount());
+                for (int symbol = 0; symbol < compiled.getSymbolCount(); symbol++) {
+                    writeString(out, compiled.nameOf(symbol));
+                }
+                out.writeInt(compiled.getProductionCount());
+                payload.write(out);
+                out.flush();
+                // El CRC cubre todo lo anterior y se escribe fuera del flujo comprobado
+                new DataOutputStream(stream).writeInt((int) crc.getValue());
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Proyecta el archivo en memoria y comprueba CRC, versión, tipo, huella y símbolos.
+     * Devuelve el buffer situado al principio de las tablas, o null si no sirve
+     */
+    private static ByteBuffer map(Path file, Grammar grammar, CompiledGrammar compiled, int kind) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            return null;
+        }
+
+        int body = mapped.capacity() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(mapped.duplicate().limit(body));
+        if ((int) crc.getValue() != mapped.getInt(body)) {
+            return null;
+        }
+
+        ByteBuffer buffer = mapped.duplicate().limit(body);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || buffer.getInt() != kind
+                    || !readString(buffer).equals(grammar.contentHash())
+                    || buffer.getInt() != compiled.getTerminalCount()
+                    || buffer.getInt() != compiled.getSymbolCount()) {
+                return null;
+            }
+            for (int symbol = 0; symbol < compiled.getSymbolCount(); symbol++) {
+                if (!readString(buffer).equals(compiled.nameOf(symbol))) {
+                    return null;
+                }
+            }
+            if (buffer.getInt() != compiled.getProductionCount()) {
+                return null;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+        return buffer;
+    }
+
+    private static String[] terminalNames(CompiledGrammar compiled) {
+        String[] names = new String[compiled.getTerminalCount()];
+        for (int t = 0; t < names.length; t++) {
+            names[t] = compiled.nameOf(t);
+        }
+        return names;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Cadena fuera del archivo");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Copia en bloque un arreglo de enteros desde la proyección del archivo
+     */
+    private static int[] readInts(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / 4) {
+            throw new IllegalArgumentException("Tabla fuera del archivo");
+        }
+        int[] values = new int[length];
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.get(values);
+        buffer.position(buffer.position() + length * 4);
+        return values;
+    }
+}
@@ -4,174 +4,542 @@ import org.example.model.Grammar;
 import org.example.model.Production;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Lectura y escritura de gramáticas en JSON. Ambas son de una sola pasada sobre flujos de
+ * caracteres: el lector es un analizador léxico incremental que no carga el archivo
+ * completo y el escritor vuelca cada valor escapado directamente en el flujo, de modo que
+ * el coste es lineal y la memoria, aparte de la propia gramática, constante. También lee
+ * y escribe el formato textual BNF/EBNF (ver BnfFormat).
+ */
 public class GrammarPersistence {
 
     /**
      * Guarda una gramática en un archivo
      */
     public static void save(Grammar grammar, String filename) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            writer.write("{\n");
-
-            // Tipo
-            writer.write("  \"type\": \"" + grammar.getType() + "\",\n");
-
-            // Símbolo inicial
-            writer.write("  \"startSymbol\": \"" + grammar.getStartSymbol() + "\",\n");
-
-            // No terminales
-            writer.write("  \"nonTerminals\": [");
-            writer.write(joinQuoted(grammar.getNonTerminals()));
-            writer.write("],\n");
-
-            // Terminales
-            writer.write("  \"terminals\": [");
-            writer.write(joinQuoted(grammar.getTerminals()));
-            writer.write("],\n");
-
-            // Producciones
-            writer.write("  \"productions\": [\n");
-            List<Production> productions = grammar.getProductions();
-            for (int i = 0; i < productions.size(); i++) {
-                Production p = productions.get(i);
-                writer.write("    {\"left\": \"" + p.getLeft() +
-                        "\", \"right\": \"" + escape(p.getRight()) + "\"}");
-                if (i < productions.size() - 1) {
-                    writer.write(",");
-                }
-                writer.write("\n");
-            }
-            writer.write("  ]\n");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(filename), StandardCharsets.UTF_8))) {
+            save(grammar, writer);
+        }
+    }
 
-            writer.write("}\n");
+    /**
+     * Escribe la gramática en el flujo dado (sin cerrarlo)
+     */
+    public static void save(Grammar grammar, Writer writer) throws IOException {
+        writer.write("{\n");
+
+        // Tipo
+        writer.write("  \"type\": ");
+        writeString(writer, String.valueOf(grammar.getType()));
+        writer.write(",\n");
+
+        // Símbolo inicial
+        writer.write("  \"startSymbol\": ");
+        writeString(writer, grammar.getStartSymbol() == null ? "" : grammar.getStartSymbol());
+        writer.write(",\n");
+
+        // No terminales
+        writer.write("  \"nonTerminals\": [");
+        writeStrings(writer, grammar.getNonTerminals());
+        writer.write("],\n");
+
+        // Terminales
+        writer.write("  \"terminals\": [");
+        writeStrings(writer, grammar.getTerminals());
+        writer.write("],\n");
+
+        // Producciones
+        writer.write("  \"productions\": [\n");
+        List<Production> productions = grammar.getProductions();
+        for (int i = 0; i < productions.size(); i++) {
+            Production p = productions.get(i);
+            writer.write("    {\"left\": ");
+            writeString(writer, p.getLeft());
+            writer.write(", \"right\": ");
+            if (new Production(p.getLeft(), p.getRight()).equals(p)) {
+                writeString(writer, p.getRight());
+            } else {
+                // El texto se leería con otros símbolos (p. ej. "id" como i, d): se escriben uno a uno
+                writer.write('[');
+                writeStrings(writer, p.getRightSymbols());
+                writer.write(']');
+            }
+            writer.write(i < productions.size() - 1 ? "},\n" : "}\n");
         }
+        writer.write("  ]\n");
+
+        writer.write("}\n");
+        writer.flush();
     }
 
     /**
      * Carga una gramática desde un archivo
+     * @throws FormatException si el contenido no es una gramática JSON válida
      */
     public static Grammar load(String filename) throws IOException {
-        StringBuilder content = new StringBuilder();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
+        try (Reader reader = new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8)) {
+            return load(reader);
         }
-
-        return parseJSON(content.toString());
     }
 
     /**
-     * Parser simple de JSON para gramáticas
+     * Lee una gramática del flujo dado (sin cerrarlo). Los campos pueden aparecer en
+     * cualquier orden y los desconocidos se ignoran; un lado derecho vacío es ε. El lado
+     * derecho es un texto o, si su texto sería ambiguo, la lista de sus símbolos.
+     * @throws FormatException si el contenido no es una gramática JSON válida
      */
-    private static Grammar parseJSON(String json) {
+    public static Grammar load(Reader reader) throws IOException {
+        JsonReader json = new JsonReader(reader);
         Grammar grammar = new Grammar();
+        String type = null;
+        int typeLine = 0;
+        int typeColumn = 0;
+        boolean hasProductions = false;
+
+        json.expect('{');
+        if (!json.consume('}')) {
+            do {
+                String key = json.readString();
+                json.expect(':');
+                switch (key) {
+                    case "type":
+                        json.peek();
+                        typeLine = json.tokenLine;
+                        typeColumn = json.tokenColumn;
+                        type = json.readString();
+                        break;
+                    case "startSymbol":
+                        grammar.setStartSymbol(json.readString());
+                        break;
+                    case "nonTerminals":
+                        grammar.setNonTerminals(readStringArray(json));
+                        break;
+                    case "terminals":
+                        grammar.setTerminals(readStringArray(json));
+                        break;
+                    case "productions":
+                        grammar.setProductions(readProductions(json));
+                        hasProductions = true;
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            } while (json.consume(','));
+            json.expect('}');
+        }
+        json.expectEnd();
 
-        // Extraer tipo
-        String typeStr = extractValue(json, "type");
-        grammar.setType(Grammar.GrammarType.valueOf(typeStr));
+        if (type == null) {
+            throw json.error("falta el campo \"type\"");
+        }
+        try {
+            grammar.setType(Grammar.GrammarType.valueOf(type));
+        } catch (IllegalArgumentException e) {
+            throw new FormatException("tipo de gramática desconocido: " + type, typeLine, typeColumn);
+        }
+        if (!hasProductions) {
+            throw json.error("falta el campo \"productions\"");
+        }
+        return grammar;
+    }
 
-        // Extraer símbolo inicial
-        grammar.setStartSymbol(extractValue(json, "startSymbol"));
+    /**
+     * Indica si el archivo usa el formato BNF/EBNF por su extensión (.bnf o .ebnf)
+     */
+    public static boolean isBnfFile(String filename) {
+        String lower = filename.toLowerCase();
+        return lower.endsWith(".bnf") || lower.endsWith(".ebnf");
+    }
 
-        // Extraer no terminales
-        String ntArray = extractArray(json, "nonTerminals");
-        grammar.setNonTerminals(parseStringArray(ntArray));
+    /**
+     * Carga una gramática en formato BNF/EBNF; el tipo se deduce de las producciones
+     * @throws FormatException si el texto no es una gramática válida
+     */
+    public static Grammar loadBnf(String filename) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8)) {
+            return loadBnf(reader, null);
+        }
+    }
 
-        // Extraer terminales
-        String tArray = extractArray(json, "terminals");
-        grammar.setTerminals(parseStringArray(tArray));
+    /**
+     * Lee una gramática BNF/EBNF del flujo dado (sin cerrarlo)
+     * @param type tipo de la gramática, o null para deducirlo (Tipo 3 si todas las
+     *             producciones son lineales por la derecha)
+     * @throws FormatException si el texto no es una gramática válida
+     */
+    public static Grammar loadBnf(Reader reader, Grammar.GrammarType type) throws IOException {
+        return BnfFormat.read(reader, type);
+    }
+
+    /**
+     * Guarda una gramática en formato BNF; el tipo no se guarda
+     */
+    public static void saveBnf(Grammar grammar, String filename) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(filename), StandardCharsets.UTF_8))) {
+            saveBnf(grammar, writer);
+        }
+    }
 
-        // Extraer producciones
-        String prodArray = extractArray(json, "productions");
-        grammar.setProductions(parseProductions(prodArray));
+    public static void saveBnf(Grammar grammar, Writer writer) throws IOException {
+        BnfFormat.write(grammar, writer);
+    }
 
-        return grammar;
+    private static Set<String> readStringArray(JsonReader json) throws IOException {
+        Set<String> result = new LinkedHashSet<>();
+        json.expect('[');
+        if (json.consume(']')) {
+            return result;
+        }
+        do {
+            String item = json.readString();
+            if (!item.isEmpty()) {
+                result.add(item);
+            }
+        } while (json.consume(','));
+        json.expect(']');
+        return result;
     }
 
-    private static String extractValue(String json, String key) {
-        String pattern = "\"" + key + "\":\\s*\"([^\"]+)\"";
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-        java.util.regex.Matcher m = p.matcher(json);
-        if (m.find()) {
-            return m.group(1);
+    private static List<Production> readProductions(JsonReader json) throws IOException {
+        List<Production> productions = new ArrayList<>();
+        json.expect('[');
+        if (json.consume(']')) {
+            return productions;
         }
-        return "";
+        do {
+            json.peek();
+            int line = json.tokenLine;
+            int column = json.tokenColumn;
+            json.expect('{');
+            String left = null;
+            String right = null;
+            List<String> rightSymbols = null;
+            if (!json.consume('}')) {
+                do {
+                    String key = json.readString();
+                    json.expect(':');
+                    if (key.equals("left")) {
+                        left = json.readString();
+                    } else if (key.equals("right") && json.peek() == '[') {
+                        rightSymbols = readSymbols(json);
+                        right = null;
+                    } else if (key.equals("right")) {
+                        right = json.readString();
+                        rightSymbols = null;
+                    } else {
+                        json.skipValue();
+                    }
+                } while (json.consume(','));
+                json.expect('}');
+            }
+            if (left == null || left.isEmpty()) {
+                throw new FormatException("producción sin lado izquierdo", line, column);
+            }
+            if (rightSymbols != null) {
+                productions.add(new Production(left, rightSymbols));
+            } else {
+                productions.add(new Production(left, right == null || right.isEmpty() ? "ε" : right));
+            }
+        } while (json.consume(','));
+        json.expect(']');
+        return productions;
     }
 
-    private static String extractArray(String json, String key) {
-        String pattern = "\"" + key + "\":\\s*\\[([^\\]]+)\\]";
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern,
-                java.util.regex.Pattern.DOTALL);
-        java.util.regex.Matcher m = p.matcher(json);
-        if (m.find()) {
-            return m.group(1);
+    /**
+     * Lado derecho como lista de símbolos, vacía para ε
+     */
+    private static List<String> readSymbols(JsonReader json) throws IOException {
+        List<String> symbols = new ArrayList<>();
+        json.expect('[');
+        if (json.consume(']')) {
+            return symbols;
         }
-        return "";
+        do {
+            json.peek();
+            int line = json.tokenLine;
+            int column = json.tokenColumn;
+            String symbol = json.readString();
+            if (symbol.isEmpty() || symbol.chars().anyMatch(Character::isWhitespace)) {
+                throw new FormatException("símbolo no válido en el lado derecho: '" + symbol + "'", line, column);
+            }
+            symbols.add(symbol);
+        } while (json.consume(','));
+        json.expect(']');
+        return symbols;
     }
 
-    private static Set<String> parseStringArray(String arrayContent) {
-        Set<String> result = new HashSet<>();
-        String[] items = arrayContent.split(",");
+    private static void writeStrings(Writer writer, Collection<String> items) throws IOException {
+        boolean first = true;
         for (String item : items) {
-            String cleaned = item.trim().replaceAll("\"", "");
-            if (!cleaned.isEmpty()) {
-                result.add(cleaned);
+            if (!first) {
+                writer.write(", ");
             }
+            writeString(writer, item);
+            first = false;
         }
-        return result;
     }
 
-    private static List<Production> parseProductions(String arrayContent) {
-        List<Production> productions = new ArrayList<>();
+    /**
+     * Escribe una cadena JSON entre comillas, escapando comillas, barras y caracteres de control
+     */
+    private static void writeString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped;
+            switch (c) {
+                case '"':
+                    escaped = "\\\"";
+                    break;
+                case '\\':
+                    escaped = "\\\\";
+                    break;
+                case '\n':
+                    escaped = "\\n";
+                    break;
+                case '\r':
+                    escaped = "\\r";
+                    break;
+                case '\t':
+                    escaped = "\\t";
+                    break;
+                default:
+                    if (c >= 0x20) {
+                        continue;
+                    }
+                    escaped = String.format("\\u%04x", (int) c);
+                    break;
+            }
+            writer.write(value, start, i - start);
+            writer.write(escaped);
+            start = i + 1;
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
 
-        // Dividir por objetos
-        String[] objects = arrayContent.split("\\},\\s*\\{");
+    /**
+     * Error de formato con la posición (línea y columna, desde 1) en que se detectó
+     */
+    public static class FormatException extends IOException {
+        private static final long serialVersionUID = 1L;
 
-        for (String obj : objects) {
-            obj = obj.replaceAll("[{}]", "").trim();
+        private final int line;
+        private final int column;
 
-            String left = extractProductionField(obj, "left");
-            String right = extractProductionField(obj, "right");
+        public FormatException(String message, int line, int column) {
+            super(String.format("Formato no válido en la línea %d, columna %d: %s", line, column, message));
+            this.line = line;
+            this.column = column;
+        }
 
-            if (!left.isEmpty() && !right.isEmpty()) {
-                productions.add(new Production(left, unescape(right)));
-            }
+        public int getLine() {
+            return line;
         }
 
-        return productions;
+        public int getColumn() {
+            return column;
+        }
     }
 
-    private static String extractProductionField(String obj, String field) {
-        String pattern = "\"" + field + "\":\\s*\"([^\"]+)\"";
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-        java.util.regex.Matcher m = p.matcher(obj);
-        if (m.find()) {
-            return m.group(1);
+    /**
+     * Analizador léxico incremental de JSON: lee el flujo por bloques y lleva la cuenta
+     * de línea y columna. tokenLine/tokenColumn señalan el inicio del último elemento
+     * examinado con peek, que es donde se informan los errores.
+     */
+    private static class JsonReader {
+        private static final int EOF = -1;
+
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder text = new StringBuilder();
+        private int length;
+        private int index;
+        private int line = 1;
+        private int column = 1;
+        int tokenLine = 1;
+        int tokenColumn = 1;
+
+        JsonReader(Reader in) {
+            this.in = in;
+        }
+
+        private int peekChar() throws IOException {
+            if (index == length) {
+                length = in.read(buffer);
+                index = 0;
+                if (length <= 0) {
+                    length = 0;
+                    return EOF;
+                }
+            }
+            return buffer[index];
         }
-        return "";
-    }
 
-    private static String joinQuoted(Set<String> items) {
-        List<String> quoted = new ArrayList<>();
-        for (String item : items) {
-            quoted.add("\"" + item + "\"");
+        private int nextChar() throws IOException {
+            int c = peekChar();
+            if (c == EOF) {
+                return EOF;
+            }
+            index++;
+            if (c == '\n') {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+            return c;
         }
-        return String.join(", ", quoted);
-    }
 
-    private static String escape(String str) {
-        return str.replace("\\", "\\\\").replace("\"", "\\\"");
-    }
+        /**
+         * Siguiente carácter significativo, sin consumirlo
+         */
+        int peek() throws IOException {
+            int c = peekChar();
+            while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                nextChar();
+                c = peekChar();
+            }
+            tokenLine = line;
+            tokenColumn = column;
+            return c;
+        }
 
-    private static String unescape(String str) {
-        return str.replace("\\\"", "\"").replace("\\\\", "\\");
+        boolean consume(char expected) throws IOException {
+            if (peek() == expected) {
+                nextChar();
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char expected) throws IOException {
+            if (!consume(expected)) {
+                throw error("se esperaba '" + expected + "' y se encontró " + describe(peek()));
+            }
+        }
+
+        void expectEnd() throws IOException {
+            int c = peek();
+            if (c != EOF) {
+                throw error("contenido inesperado tras el objeto: " + describe(c));
+            }
+        }
+
+        String readString() throws IOException {
+            int c = peek();
+            if (c != '"') {
+                throw error("se esperaba una cadena y se encontró " + describe(c));
+            }
+            nextChar();
+            text.setLength(0);
+            while (true) {
+                int startLine = line;
+                int startColumn = column;
+                c = nextChar();
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c == EOF) {
+                    throw new FormatException("cadena sin cerrar", tokenLine, tokenColumn);
+                }
+                if (c < 0x20) {
+                    throw new FormatException("carácter de control sin escapar en una cadena", startLine, startColumn);
+                }
+                if (c != '\\') {
+                    text.append((char) c);
+                    continue;
+                }
+                c = nextChar();
+                switch (c) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        text.append((char) c);
+                        break;
+                    case 'b':
+                        text.append('\b');
+                        break;
+                    case 'f':
+                        text.append('\f');
+                        break;
+                    case 'n':
+                        text.append('\n');
+                        break;
+                    case 'r':
+                        text.append('\r');
+                        break;
+                    case 't':
+                        text.append('\t');
+                        break;
+                    case 'u':
+                        int code = 0;
+                        for (int k = 0; k < 4; k++) {
+                            int digit = Character.digit(nextChar(), 16);
+                            if (digit < 0) {
+                                throw new FormatException("secuencia \\u no válida", startLine, startColumn);
+                            }
+                            code = code * 16 + digit;
+                        }
+                        text.append((char) code);
+                        break;
+                    default:
+                        throw new FormatException("secuencia de escape no válida", startLine, startColumn);
+                }
+            }
+        }
+
+        /**
+         * Salta un valor completo de un campo desconocido, sin recursión
+         */
+        void skipValue() throws IOException {
+            int depth = 0;
+            do {
+                int c = peek();
+                if (c == '"') {
+                    readString();
+                } else if (c == '{' || c == '[') {
+                    nextChar();
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (depth == 0) {
+                        throw error("se esperaba un valor y se encontró " + describe(c));
+                    }
+                    nextChar();
+                    depth--;
+                } else if (c == ',' || c == ':') {
+                    if (depth == 0) {
+                        throw error("se esperaba un valor y se encontró " + describe(c));
+                    }
+                    nextChar();
+                } else if (c == '-' || Character.isLetterOrDigit(c)) {
+                    while (c == '-' || c == '+' || c == '.' || Character.isLetterOrDigit(c)) {
+                        nextChar();
+                        c = peekChar();
+                    }
+                } else {
+                    throw error("se esperaba un valor y se encontró " + describe(c));
+                }
+            } while (depth > 0);
+        }
+
+        FormatException error(String message) {
+            return new FormatException(message, tokenLine, tokenColumn);
+        }
+
+        private static String describe(int c) {
+            return c == EOF ? "el fin del archivo" : "'" + (char) c + "'";
+        }
     }
 }
@@ -0,0 +1,275 @@
+package org.example.transform;
+
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conversión de una gramática libre de contexto a Forma Normal de Chomsky: toda
+ * producción es A → B C o A → a, y sólo el símbolo inicial (nuevo, fuera de todo lado
+ * derecho) puede producir ε. Pasos: nuevo inicial, terminales aislados en no terminales
+ * propios, binarización, eliminación de ε, eliminación de producciones unitarias y de
+ * símbolos inútiles.
+ */
+public class ChomskyNormalForm {
+
+    private final Grammar source;
+    private final Grammar grammar;
+    private final boolean acceptsEmpty;
+
+    private final Set<String> terminals;
+    private final SymbolNames names;
+    private final Map<String, List<List<String>>> rules = new LinkedHashMap<>();
+
+    private ChomskyNormalForm(Grammar source) {
+        this.source = source;
+        this.terminals = new HashSet<>(source.getTerminals());
+        this.names = new SymbolNames(source);
+
+        String start = names.fresh(source.getStartSymbol() + "'");
+        addRule(start, List.of(source.getStartSymbol()));
+        for (String nonTerminal : source.getNonTerminals()) {
+            rules.computeIfAbsent(nonTerminal, k -> new ArrayList<>());
+        }
+        for (Production production : source.getProductions()) {
+            addRule(production.getLeft(), SymbolNames.rightOf(production));
+        }
+
+        isolateTerminals();
+        binarize();
+        this.acceptsEmpty = removeEpsilon(start);
+        removeUnits();
+        removeUseless(start);
+
+        this.grammar = toGrammar(start);
+    }
+
+    /**
+     * Convierte la gramática; la original no se modifica
+     */
+    public static ChomskyNormalForm of(Grammar grammar) {
+        return new ChomskyNormalForm(grammar);
+    }
+
+    public Grammar getSource() {
+        return source;
+    }
+
+    /**
+     * Gramática equivalente en FNC
+     */
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Indica si el lenguaje contiene la cadena vacía (producción inicial → ε)
+     */
+    public boolean acceptsEmpty() {
+        return acceptsEmpty;
+    }
+
+    private void addRule(String left, List<String> right) {
+        List<List<String>> alternatives = rules.computeIfAbsent(left, k -> new ArrayList<>());
+        if (!alternatives.contains(right)) {
+            alternatives.add(right);
+        }
+    }
+
+    /**
+     * Sustituye cada terminal de un lado derecho de longitud ≥ 2 por un no terminal T_a → a
+     */
+    private void isolateTerminals() {
+        Map<String, String> wrappers = new HashMap<>();
+        for (Map.Entry<String, List<List<String>>> entry : new ArrayList<>(rules.entrySet())) {
+            for (List<String> right : entry.getValue()) {
+                if (right.size() < 2) {
+                    continue;
+                }
+                for (int i = 0; i < right.size(); i++) {
+                    String symbol = right.get(i);
+                    if (terminals.contains(symbol)) {
+                        right.set(i, wrappers.computeIfAbsent(symbol, t -> names.fresh("T_" + t)));
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, String> wrapper : wrappers.entrySet()) {
+            addRule(wrapper.getValue(), List.of(wrapper.getKey()));
+        }
+    }
+
+    /**
+     * Parte A → X1 X2 ... Xk (k > 2) en A → X1 A_1, A_1 → X2 A_2, ..., A_{k-2} → X{k-1} Xk
+     */
+    private void binarize() {
+        for (String left : new ArrayList<>(rules.keySet())) {
+            List<List<String>> alternatives = rules.get(left);
+            for (int r = 0; r < alternatives.size(); r++) {
+                List<String> right = alternatives.get(r);
+                if (right.size() <= 2) {
+                    continue;
+                }
+                String current = left;
+                List<String> first = null;
+                for (int i = 0; i < right.size() - 2; i++) {
+                    String rest = names.fresh(left + "_" + (i + 1));
+                    List<String> pair = new ArrayList<>(Arrays.asList(right.get(i), rest));
+                    if (first == null) {
+                        first = pair;
+                    } else {
+                        addRule(current, pair);
+                    }
+                    current = rest;
+                }
+                addRule(current, new ArrayList<>(right.subList(right.size() - 2, right.size())));
+                alternatives.set(r, first);
+            }
+        }
+    }
+
+    /**
+     * Elimina las producciones ε añadiendo las variantes sin los símbolos anulables.
+     * Devuelve si el símbolo inicial es anulable, en cuyo caso conserva inicial → ε.
+     */
+    private boolean removeEpsilon(String start) {
+        Set<String> nullable = new HashSet<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<List<String>>> entry : rules.entrySet()) {
+                if (nullable.contains(entry.getKey())) {
+                    continue;
+                }
+                for (List<String> right : entry.getValue()) {
+                    if (nullable.containsAll(right)) {
+                        nullable.add(entry.getKey());
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<List<String>>> entry : rules.entrySet()) {
+            Set<List<String>> expanded = new LinkedHashSet<>();
+            for (List<String> right : entry.getValue()) {
+                // Tras binarizar hay a lo sumo dos símbolos: basta con probar cada uno
+                expanded.add(right);
+                for (int i = 0; i < right.size(); i++) {
+                    if (nullable.contains(right.get(i))) {
+                        List<String> without = new ArrayList<>(right);
+                        without.remove(i);
+                        expanded.add(without);
+                    }
+                }
+            }
+            expanded.removeIf(List::isEmpty);
+            entry.setValue(new ArrayList<>(expanded));
+        }
+
+        if (nullable.contains(start)) {
+            rules.get(start).add(new ArrayList<>());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sustituye A → B por las producciones no unitarias de todo B alcanzable con unitarias
+     */
+    private void removeUnits() {
+        Map<String, List<List<String>>> result = new LinkedHashMap<>();
+        for (String left : rules.keySet()) {
+            Set<String> reached = new LinkedHashSet<>();
+            Deque<String> pending = new ArrayDeque<>();
+            reached.add(left);
+            pending.add(left);
+            while (!pending.isEmpty()) {
+                for (List<String> right : rules.get(pending.poll())) {
+                    if (isUnit(right) && reached.add(right.get(0))) {
+                        pending.add(right.get(0));
+                    }
+                }
+            }
+
+            Set<List<String>> alternatives = new LinkedHashSet<>();
+            for (String target : reached) {
+                for (List<String> right : rules.get(target)) {
+                    if (!isUnit(right)) {
+                        alternatives.add(right);
+                    }
+                }
+            }
+            result.put(left, new ArrayList<>(alternatives));
+        }
+        rules.clear();
+        rules.putAll(result);
+    }
+
+    private boolean isUnit(List<String> right) {
+        return right.size() == 1 && rules.containsKey(right.get(0));
+    }
+
+    /**
+     * Quita los no terminales que no generan ninguna cadena o no son alcanzables
+     */
+    private void removeUseless(String start) {
+        Set<String> generating = new HashSet<>(terminals);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<List<String>>> entry : rules.entrySet()) {
+                if (generating.contains(entry.getKey())) {
+                    continue;
+                }
+                for (List<String> right : entry.getValue()) {
+                    if (generating.containsAll(right)) {
+                        generating.add(entry.getKey());
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        for (List<List<String>> alternatives : rules.values()) {
+            alternatives.removeIf(right -> !generating.containsAll(right));
+        }
+
+        Set<String> reachable = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        reachable.add(start);
+        pending.add(start);
+        while (!pending.isEmpty()) {
+            for (List<String> right : rules.get(pending.poll())) {
+                for (String symbol : right) {
+                    if (rules.containsKey(symbol) && reachable.add(symbol)) {
+                        pending.add(symbol);
+                    }
+                }
+            }
+        }
+        rules.keySet().retainAll(reachable);
+    }
+
+    private Grammar toGrammar(String start) {
+        List<Production> productions = new ArrayList<>();
+        for (Map.Entry<String, List<List<String>>> entry : rules.entrySet()) {
+            for (List<String> right : entry.getValue()) {
+                productions.add(new Production(entry.getKey(), right));
+            }
+        }
+        return new Grammar(rules.keySet(), source.getTerminals(), productions, start, Grammar.GrammarType.TYPE_2);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.transform;
+
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eliminación de producciones ε: cada producción se sustituye por todas sus variantes
+ * sin alguno de sus símbolos anulables, y se descartan las que quedan vacías. Si el
+ * símbolo inicial es anulable conserva (o, si aparece en algún lado derecho, recibe un
+ * inicial nuevo con) una única producción ε. Al reconstruir árboles, cada símbolo
+ * omitido se repone con una derivación ε fija.
+ */
+public class EpsilonRemoval extends GrammarTransformation {
+
+    private final Map<String, Production> witness = new HashMap<>();
+
+    private EpsilonRemoval(Grammar source) {
+        super(source);
+        Map<String, List<Alternative>> alternatives = sourceAlternatives();
+
+        // Cada anulable guarda la producción que lo hizo anulable, cuyos símbolos ya lo eran
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<Alternative>> entry : alternatives.entrySet()) {
+                if (witness.containsKey(entry.getKey())) {
+                    continue;
+                }
+                for (Alternative alternative : entry.getValue()) {
+                    if (witness.keySet().containsAll(alternative.right)) {
+                        witness.put(entry.getKey(), alternative.rule.origins.get(0));
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        String start = source.getStartSymbol();
+        boolean startOnRight = false;
+        Map<String, List<Alternative>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Alternative>> entry : alternatives.entrySet()) {
+            List<Alternative> expanded = new ArrayList<>();
+            for (Alternative alternative : entry.getValue()) {
+                startOnRight |= alternative.right.contains(start);
+                expand(entry.getKey(), alternative.rule.origins.get(0), alternative.right, expanded);
+            }
+            result.put(entry.getKey(), expanded);
+        }
+
+        if (witness.containsKey(start)) {
+            String nullableStart = start;
+            Rule empty = new Rule(List.of(witness.get(start))) {
+                @Override
+                DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                    return epsilonTree(nullableStart);
+                }
+            };
+            if (startOnRight) {
+                String newStart = fresh(start + "'");
+                Rule collapse = new Rule(List.of()) {
+                    @Override
+                    DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                        return children.get(0);
+                    }
+                };
+                Map<String, List<Alternative>> withStart = new LinkedHashMap<>();
+                withStart.put(newStart, new ArrayList<>(List.of(
+                        new Alternative(List.of(start), collapse),
+                        new Alternative(List.of(), empty))));
+                withStart.putAll(result);
+                result = withStart;
+                start = newStart;
+            } else {
+                result.get(start).add(new Alternative(List.of(), empty));
+            }
+        }
+
+        finish(start, result, source.getTerminals());
+    }
+
+    /**
+     * Aplica la transformación; la gramática original no se modifica
+     */
+    public static EpsilonRemoval of(Grammar grammar) {
+        return new EpsilonRemoval(grammar);
+    }
+
+    /**
+     * Añade las variantes no vacías de un lado derecho que omiten símbolos anulables
+     * (salvo la unitaria A → A, que no aporta nada)
+     */
+    private void expand(String left, Production production, List<String> right, List<Alternative> out) {
+        List<Integer> optional = new ArrayList<>();
+        for (int i = 0; i < right.size(); i++) {
+            if (witness.containsKey(right.get(i))) {
+                optional.add(i);
+            }
+        }
+
+        for (long mask = 0; mask < 1L << optional.size(); mask++) {
+            boolean[] kept = new boolean[right.size()];
+            Arrays.fill(kept, true);
+            for (int b = 0; b < optional.size(); b++) {
+                if ((mask >> b & 1) != 0) {
+                    kept[optional.get(b)] = false;
+                }
+            }
+            List<String> variant = new ArrayList<>();
+            for (int i = 0; i < right.size(); i++) {
+                if (kept[i]) {
+                    variant.add(right.get(i));
+                }
+            }
+            if (variant.isEmpty() || variant.equals(List.of(left))) {
+                continue;
+            }
+            out.add(new Alternative(variant, new Rule(List.of(production)) {
+                @Override
+                DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                    List<DerivationTree.TreeNode> full = new ArrayList<>();
+                    int next = 0;
+                    for (int i = 0; i < right.size(); i++) {
+                        full.add(kept[i] ? children.get(next++) : epsilonTree(right.get(i)));
+                    }
+                    return node(production, full);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Derivación ε de un no terminal anulable, siguiendo las producciones testigo
+     */
+    private DerivationTree.TreeNode epsilonTree(String nonTerminal) {
+        Production production = witness.get(nonTerminal);
+        List<DerivationTree.TreeNode> children = new ArrayList<>();
+        for (String symbol : rightOf(production)) {
+            children.add(epsilonTree(symbol));
+        }
+        return Rule.node(production, children);
+    }
+}
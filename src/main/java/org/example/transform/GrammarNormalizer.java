@@ -0,0 +1,113 @@
+package org.example.transform;
+
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Secuencia de transformaciones de normalización. Cada paso parte de la gramática que
+ * deja el anterior; los árboles y las producciones del resultado se pueden llevar de
+ * vuelta, paso a paso, a la gramática del usuario.
+ */
+public class GrammarNormalizer {
+
+    public enum Pass {
+        USELESS_SYMBOLS, EPSILON, UNIT, LEFT_RECURSION, LEFT_FACTORING
+    }
+
+    /**
+     * Orden por defecto: la recursión por la izquierda exige antes quitar ε y unitarias,
+     * y estas pueden dejar símbolos inútiles
+     */
+    public static final List<Pass> DEFAULT_PASSES = List.of(
+            Pass.USELESS_SYMBOLS, Pass.EPSILON, Pass.UNIT, Pass.USELESS_SYMBOLS,
+            Pass.LEFT_RECURSION, Pass.LEFT_FACTORING);
+
+    private final Grammar source;
+    private final List<GrammarTransformation> steps = new ArrayList<>();
+
+    private GrammarNormalizer(Grammar source, List<Pass> passes) {
+        this.source = source;
+        Grammar current = source;
+        for (Pass pass : passes) {
+            GrammarTransformation step = apply(pass, current);
+            steps.add(step);
+            current = step.getGrammar();
+        }
+    }
+
+    public static GrammarNormalizer of(Grammar grammar) {
+        return of(grammar, DEFAULT_PASSES);
+    }
+
+    /**
+     * Aplica los pasos indicados, en orden; la gramática original no se modifica
+     */
+    public static GrammarNormalizer of(Grammar grammar, List<Pass> passes) {
+        return new GrammarNormalizer(grammar, passes);
+    }
+
+    private static GrammarTransformation apply(Pass pass, Grammar grammar) {
+        switch (pass) {
+            case USELESS_SYMBOLS:
+                return UselessSymbolRemoval.of(grammar);
+            case EPSILON:
+                return EpsilonRemoval.of(grammar);
+            case UNIT:
+                return UnitRemoval.of(grammar);
+            case LEFT_RECURSION:
+                return LeftRecursionRemoval.of(grammar);
+            case LEFT_FACTORING:
+                return LeftFactoring.of(grammar);
+            default:
+                throw new IllegalArgumentException("Paso de normalización desconocido: " + pass);
+        }
+    }
+
+    public Grammar getSource() {
+        return source;
+    }
+
+    /**
+     * Gramática normalizada (la original si no hay pasos)
+     */
+    public Grammar getGrammar() {
+        return steps.isEmpty() ? source : steps.get(steps.size() - 1).getGrammar();
+    }
+
+    public List<GrammarTransformation> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Producciones de la gramática del usuario de las que procede una producción normalizada
+     */
+    public Set<Production> getOrigins(Production production) {
+        Set<Production> current = new LinkedHashSet<>();
+        current.add(production);
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            Set<Production> previous = new LinkedHashSet<>();
+            for (Production p : current) {
+                previous.addAll(steps.get(i).getOrigins(p));
+            }
+            current = previous;
+        }
+        return current;
+    }
+
+    /**
+     * Reescribe un árbol de la gramática normalizada en términos de la gramática del usuario
+     */
+    public DerivationTree toSource(DerivationTree tree) {
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            tree = steps.get(i).toSource(tree);
+        }
+        return tree;
+    }
+}
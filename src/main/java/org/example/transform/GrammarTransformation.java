@@ -0,0 +1,224 @@
+package org.example.transform;
+
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transformación de una gramática libre de contexto que conserva el lenguaje. Cada
+ * producción resultante recuerda de qué producciones de la gramática de partida procede
+ * y cómo rehacer, a partir de sus hijos, el fragmento de árbol equivalente; así un árbol
+ * obtenido con la gramática transformada puede presentarse en términos de la original.
+ */
+public abstract class GrammarTransformation {
+
+    protected final Grammar source;
+    private final SymbolNames names;
+    private final Map<Production, Rule> rules = new HashMap<>();
+    private Grammar grammar;
+
+    protected GrammarTransformation(Grammar source) {
+        this.source = source;
+        this.names = new SymbolNames(source);
+    }
+
+    public Grammar getSource() {
+        return source;
+    }
+
+    /**
+     * Gramática transformada
+     */
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Producciones de la gramática de partida de las que procede una producción transformada
+     */
+    public List<Production> getOrigins(Production production) {
+        Rule rule = rules.get(production);
+        return rule == null ? Collections.emptyList() : Collections.unmodifiableList(rule.origins);
+    }
+
+    /**
+     * Reescribe un árbol de la gramática transformada como árbol de la gramática de partida.
+     * El recorrido es iterativo, de abajo arriba, y no modifica el árbol recibido.
+     */
+    public DerivationTree toSource(DerivationTree tree) {
+        Deque<DerivationTree.TreeNode> nodes = new ArrayDeque<>();
+        Deque<Integer> next = new ArrayDeque<>();
+        Deque<List<DerivationTree.TreeNode>> restored = new ArrayDeque<>();
+        nodes.push(tree.getRoot());
+        next.push(0);
+        restored.push(new ArrayList<>());
+        DerivationTree.TreeNode result = null;
+
+        while (!nodes.isEmpty()) {
+            DerivationTree.TreeNode node = nodes.peek();
+            int index = next.pop();
+            if (index < node.getChildren().size()) {
+                next.push(index + 1);
+                nodes.push(node.getChildren().get(index));
+                next.push(0);
+                restored.push(new ArrayList<>());
+                continue;
+            }
+
+            nodes.pop();
+            List<DerivationTree.TreeNode> children = restored.pop();
+            DerivationTree.TreeNode rebuilt;
+            if (node.getUsedProduction() == null) {
+                rebuilt = new DerivationTree.TreeNode(node.getSymbol());
+                for (DerivationTree.TreeNode child : children) {
+                    rebuilt.addChild(child);
+                }
+            } else {
+                Rule rule = rules.get(node.getUsedProduction());
+                if (rule == null) {
+                    throw new IllegalArgumentException(
+                            "El árbol no pertenece a la gramática transformada: " + node.getUsedProduction());
+                }
+                children.removeIf(child -> child.isLeaf() && child.getSymbol().equals("ε"));
+                rebuilt = rule.apply(children);
+            }
+
+            if (restored.isEmpty()) {
+                result = rebuilt;
+            } else {
+                restored.peek().add(rebuilt);
+            }
+        }
+
+        DerivationTree converted = new DerivationTree(source.getStartSymbol());
+        converted.getRoot().setUsedProduction(result.getUsedProduction());
+        for (DerivationTree.TreeNode child : result.getChildren()) {
+            converted.getRoot().addChild(child);
+        }
+        return converted;
+    }
+
+    /**
+     * Nombre de no terminal nuevo, distinto de todos los símbolos existentes
+     */
+    protected String fresh(String base) {
+        return names.fresh(base);
+    }
+
+    /**
+     * Construye la gramática resultante a partir de las alternativas de cada no terminal,
+     * en orden; las alternativas repetidas se quedan con la primera regla
+     */
+    protected void finish(String start, Map<String, List<Alternative>> alternatives, Set<String> terminals) {
+        List<Production> productions = new ArrayList<>();
+        for (Map.Entry<String, List<Alternative>> entry : alternatives.entrySet()) {
+            Map<List<String>, Rule> unique = new LinkedHashMap<>();
+            for (Alternative alternative : entry.getValue()) {
+                unique.putIfAbsent(alternative.right, alternative.rule);
+            }
+            for (Map.Entry<List<String>, Rule> alternative : unique.entrySet()) {
+                Production production = new Production(entry.getKey(), alternative.getKey());
+                productions.add(production);
+                rules.put(production, alternative.getValue());
+            }
+        }
+        Set<String> nonTerminals = new LinkedHashSet<>(alternatives.keySet());
+        nonTerminals.add(start);
+        this.grammar = new Grammar(nonTerminals, terminals, productions, start, Grammar.GrammarType.TYPE_2);
+    }
+
+    /**
+     * Alternativas iniciales: las producciones de la gramática de partida, agrupadas por
+     * lado izquierdo (el inicial primero) y con su regla identidad
+     */
+    protected Map<String, List<Alternative>> sourceAlternatives() {
+        Map<String, List<Alternative>> alternatives = new LinkedHashMap<>();
+        alternatives.put(source.getStartSymbol(), new ArrayList<>());
+        for (Production production : source.getProductions()) {
+            alternatives.computeIfAbsent(production.getLeft(), k -> new ArrayList<>())
+                    .add(new Alternative(rightOf(production), Rule.of(production)));
+        }
+        for (String nonTerminal : source.getNonTerminals()) {
+            alternatives.computeIfAbsent(nonTerminal, k -> new ArrayList<>());
+        }
+        return alternatives;
+    }
+
+    /**
+     * Símbolos del lado derecho, vacío para una producción ε
+     */
+    protected static List<String> rightOf(Production production) {
+        return SymbolNames.rightOf(production);
+    }
+
+    /**
+     * Lado derecho de trabajo de un no terminal junto con su regla de reconstrucción
+     */
+    protected static class Alternative {
+        final List<String> right;
+        final Rule rule;
+
+        Alternative(List<String> right, Rule rule) {
+            this.right = right;
+            this.rule = rule;
+        }
+    }
+
+    /**
+     * Reconstrucción de un nodo: recibe los hijos ya reescritos (sin hojas ε) y devuelve
+     * el nodo equivalente de la gramática de partida
+     */
+    protected abstract static class Rule {
+        final List<Production> origins;
+
+        Rule(List<Production> origins) {
+            this.origins = origins;
+        }
+
+        abstract DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children);
+
+        /**
+         * Regla identidad: la producción se conserva tal cual
+         */
+        static Rule of(Production production) {
+            return new Rule(List.of(production)) {
+                @Override
+                DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                    return node(production, children);
+                }
+            };
+        }
+
+        /**
+         * Nodo del lado izquierdo de una producción con los hijos dados (ε si no hay)
+         */
+        static DerivationTree.TreeNode node(Production production, List<DerivationTree.TreeNode> children) {
+            DerivationTree.TreeNode node = new DerivationTree.TreeNode(production.getLeft());
+            node.setUsedProduction(production);
+            if (children.isEmpty()) {
+                node.addChild(new DerivationTree.TreeNode("ε"));
+            }
+            for (DerivationTree.TreeNode child : children) {
+                node.addChild(child);
+            }
+            return node;
+        }
+
+        static List<Production> concat(List<Production> first, List<Production> second) {
+            Set<Production> all = new LinkedHashSet<>(first);
+            all.addAll(second);
+            return new ArrayList<>(all);
+        }
+    }
+}
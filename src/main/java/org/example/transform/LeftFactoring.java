@@ -0,0 +1,136 @@
+package org.example.transform;
+
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Factorización por la izquierda: las alternativas de un no terminal que empiezan por el
+ * mismo símbolo, A → α β1 | α β2 (α el prefijo común más largo), pasan a A → α A',
+ * A' → β1 | β2. Se repite hasta que ningún no terminal, nuevo o no, tenga dos
+ * alternativas con el mismo primer símbolo.
+ */
+public class LeftFactoring extends GrammarTransformation {
+
+    private LeftFactoring(Grammar source) {
+        super(source);
+        Map<String, List<Alternative>> alternatives = sourceAlternatives();
+
+        Deque<String> pending = new ArrayDeque<>(alternatives.keySet());
+        while (!pending.isEmpty()) {
+            String left = pending.poll();
+            List<Alternative> group;
+            while ((group = firstGroup(alternatives.get(left))) != null) {
+                int length = commonPrefix(group);
+                List<String> prefix = group.get(0).right.subList(0, length);
+                String factored = fresh(left + "'");
+
+                List<Alternative> tails = new ArrayList<>();
+                List<Production> origins = new ArrayList<>();
+                for (Alternative alternative : group) {
+                    tails.add(new Alternative(
+                            new ArrayList<>(alternative.right.subList(length, alternative.right.size())),
+                            tail(factored, alternative.rule)));
+                    origins = Rule.concat(origins, alternative.rule.origins);
+                }
+
+                List<String> right = new ArrayList<>(prefix);
+                right.add(factored);
+                List<Alternative> list = alternatives.get(left);
+                list.set(list.indexOf(group.get(0)), new Alternative(right, head(origins, length)));
+                list.removeAll(group.subList(1, group.size()));
+
+                alternatives.put(factored, tails);
+                pending.add(factored);
+            }
+        }
+
+        finish(source.getStartSymbol(), alternatives, source.getTerminals());
+    }
+
+    /**
+     * Aplica la transformación; la gramática original no se modifica
+     */
+    public static LeftFactoring of(Grammar grammar) {
+        return new LeftFactoring(grammar);
+    }
+
+    /**
+     * Primer grupo de dos o más alternativas con el mismo primer símbolo, o null
+     */
+    private static List<Alternative> firstGroup(List<Alternative> alternatives) {
+        Map<String, List<Alternative>> groups = new LinkedHashMap<>();
+        for (Alternative alternative : alternatives) {
+            if (!alternative.right.isEmpty()) {
+                groups.computeIfAbsent(alternative.right.get(0), k -> new ArrayList<>()).add(alternative);
+            }
+        }
+        for (List<Alternative> group : groups.values()) {
+            if (group.size() > 1) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private static int commonPrefix(List<Alternative> group) {
+        int length = 1;
+        while (true) {
+            for (Alternative alternative : group) {
+                if (alternative.right.size() <= length
+                        || !alternative.right.get(length).equals(group.get(0).right.get(length))) {
+                    return length;
+                }
+            }
+            length++;
+        }
+    }
+
+    /**
+     * A → α A': completa la alternativa elegida en A' con los hijos del prefijo
+     */
+    private static Rule head(List<Production> origins, int length) {
+        return new Rule(origins) {
+            @Override
+            DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                Suffix suffix = (Suffix) children.get(length);
+                List<DerivationTree.TreeNode> full = new ArrayList<>(children.subList(0, length));
+                full.addAll(suffix.segment);
+                return suffix.rule.apply(full);
+            }
+        };
+    }
+
+    /**
+     * A' → βi: recuerda la alternativa original y los hijos del sufijo
+     */
+    private static Rule tail(String factored, Rule rule) {
+        return new Rule(rule.origins) {
+            @Override
+            DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                return new Suffix(factored, rule, new ArrayList<>(children));
+            }
+        };
+    }
+
+    /**
+     * Nodo provisional de A': alternativa original pendiente de recibir el prefijo
+     */
+    private static class Suffix extends DerivationTree.TreeNode {
+        final Rule rule;
+        final List<DerivationTree.TreeNode> segment;
+
+        Suffix(String symbol, Rule rule, List<DerivationTree.TreeNode> segment) {
+            super(symbol);
+            this.rule = rule;
+            this.segment = segment;
+        }
+    }
+}
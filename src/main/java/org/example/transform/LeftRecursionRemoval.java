@@ -0,0 +1,212 @@
+package org.example.transform;
+
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Eliminación de la recursión por la izquierda, directa e indirecta (algoritmo de Paull).
+ * Con los no terminales en orden A1..An, las producciones Ai → Aj γ con j &lt; i se
+ * sustituyen por Ai → δ γ para cada Aj → δ, y después la recursión directa
+ * A → A α | β se reescribe como A → β A', A' → α A' | ε. Requiere una gramática sin
+ * producciones ε (salvo la del inicial, si no aparece a la derecha) ni ciclos.
+ * <p>
+ * Al reconstruir árboles, la cadena de nodos A' (recursiva por la derecha) se convierte
+ * de nuevo en la cadena recursiva por la izquierda de la gramática original.
+ */
+public class LeftRecursionRemoval extends GrammarTransformation {
+
+    private LeftRecursionRemoval(Grammar source) {
+        super(source);
+        Map<String, List<Alternative>> alternatives = sourceAlternatives();
+        checkPreconditions(alternatives);
+
+        List<String> order = new ArrayList<>(alternatives.keySet());
+        for (int i = 0; i < order.size(); i++) {
+            String current = order.get(i);
+            for (int j = 0; j < i; j++) {
+                String previous = order.get(j);
+                List<Alternative> replaced = new ArrayList<>();
+                for (Alternative alternative : alternatives.get(current)) {
+                    if (alternative.right.isEmpty() || !alternative.right.get(0).equals(previous)) {
+                        replaced.add(alternative);
+                        continue;
+                    }
+                    List<String> rest = alternative.right.subList(1, alternative.right.size());
+                    for (Alternative expansion : alternatives.get(previous)) {
+                        List<String> right = new ArrayList<>(expansion.right);
+                        right.addAll(rest);
+                        replaced.add(new Alternative(right,
+                                substituted(alternative.rule, expansion.rule, expansion.right.size())));
+                    }
+                }
+                alternatives.put(current, replaced);
+            }
+            removeDirect(current, alternatives);
+        }
+
+        finish(source.getStartSymbol(), alternatives, source.getTerminals());
+    }
+
+    /**
+     * Aplica la transformación; la gramática original no se modifica
+     *
+     * @throws IllegalArgumentException si la gramática tiene producciones ε o ciclos
+     */
+    public static LeftRecursionRemoval of(Grammar grammar) {
+        return new LeftRecursionRemoval(grammar);
+    }
+
+    private void checkPreconditions(Map<String, List<Alternative>> alternatives) {
+        Set<String> onRight = new HashSet<>();
+        Map<String, Set<String>> units = new HashMap<>();
+        for (Map.Entry<String, List<Alternative>> entry : alternatives.entrySet()) {
+            for (Alternative alternative : entry.getValue()) {
+                onRight.addAll(alternative.right);
+                if (alternative.right.size() == 1 && alternatives.containsKey(alternative.right.get(0))) {
+                    units.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).add(alternative.right.get(0));
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<Alternative>> entry : alternatives.entrySet()) {
+            for (Alternative alternative : entry.getValue()) {
+                if (alternative.right.isEmpty()
+                        && (!entry.getKey().equals(source.getStartSymbol()) || onRight.contains(entry.getKey()))) {
+                    throw new IllegalArgumentException(
+                            "La eliminación de la recursión por la izquierda requiere una gramática sin producciones ε: "
+                                    + entry.getKey() + " → ε");
+                }
+            }
+        }
+
+        for (String start : units.keySet()) {
+            Set<String> reached = new HashSet<>();
+            List<String> pending = new ArrayList<>(units.get(start));
+            while (!pending.isEmpty()) {
+                String symbol = pending.remove(pending.size() - 1);
+                if (symbol.equals(start)) {
+                    throw new IllegalArgumentException(
+                            "La eliminación de la recursión por la izquierda requiere una gramática sin ciclos: "
+                                    + start + " ⇒+ " + start);
+                }
+                if (reached.add(symbol)) {
+                    pending.addAll(units.getOrDefault(symbol, Set.of()));
+                }
+            }
+        }
+    }
+
+    /**
+     * A → A α | β  pasa a  A → β A', A' → α A' | ε
+     */
+    private void removeDirect(String left, Map<String, List<Alternative>> alternatives) {
+        List<Alternative> recursive = new ArrayList<>();
+        List<Alternative> others = new ArrayList<>();
+        for (Alternative alternative : alternatives.get(left)) {
+            if (!alternative.right.isEmpty() && alternative.right.get(0).equals(left)) {
+                recursive.add(alternative);
+            } else {
+                others.add(alternative);
+            }
+        }
+        if (recursive.isEmpty()) {
+            return;
+        }
+
+        String tail = fresh(left + "'");
+        List<Alternative> heads = new ArrayList<>();
+        for (Alternative alternative : others) {
+            List<String> right = new ArrayList<>(alternative.right);
+            right.add(tail);
+            heads.add(new Alternative(right, base(alternative.rule, alternative.right.size())));
+        }
+
+        List<Alternative> tails = new ArrayList<>();
+        List<Production> origins = new ArrayList<>();
+        for (Alternative alternative : recursive) {
+            List<String> right = new ArrayList<>(alternative.right.subList(1, alternative.right.size()));
+            right.add(tail);
+            tails.add(new Alternative(right, step(tail, alternative.rule, right.size() - 1)));
+            origins = Rule.concat(origins, alternative.rule.origins);
+        }
+        tails.add(new Alternative(List.of(), new Rule(origins) {
+            @Override
+            DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                return new Chain(tail, null, List.of(), null);
+            }
+        }));
+
+        alternatives.put(left, heads);
+        alternatives.put(tail, tails);
+    }
+
+    /**
+     * Ai → δ γ: reconstruye primero el nodo Aj → δ y después Ai → Aj γ
+     */
+    private static Rule substituted(Rule outer, Rule inner, int innerLength) {
+        return new Rule(Rule.concat(outer.origins, inner.origins)) {
+            @Override
+            DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                List<DerivationTree.TreeNode> outerChildren = new ArrayList<>();
+                outerChildren.add(inner.apply(children.subList(0, innerLength)));
+                outerChildren.addAll(children.subList(innerLength, children.size()));
+                return outer.apply(outerChildren);
+            }
+        };
+    }
+
+    /**
+     * A → β A': el nodo de β se va anidando bajo cada paso A → A α de la cadena A'
+     */
+    private static Rule base(Rule rule, int length) {
+        return new Rule(rule.origins) {
+            @Override
+            DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                DerivationTree.TreeNode node = rule.apply(children.subList(0, length));
+                for (Chain chain = (Chain) children.get(length); chain.rule != null; chain = chain.next) {
+                    List<DerivationTree.TreeNode> stepChildren = new ArrayList<>();
+                    stepChildren.add(node);
+                    stepChildren.addAll(chain.segment);
+                    node = chain.rule.apply(stepChildren);
+                }
+                return node;
+            }
+        };
+    }
+
+    /**
+     * A' → α A': un paso A → A α pendiente de recibir su primer hijo
+     */
+    private static Rule step(String tail, Rule rule, int length) {
+        return new Rule(rule.origins) {
+            @Override
+            DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                return new Chain(tail, rule, new ArrayList<>(children.subList(0, length)), (Chain) children.get(length));
+            }
+        };
+    }
+
+    /**
+     * Nodo provisional de A': los pasos recursivos por la izquierda aún sin aplicar
+     */
+    private static class Chain extends DerivationTree.TreeNode {
+        final Rule rule;
+        final List<DerivationTree.TreeNode> segment;
+        final Chain next;
+
+        Chain(String symbol, Rule rule, List<DerivationTree.TreeNode> segment, Chain next) {
+            super(symbol);
+            this.rule = rule;
+            this.segment = segment;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.transform;
+
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Símbolos de trabajo de una transformación: nombres de no terminales nuevos, distintos
+ * de los de la gramática de partida y de los ya creados, y lados derechos como listas
+ */
+class SymbolNames {
+
+    private final Set<String> used = new HashSet<>();
+
+    SymbolNames(Grammar source) {
+        used.addAll(source.getTerminals());
+        used.addAll(source.getNonTerminals());
+        used.add("ε");
+        used.add("epsilon");
+    }
+
+    /**
+     * Nombre de no terminal nuevo: base, o base seguido del primer número libre
+     */
+    String fresh(String base) {
+        String name = base;
+        for (int i = 1; used.contains(name); i++) {
+            name = base + i;
+        }
+        used.add(name);
+        return name;
+    }
+
+    /**
+     * Símbolos del lado derecho, vacío para una producción ε
+     */
+    static List<String> rightOf(Production production) {
+        List<String> right = new ArrayList<>();
+        if (!production.isEpsilonProduction()) {
+            for (String symbol : production.getRightSymbols()) {
+                if (!symbol.equals("ε")) {
+                    right.add(symbol);
+                }
+            }
+        }
+        return right;
+    }
+}
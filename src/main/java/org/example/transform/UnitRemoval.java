@@ -0,0 +1,86 @@
+package org.example.transform;
+
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eliminación de producciones unitarias A → B: A recibe directamente las producciones no
+ * unitarias de cada B alcanzable por una cadena de unitarias. Al reconstruir árboles se
+ * reponen los nodos de la cadena (la más corta encontrada).
+ */
+public class UnitRemoval extends GrammarTransformation {
+
+    private UnitRemoval(Grammar source) {
+        super(source);
+        Map<String, List<Alternative>> alternatives = sourceAlternatives();
+
+        Map<String, List<Alternative>> result = new LinkedHashMap<>();
+        for (String left : alternatives.keySet()) {
+            // Búsqueda en anchura por las unitarias, con la cadena que lleva a cada no terminal
+            Map<String, List<Production>> chains = new LinkedHashMap<>();
+            Deque<String> pending = new ArrayDeque<>();
+            chains.put(left, List.of());
+            pending.add(left);
+            while (!pending.isEmpty()) {
+                String current = pending.poll();
+                for (Alternative alternative : alternatives.get(current)) {
+                    if (isUnit(alternative, alternatives) && !chains.containsKey(alternative.right.get(0))) {
+                        List<Production> chain = new ArrayList<>(chains.get(current));
+                        chain.add(alternative.rule.origins.get(0));
+                        chains.put(alternative.right.get(0), chain);
+                        pending.add(alternative.right.get(0));
+                    }
+                }
+            }
+
+            List<Alternative> list = new ArrayList<>();
+            for (Map.Entry<String, List<Production>> reached : chains.entrySet()) {
+                for (Alternative alternative : alternatives.get(reached.getKey())) {
+                    if (!isUnit(alternative, alternatives)) {
+                        list.add(reached.getValue().isEmpty()
+                                ? alternative
+                                : new Alternative(alternative.right, chained(reached.getValue(), alternative.rule)));
+                    }
+                }
+            }
+            result.put(left, list);
+        }
+
+        finish(source.getStartSymbol(), result, source.getTerminals());
+    }
+
+    /**
+     * Aplica la transformación; la gramática original no se modifica
+     */
+    public static UnitRemoval of(Grammar grammar) {
+        return new UnitRemoval(grammar);
+    }
+
+    private static boolean isUnit(Alternative alternative, Map<String, List<Alternative>> alternatives) {
+        return alternative.right.size() == 1 && alternatives.containsKey(alternative.right.get(0));
+    }
+
+    /**
+     * Regla que envuelve el nodo de la producción final en los nodos de la cadena unitaria
+     */
+    private static Rule chained(List<Production> chain, Rule last) {
+        return new Rule(Rule.concat(chain, last.origins)) {
+            @Override
+            DerivationTree.TreeNode apply(List<DerivationTree.TreeNode> children) {
+                DerivationTree.TreeNode node = last.apply(children);
+                for (int i = chain.size() - 1; i >= 0; i--) {
+                    node = Rule.node(chain.get(i), List.of(node));
+                }
+                return node;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.transform;
+
+import org.example.model.Grammar;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Eliminación de símbolos inútiles: primero los no terminales que no generan ninguna
+ * cadena de terminales (con las producciones que los usan), después los símbolos no
+ * alcanzables desde el inicial. Las producciones que quedan no cambian.
+ */
+public class UselessSymbolRemoval extends GrammarTransformation {
+
+    private UselessSymbolRemoval(Grammar source) {
+        super(source);
+        Map<String, List<Alternative>> alternatives = sourceAlternatives();
+
+        Set<String> generating = new HashSet<>(source.getTerminals());
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<Alternative>> entry : alternatives.entrySet()) {
+                if (generating.contains(entry.getKey())) {
+                    continue;
+                }
+                for (Alternative alternative : entry.getValue()) {
+                    if (generating.containsAll(alternative.right)) {
+                        generating.add(entry.getKey());
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        for (List<Alternative> list : alternatives.values()) {
+            list.removeIf(alternative -> !generating.containsAll(alternative.right));
+        }
+
+        Set<String> reachable = new HashSet<>();
+        Set<String> terminals = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        reachable.add(source.getStartSymbol());
+        pending.add(source.getStartSymbol());
+        while (!pending.isEmpty()) {
+            for (Alternative alternative : alternatives.get(pending.poll())) {
+                for (String symbol : alternative.right) {
+                    if (alternatives.containsKey(symbol)) {
+                        if (reachable.add(symbol)) {
+                            pending.add(symbol);
+                        }
+                    } else {
+                        terminals.add(symbol);
+                    }
+                }
+            }
+        }
+
+        Map<String, List<Alternative>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Alternative>> entry : alternatives.entrySet()) {
+            if (reachable.contains(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        finish(source.getStartSymbol(), result, terminals);
+    }
+
+    /**
+     * Aplica la transformación; la gramática original no se modifica
+     */
+    public static UselessSymbolRemoval of(Grammar grammar) {
+        return new UselessSymbolRemoval(grammar);
+    }
+}
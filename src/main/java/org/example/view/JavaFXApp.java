@@ -14,7 +14,7 @@ import org.example.model.Production;
 import org.example.parser.ParseResult;
 import org.example.parser.Parser;
 import org.example.parser.ParserFactory;
-import org.example.parser.Type3Parser;
+import org.example.persistence.CompiledTableCache;
 import org.example.persistence.GrammarPersistence;
 
 import java.io.File;
@@ -32,6 +32,12 @@ public class JavaFXApp extends Application {
     private Button parseButton;
     private Button generateButton;
 
+    @Override
+    public void init() {
+        // Las tablas LALR(1) y los AFD ya compilados en otra ejecución se leen de disco
+        ParserFactory.setTableCache(CompiledTableCache.createDefault());
+    }
+
     @Override
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
@@ -315,13 +321,17 @@ public class JavaFXApp extends Application {
     private void loadGrammarFromFile() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Cargar Gramática");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("JSON Files", "*.json"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("JSON Files", "*.json"),
+                new FileChooser.ExtensionFilter("BNF/EBNF Files", "*.bnf", "*.ebnf"));
 
         File file = fileChooser.showOpenDialog(primaryStage);
         if (file != null) {
             try {
-                currentGrammar = GrammarPersistence.load(file.getAbsolutePath());
+                String path = file.getAbsolutePath();
+                currentGrammar = GrammarPersistence.isBnfFile(path)
+                        ? GrammarPersistence.loadBnf(path)
+                        : GrammarPersistence.load(path);
                 updateUI();
                 statusLabel.setText("Gramática cargada: " + file.getName());
             } catch (Exception e) {
@@ -338,14 +348,20 @@ public class JavaFXApp extends Application {
 
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Guardar Gramática");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("JSON Files", "*.json"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("JSON Files", "*.json"),
+                new FileChooser.ExtensionFilter("BNF Files", "*.bnf"));
         fileChooser.setInitialFileName("grammar.json");
 
         File file = fileChooser.showSaveDialog(primaryStage);
         if (file != null) {
             try {
-                GrammarPersistence.save(currentGrammar, file.getAbsolutePath());
+                String path = file.getAbsolutePath();
+                if (GrammarPersistence.isBnfFile(path)) {
+                    GrammarPersistence.saveBnf(currentGrammar, path);
+                } else {
+                    GrammarPersistence.save(currentGrammar, path);
+                }
                 statusLabel.setText("Gramática guardada: " + file.getName());
             } catch (Exception e) {
                 showError("Error al guardar", e.getMessage());
@@ -394,9 +410,8 @@ public class JavaFXApp extends Application {
         if (hasGrammar) {
             grammarDisplay.setText(currentGrammar.toString());
 
-            if (currentGrammar.getType() == Grammar.GrammarType.TYPE_3) {
-                Type3Parser parser = new Type3Parser(currentGrammar);
-            }
+            // Construye el parser (validando la gramática) y lo deja en la caché para parseString
+            ParserFactory.createParser(currentGrammar);
         } else {
             grammarDisplay.setText("No hay gramática cargada.\n\nUse el menú para crear o cargar una gramática.");
         }
@@ -0,0 +1,91 @@
+package org.example;
+
+import org.example.model.Grammar;
+import org.example.model.Production;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Gramáticas de prueba escritas en forma compacta: cada regla es "A -> α | β | ...",
+ * el lado izquierdo de la primera regla es el símbolo inicial y son terminales todos los
+ * símbolos que no aparecen a la izquierda. Cada carácter del lado derecho es un símbolo
+ * (o se separan por espacios, como en Production), y "ε" es la cadena vacía.
+ */
+public final class TestGrammars {
+
+    /** Expresiones aritméticas LL(1): S → T X, X → + T X | ε, T → F Y, Y → * F Y | ε, F → ( S ) | a */
+    public static final String[] EXPRESSIONS = {
+            "S -> TX", "X -> +TX | ε", "T -> FY", "Y -> *FY | ε", "F -> (S) | a"
+    };
+
+    /** Expresiones con recursión por la izquierda: LALR(1) pero no LL(1) */
+    public static final String[] LEFT_RECURSIVE_EXPRESSIONS = {
+            "E -> E+T | T", "T -> T*F | F", "F -> (E) | a"
+    };
+
+    /** Gramática ambigua: S → S S | a | b */
+    public static final String[] AMBIGUOUS = {
+            "S -> SS | a | b"
+    };
+
+    /** Lineal por la derecha: a* b+ */
+    public static final String[] REGULAR = {
+            "S -> aS | bA", "A -> bA | ε"
+    };
+
+    private TestGrammars() {
+    }
+
+    public static Grammar type2(String... rules) {
+        return of(Grammar.GrammarType.TYPE_2, rules);
+    }
+
+    public static Grammar type3(String... rules) {
+        return of(Grammar.GrammarType.TYPE_3, rules);
+    }
+
+    public static Grammar of(Grammar.GrammarType type, String... rules) {
+        Set<String> nonTerminals = new LinkedHashSet<>();
+        List<Production> productions = new ArrayList<>();
+        for (String rule : rules) {
+            String[] sides = rule.split("->", 2);
+            String left = sides[0].trim();
+            nonTerminals.add(left);
+            for (String alternative : sides[1].split("\\|")) {
+                productions.add(new Production(left, alternative.trim()));
+            }
+        }
+
+        Set<String> terminals = new LinkedHashSet<>();
+        for (Production p : productions) {
+            for (String symbol : p.getRightSymbols()) {
+                if (!symbol.equals("ε") && !nonTerminals.contains(symbol)) {
+                    terminals.add(symbol);
+                }
+            }
+        }
+        String start = rules[0].split("->", 2)[0].trim();
+        return new Grammar(nonTerminals, terminals, productions, start, type);
+    }
+
+    /**
+     * Todas las cadenas de caracteres del alfabeto con longitud de 0 a maxLength, por longitud
+     */
+    public static List<String> allStrings(String alphabet, int maxLength) {
+        List<String> result = new ArrayList<>();
+        result.add("");
+        for (int start = 0; start < result.size(); start++) {
+            String prefix = result.get(start);
+            if (prefix.length() == maxLength) {
+                continue;
+            }
+            for (char c : alphabet.toCharArray()) {
+                result.add(prefix + c);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.generator;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LanguageCounterTest {
+
+    private static final int MAX_LENGTH = 7;
+
+    @Test
+    void leftRecursiveExpressions() {
+        assertCountsMatchEnumeration(TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS));
+    }
+
+    @Test
+    void ll1Expressions() {
+        assertCountsMatchEnumeration(TestGrammars.type2(TestGrammars.EXPRESSIONS));
+    }
+
+    @Test
+    void palindromes() {
+        assertCountsMatchEnumeration(TestGrammars.type2("S -> aSa | bSb | a | b | ε"));
+    }
+
+    @Test
+    void balancedParentheses() {
+        assertCountsMatchEnumeration(TestGrammars.type2("S -> (S)S | ε"));
+    }
+
+    @Test
+    void finiteLanguage() {
+        StringGenerator generator = new StringGenerator(TestGrammars.type2("S -> aA | b", "A -> c | d"));
+        assertEquals(2, generator.counter().longestLength());
+        assertEquals(List.of("b", "ac", "ad"),
+                List.of(generator.stringAt(BigInteger.ZERO), generator.stringAt(BigInteger.ONE),
+                        generator.stringAt(BigInteger.TWO)));
+        assertThrows(IllegalArgumentException.class, () -> generator.stringAt(BigInteger.valueOf(3)));
+    }
+
+    @Test
+    void ambiguousGrammarCountsDerivations() {
+        // El caso documentado: las cuentas son de derivaciones, la enumeración no repite
+        StringGenerator generator = new StringGenerator(TestGrammars.type2("S -> SS | a | b | ε"));
+        List<String> strings = generator.generateStringsOfLength(3);
+        assertEquals(8, strings.size());
+        assertEquals(8, new HashSet<>(strings).size());
+        assertEquals(BigInteger.valueOf(16), generator.countStrings(3));
+    }
+
+    /**
+     * Para una gramática no ambigua, las cuentas, la enumeración por longitud, el acceso
+     * por posición y la generación perezosa describen el mismo lenguaje en el mismo orden
+     */
+    private static void assertCountsMatchEnumeration(Grammar grammar) {
+        StringGenerator generator = new StringGenerator(grammar);
+        Set<String> generated = generator.stream()
+                .takeWhile(s -> length(s) <= MAX_LENGTH)
+                .collect(Collectors.toSet());
+
+        List<String> ordered = new ArrayList<>();
+        List<BigInteger> counts = generator.countStringsByLength(MAX_LENGTH);
+        for (int n = 0; n <= MAX_LENGTH; n++) {
+            List<String> strings = generator.generateStringsOfLength(n);
+            assertEquals(BigInteger.valueOf(strings.size()), generator.countStrings(n), "longitud " + n);
+            assertEquals(generator.countStrings(n), counts.get(n));
+            assertEquals(strings.stream().sorted().collect(Collectors.toList()), strings, "orden en longitud " + n);
+            assertEquals(strings.size(), new HashSet<>(strings).size(), "repetidas en longitud " + n);
+
+            for (int i = 0; i < strings.size(); i++) {
+                assertEquals(strings.get(i), generator.stringAt(n, BigInteger.valueOf(i)));
+                assertEquals(n, length(strings.get(i)));
+                assertTrue(generated.contains(strings.get(i)), strings.get(i));
+            }
+            int length = n;
+            BigInteger end = BigInteger.valueOf(strings.size());
+            assertThrows(IllegalArgumentException.class, () -> generator.stringAt(length, end));
+            ordered.addAll(strings);
+        }
+        assertEquals(generated.size(), ordered.size());
+
+        for (int i = 0; i < ordered.size(); i++) {
+            assertEquals(ordered.get(i), generator.stringAt(BigInteger.valueOf(i)));
+        }
+    }
+
+    private static int length(String s) {
+        return s.equals("ε") ? 0 : s.length();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.generator;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La generación en paralelo debe dar las mismas cadenas, en el mismo orden, que la
+ * secuencial, con cualquier número de hilos
+ */
+class StringGeneratorTest {
+
+    private static final int[] THREADS = {1, 2, 4};
+
+    @Test
+    void leftRecursiveExpressions() {
+        // Cotas con miles de formas: tramos de muchas porciones
+        assertParallelMatchesSequential(TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS), 20_000);
+    }
+
+    @Test
+    void ll1Expressions() {
+        assertParallelMatchesSequential(TestGrammars.type2(TestGrammars.EXPRESSIONS), 20_000);
+    }
+
+    @Test
+    void ambiguousGrammarDoesNotRepeat() {
+        // Muchas derivaciones llegan a la misma forma desde porciones distintas
+        assertParallelMatchesSequential(TestGrammars.type2(TestGrammars.AMBIGUOUS), 20_000);
+    }
+
+    @Test
+    void fewFormsPerBound() {
+        // Cotas de una o dos formas: tramos que no se reparten
+        assertParallelMatchesSequential(TestGrammars.type2("S -> aSb | ε"), 300);
+    }
+
+    @Test
+    void finiteAndEmptyLanguages() {
+        assertParallelMatchesSequential(TestGrammars.type2("S -> aA | b", "A -> c | d"), 10);
+        assertParallelMatchesSequential(TestGrammars.type2("S -> aS"), 10);
+    }
+
+    private static void assertParallelMatchesSequential(Grammar grammar, int n) {
+        StringGenerator generator = new StringGenerator(grammar);
+        List<String> expected = generator.generateStrings(n);
+        for (int threads : THREADS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(expected, generator.generateStrings(n, pool), threads + " hilos");
+            } finally {
+                pool.shutdown();
+            }
+        }
+        assertTrue(expected.size() <= n);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.generator;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniformSamplerTest {
+
+    private static final int MAX_LENGTH = 9;
+    private static final int SAMPLES = 200;
+
+    @Test
+    void samplesBelongToTheLanguage() {
+        assertSamplesAreEnumerated(TestGrammars.type2(TestGrammars.EXPRESSIONS));
+        assertSamplesAreEnumerated(TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS));
+        // Con una gramática ambigua el muestreo no es uniforme, pero sigue dando cadenas del lenguaje
+        assertSamplesAreEnumerated(TestGrammars.type2(TestGrammars.AMBIGUOUS));
+        assertSamplesAreEnumerated(TestGrammars.type2("S -> (S)S | ε"));
+    }
+
+    @Test
+    void rangeSamplesRespectTheBounds() {
+        UniformSampler sampler = new StringGenerator(TestGrammars.type2("S -> (S)S | ε")).sampler(MAX_LENGTH);
+        SplittableRandom random = new SplittableRandom(11);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            int length = length(sampler.sample(2, 8, random));
+            assertTrue(length >= 2 && length <= 8, "longitud " + length);
+            seen.add(length);
+        }
+        // Sólo hay cadenas de longitud par, y las largas son muchas más que las cortas
+        assertEquals(Set.of(2, 4, 6, 8), seen);
+
+        assertEquals("ε", sampler.sample(0, 1, random));
+        assertEquals(4, length(sampler.sample(3, 5, random)));
+        assertFalse(sampler.hasStrings(MAX_LENGTH));
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(3, 3, random));
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(5, 4, random));
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(0, MAX_LENGTH + 1, random));
+    }
+
+    @Test
+    void splitRandomsAreReproducible() {
+        UniformSampler sampler = new StringGenerator(TestGrammars.type2(TestGrammars.EXPRESSIONS)).sampler(MAX_LENGTH);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+        List<String> a1 = sampler.samples(7, SAMPLES, first.split());
+        List<String> a2 = sampler.samples(7, SAMPLES, first.split());
+        List<String> b1 = sampler.samples(7, SAMPLES, second.split());
+        List<String> b2 = sampler.samples(7, SAMPLES, second.split());
+
+        assertEquals(a1, b1);
+        assertEquals(a2, b2);
+        assertNotEquals(a1, a2);
+    }
+
+    @Test
+    void unambiguousGrammarIsSampledUniformly() {
+        // 14 cadenas de 8 paréntesis equilibrados; elegir cada producción con la misma
+        // probabilidad favorecería mucho a unas sobre otras
+        StringGenerator generator = new StringGenerator(TestGrammars.type2("S -> (S)S | ε"));
+        List<String> strings = generator.generateStringsOfLength(8);
+        assertEquals(14, strings.size());
+
+        UniformSampler sampler = generator.sampler(8);
+        SplittableRandom random = new SplittableRandom(2025);
+        int perString = 1000;
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < perString * strings.size(); i++) {
+            counts.merge(sampler.sample(8, random), 1, Integer::sum);
+        }
+        assertEquals(new HashSet<>(strings), counts.keySet());
+
+        // Chi-cuadrado con 13 grados de libertad: 34.5 es el valor crítico para p = 0.001
+        double chiSquare = 0;
+        for (int count : counts.values()) {
+            chiSquare += (double) (count - perString) * (count - perString) / perString;
+        }
+        assertTrue(chiSquare < 34.5, "chi-cuadrado " + chiSquare);
+    }
+
+    private static void assertSamplesAreEnumerated(Grammar grammar) {
+        StringGenerator generator = new StringGenerator(grammar);
+        UniformSampler sampler = generator.sampler(MAX_LENGTH);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int n = 0; n <= MAX_LENGTH; n++) {
+            Set<String> strings = new HashSet<>(generator.generateStringsOfLength(n));
+            assertEquals(!strings.isEmpty(), sampler.hasStrings(n), "longitud " + n);
+            if (strings.isEmpty()) {
+                continue;
+            }
+            for (String sample : sampler.samples(n, SAMPLES, random)) {
+                assertTrue(strings.contains(sample), sample);
+            }
+        }
+    }
+
+    /**
+     * Número de terminales de una muestra; todos los terminales de estas gramáticas son de un carácter
+     */
+    private static int length(String sample) {
+        return sample.equals("ε") ? 0 : sample.length();
+    }
+}
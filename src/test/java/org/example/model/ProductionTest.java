@@ -0,0 +1,45 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductionTest {
+
+    @Test
+    void equalityFollowsTheSymbols() {
+        assertEquals(new Production("S", "ab"), new Production("S", List.of("a", "b")));
+        assertEquals(new Production("S", "a b").hashCode(), new Production("S", List.of("a", "b")).hashCode());
+        assertEquals(new Production("S", "ε"), new Production("S", List.of()));
+        assertNotEquals(new Production("F", "id"), new Production("F", List.of("id")));
+        assertNotEquals(new Production("S", "ab"), new Production("T", "ab"));
+    }
+
+    @Test
+    void singleMultiCharacterSymbolHasNoPadding() {
+        Production production = new Production("Factor", List.of("id"));
+        assertEquals("id", production.getRight());
+        assertEquals(List.of("id"), production.getRightSymbols());
+        assertEquals("Factor → id", production.toString());
+        assertEquals(1, production.length());
+    }
+
+    @Test
+    void listConstructorJoinsWithSpaces() {
+        Production production = new Production("E", List.of("E", "+", "T"));
+        assertEquals("E + T", production.getRight());
+        assertEquals(List.of("E", "+", "T"), new Production("E", production.getRight()).getRightSymbols());
+        assertEquals("ε", new Production("A", List.of()).getRight());
+        assertEquals(0, new Production("A", List.of()).length());
+    }
+
+    @Test
+    void symbolsWithWhitespaceAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Production("S", List.of("a b")));
+        assertThrows(IllegalArgumentException.class, () -> new Production("S", List.of("")));
+    }
+}
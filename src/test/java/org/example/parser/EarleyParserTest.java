@@ -0,0 +1,79 @@
+package org.example.parser;
+
+import org.example.TestGrammars;
+import org.example.generator.StringGenerator;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EarleyParserTest {
+
+    @Test
+    void recognizesExactlyTheGeneratedLanguage() {
+        assertMatchesLanguage(TestGrammars.type2(TestGrammars.AMBIGUOUS), "ab", 7);
+        assertMatchesLanguage(TestGrammars.type2("S -> aSb | ε"), "ab", 8);
+        assertMatchesLanguage(TestGrammars.type2("S -> AB", "A -> aA | ε", "B -> bB | ε"), "ab", 6);
+        // Ciclo anulable: S → S S con S anulable
+        assertMatchesLanguage(TestGrammars.type2("S -> SS | (S) | ε"), "()", 8);
+        assertMatchesLanguage(TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS), "a+*()", 5);
+    }
+
+    @Test
+    void forestHoldsEveryDerivationOfAnAmbiguousString() {
+        EarleyParser parser = new EarleyParser(TestGrammars.type2(TestGrammars.AMBIGUOUS));
+
+        ParseResult result = parser.parse("aaaa");
+        assertTrue(result.isAccepted());
+        assertTrue(result.isAmbiguous());
+
+        // S → S S sobre 4 hojas: tantos árboles binarios como el número de Catalan C3 = 5
+        Set<String> trees = new HashSet<>();
+        for (Iterator<DerivationTree> it = result.derivationTrees(); it.hasNext(); ) {
+            DerivationTree tree = it.next();
+            assertEquals("aaaa", tree.getGeneratedString());
+            trees.add(tree.toStringIndented());
+        }
+        assertEquals(5, trees.size());
+    }
+
+    @Test
+    void unambiguousStringHasASingleTree() {
+        EarleyParser parser = new EarleyParser(TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS));
+        ParseResult result = parser.parse("a+a*a");
+        assertTrue(result.isAccepted());
+        assertFalse(result.isAmbiguous());
+        Iterator<DerivationTree> trees = result.derivationTrees();
+        assertEquals("a+a*a", trees.next().getGeneratedString());
+        assertFalse(trees.hasNext());
+    }
+
+    /**
+     * Toda cadena sobre el alfabeto de hasta maxLength símbolos se acepta si y sólo si
+     * está entre las que genera StringGenerator
+     */
+    private static void assertMatchesLanguage(Grammar grammar, String alphabet, int maxLength) {
+        Set<String> language = new StringGenerator(grammar).stream()
+                .map(s -> s.equals("ε") ? "" : s)
+                .takeWhile(s -> s.length() <= maxLength)
+                .collect(Collectors.toSet());
+        EarleyParser parser = new EarleyParser(grammar);
+        for (String input : TestGrammars.allStrings(alphabet, maxLength)) {
+            boolean member = language.contains(input);
+            assertEquals(member, parser.recognize(input), input);
+            ParseResult result = parser.parse(input);
+            assertEquals(member, result.isAccepted(), input);
+            if (member) {
+                assertEquals(input.isEmpty() ? "ε" : input, result.getDerivationTree().getGeneratedString());
+            }
+        }
+    }
+}
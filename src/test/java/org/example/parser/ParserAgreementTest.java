@@ -0,0 +1,109 @@
+package org.example.parser;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los motores de Tipo 2 (Earley, CYK, LL(1), LALR(1) y LR(1)) deben aceptar exactamente
+ * las mismas cadenas. LL(1) y LR sólo se comparan con las gramáticas cuyas tablas no
+ * tienen conflictos.
+ */
+class ParserAgreementTest {
+
+    @Test
+    void ll1Grammar() {
+        Grammar grammar = TestGrammars.type2(TestGrammars.EXPRESSIONS);
+        List<Parser> parsers = assertEngines(grammar, "a+*()", 6);
+        assertTrue(parsers.stream().anyMatch(p -> p instanceof LL1Parser));
+    }
+
+    @Test
+    void lalrGrammarThatIsNotLl1() {
+        Grammar grammar = TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS);
+        assertTrue(LL1Table.of(grammar).hasConflicts());
+        List<Parser> parsers = assertEngines(grammar, "a+*()", 6);
+        assertTrue(parsers.stream().anyMatch(p -> p instanceof LRParser));
+    }
+
+    @Test
+    void lr1GrammarThatIsNotLalr1() {
+        // Ejemplo clásico: fusionar los estados de "c" tras a y tras b produce un conflicto
+        // reducir/reducir en LALR(1) que LR(1) canónico no tiene
+        Grammar grammar = TestGrammars.type2("S -> aAd | bBd | aBe | bAe", "A -> c", "B -> c");
+        assertTrue(LRTable.of(grammar, LRTable.Mode.LALR1).hasConflicts());
+        assertFalse(LRTable.of(grammar, LRTable.Mode.LR1).hasConflicts());
+        assertEngines(grammar, "abcde", 4);
+    }
+
+    @Test
+    void grammarsWithEpsilon() {
+        assertEngines(TestGrammars.type2("S -> aSb | ε"), "ab", 8);
+        assertEngines(TestGrammars.type2("S -> AB", "A -> aA | ε", "B -> bB | c"), "abc", 6);
+    }
+
+    @Test
+    void ambiguousGrammar() {
+        Grammar grammar = TestGrammars.type2(TestGrammars.AMBIGUOUS);
+        assertTrue(LL1Table.of(grammar).hasConflicts());
+        assertTrue(LRTable.of(grammar, LRTable.Mode.LALR1).hasConflicts());
+        assertEngines(grammar, "abc", 6);
+    }
+
+    @Test
+    void factoryPicksAnEngineThatAgrees() {
+        for (String[] rules : List.of(TestGrammars.EXPRESSIONS, TestGrammars.LEFT_RECURSIVE_EXPRESSIONS,
+                TestGrammars.AMBIGUOUS)) {
+            Grammar grammar = TestGrammars.type2(rules);
+            Parser chosen = ParserFactory.createParser(grammar);
+            EarleyParser earley = new EarleyParser(grammar);
+            for (String input : TestGrammars.allStrings("ab+*()", 4)) {
+                assertEquals(earley.recognize(input), chosen.recognize(input), input);
+            }
+        }
+    }
+
+    /**
+     * Compara cada motor aplicable con Earley sobre todas las cadenas del alfabeto hasta
+     * maxLength, tanto en recognize como en parse, y comprueba la cadena de cada árbol
+     */
+    private static List<Parser> assertEngines(Grammar grammar, String alphabet, int maxLength) {
+        EarleyParser reference = new EarleyParser(grammar);
+        List<Parser> parsers = new ArrayList<>();
+        parsers.add(new CYKParser(grammar));
+        LL1Table ll1 = LL1Table.of(grammar);
+        if (!ll1.hasConflicts()) {
+            parsers.add(new LL1Parser(ll1));
+        }
+        for (LRTable.Mode mode : LRTable.Mode.values()) {
+            LRTable table = LRTable.of(grammar, mode);
+            if (!table.hasConflicts()) {
+                parsers.add(new LRParser(table));
+            }
+        }
+
+        int accepted = 0;
+        for (String input : TestGrammars.allStrings(alphabet, maxLength)) {
+            boolean expected = reference.recognize(input);
+            accepted += expected ? 1 : 0;
+            for (Parser parser : parsers) {
+                String name = parser.getClass().getSimpleName() + " '" + input + "'";
+                assertEquals(expected, parser.recognize(input), name);
+                ParseResult result = parser.parse(input);
+                assertEquals(expected, result.isAccepted(), name);
+                if (expected) {
+                    assertEquals(input.isEmpty() ? "ε" : input, result.getDerivationTree().getGeneratedString(), name);
+                }
+            }
+        }
+        assertTrue(accepted > 0, "ninguna entrada aceptada");
+        return parsers;
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.parser;
+
+import org.example.TestGrammars;
+import org.example.automaton.RegularAutomaton;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Una misma instancia de cada parser, compartida por muchos hilos que arrancan a la vez,
+ * debe dar exactamente los mismos resultados (aceptación, reconocimiento y árbol) que
+ * una ejecución en un solo hilo
+ */
+class ParserConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    private final Grammar expressions = TestGrammars.type2(TestGrammars.EXPRESSIONS);
+    private final Grammar regular = TestGrammars.type3(TestGrammars.REGULAR);
+
+    @Test
+    void type2ParserWithMemo() throws Exception {
+        assertSharedInstanceIsStable(new Type2Parser(expressions), expressionInputs());
+    }
+
+    @Test
+    void type2ParserWithoutMemo() throws Exception {
+        assertSharedInstanceIsStable(new Type2Parser(expressions, Type2Parser.NO_MEMO), expressionInputs());
+    }
+
+    @Test
+    void type3ParserWithDfa() throws Exception {
+        assertSharedInstanceIsStable(new Type3Parser(regular, RegularAutomaton.Mode.DFA), regularInputs());
+    }
+
+    @Test
+    void type3ParserWithBitParallelNfa() throws Exception {
+        assertSharedInstanceIsStable(new Type3Parser(regular, RegularAutomaton.Mode.BIT_PARALLEL), regularInputs());
+    }
+
+    @Test
+    void earleyParser() throws Exception {
+        assertSharedInstanceIsStable(new EarleyParser(expressions), expressionInputs());
+    }
+
+    @Test
+    void ll1Parser() throws Exception {
+        assertSharedInstanceIsStable(new LL1Parser(expressions), expressionInputs());
+    }
+
+    @Test
+    void lrParser() throws Exception {
+        assertSharedInstanceIsStable(new LRParser(expressions), expressionInputs());
+    }
+
+    @Test
+    void cykParser() throws Exception {
+        assertSharedInstanceIsStable(new CYKParser(expressions), expressionInputs());
+    }
+
+    /**
+     * Expresiones aceptadas y rechazadas de distintas longitudes, con una semilla fija
+     */
+    private static List<String> expressionInputs() {
+        Random random = new Random(42);
+        List<String> inputs = new ArrayList<>(List.of("a", "a+a", "(a)*a", "a+", "()", "x", ""));
+        for (int i = 0; i < 60; i++) {
+            String expression = randomExpression(random, 4);
+            inputs.add(expression);
+            // Variante casi siempre rechazada: se elimina un símbolo
+            int cut = random.nextInt(expression.length());
+            inputs.add(expression.substring(0, cut) + expression.substring(cut + 1));
+        }
+        return inputs;
+    }
+
+    private static String randomExpression(Random random, int depth) {
+        switch (depth == 0 ? 0 : random.nextInt(4)) {
+            case 1:
+                return randomExpression(random, depth - 1) + "+" + randomExpression(random, depth - 1);
+            case 2:
+                return randomExpression(random, depth - 1) + "*" + randomExpression(random, depth - 1);
+            case 3:
+                return "(" + randomExpression(random, depth - 1) + ")";
+            default:
+                return "a";
+        }
+    }
+
+    private static List<String> regularInputs() {
+        Random random = new Random(7);
+        List<String> inputs = new ArrayList<>(List.of("b", "ab", "aaabbb", "a", "ba", "c", ""));
+        for (int i = 0; i < 100; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int k = random.nextInt(40); k > 0; k--) {
+                sb.append(random.nextInt(5) == 0 ? 'b' : 'a');
+            }
+            sb.append("b".repeat(random.nextInt(3)));
+            inputs.add(sb.toString());
+        }
+        return inputs;
+    }
+
+    private static void assertSharedInstanceIsStable(Parser parser, List<String> inputs) throws Exception {
+        List<String> expected = outcomes(parser, inputs, 0);
+        assertTrue(expected.stream().anyMatch(o -> o.startsWith("true")), "ninguna entrada aceptada");
+        assertTrue(expected.stream().anyMatch(o -> o.startsWith("false")), "ninguna entrada rechazada");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<List<String>>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<List<String>> rounds = new ArrayList<>();
+                    for (int r = 0; r < ROUNDS; r++) {
+                        rounds.add(outcomes(parser, inputs, offset + r));
+                    }
+                    return rounds;
+                }));
+            }
+            start.countDown();
+            for (Future<List<List<String>>> future : futures) {
+                for (List<String> round : future.get(2, TimeUnit.MINUTES)) {
+                    assertEquals(expected, round);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Resultado de cada entrada, recorriéndolas desde una posición distinta en cada hilo
+     * para que las llamadas simultáneas mezclen entradas diferentes
+     */
+    private static List<String> outcomes(Parser parser, List<String> inputs, int offset) {
+        String[] outcomes = new String[inputs.size()];
+        for (int k = 0; k < inputs.size(); k++) {
+            int i = (k + offset) % inputs.size();
+            String input = inputs.get(i);
+            ParseResult result = parser.parse(input);
+            DerivationTree tree = result.isAccepted() ? result.getDerivationTree() : null;
+            outcomes[i] = result.isAccepted() + " " + parser.recognize(input) + " "
+                    + (tree == null ? "-" : tree.toStringIndented());
+        }
+        return List.of(outcomes);
+    }
+}
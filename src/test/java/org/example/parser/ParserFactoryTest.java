@@ -0,0 +1,66 @@
+package org.example.parser;
+
+import org.example.TestGrammars;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParserFactoryTest {
+
+    @Test
+    void cachedParserIgnoresLaterEditsOfItsGrammar() {
+        Grammar grammar = TestGrammars.type2(TestGrammars.REGULAR);
+        Parser parser = ParserFactory.createParser(grammar);
+        redirectStart(grammar);
+
+        // Otra gramática con el contenido original recibe la misma instancia
+        assertSame(parser, ParserFactory.createParser(TestGrammars.type2(TestGrammars.REGULAR)));
+        assertRootIsOriginalStart(parser);
+    }
+
+    @Test
+    void parsersUseTheCompiledStartSymbol() {
+        Grammar type2 = TestGrammars.type2(TestGrammars.REGULAR);
+        Grammar type3 = TestGrammars.type3(TestGrammars.REGULAR);
+        List<Parser> parsers = List.of(new Type2Parser(type2), new Type2Parser(type2, Type2Parser.NO_MEMO),
+                new LL1Parser(type2), new LRParser(type2), new EarleyParser(type2), new Type3Parser(type3));
+        redirectStart(type2);
+        redirectStart(type3);
+        for (Parser parser : parsers) {
+            assertRootIsOriginalStart(parser);
+        }
+    }
+
+    /**
+     * Edita la gramática: nuevo inicial Z → S
+     */
+    private static void redirectStart(Grammar grammar) {
+        Set<String> nonTerminals = new LinkedHashSet<>(grammar.getNonTerminals());
+        nonTerminals.add("Z");
+        List<Production> productions = new ArrayList<>(grammar.getProductions());
+        productions.add(new Production("Z", "S"));
+        grammar.setNonTerminals(nonTerminals);
+        grammar.setProductions(productions);
+        grammar.setStartSymbol("Z");
+    }
+
+    private static void assertRootIsOriginalStart(Parser parser) {
+        for (String input : new String[]{"aab", "b", "abbb"}) {
+            ParseResult result = parser.parse(input);
+            assertTrue(result.isAccepted(), parser.getClass().getSimpleName() + " " + input);
+            DerivationTree tree = result.getDerivationTree();
+            assertEquals("S", tree.getRoot().getSymbol(), parser.getClass().getSimpleName());
+            assertEquals(input, tree.getGeneratedString());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.parser;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Type2ParserTest {
+
+    /** S → A B, A → a A | ε, B → b B | c: A es ε al principio de casi todas las entradas */
+    private final Grammar nullablePrefix = TestGrammars.type2("S -> AB", "A -> aA | ε", "B -> bB | c");
+
+    @Test
+    void epsilonIsAllowedAtTheStartOfNonEmptyInput() {
+        for (Type2Parser parser : parsers(nullablePrefix)) {
+            for (String input : new String[]{"c", "bbbbbbbc", "ac", "aabc"}) {
+                assertTrue(parser.recognize(input), input);
+                ParseResult result = parser.parse(input);
+                assertTrue(result.isAccepted(), input);
+                assertEquals(input, result.getDerivationTree().getGeneratedString());
+            }
+            for (String input : new String[]{"ab", "ca", "b"}) {
+                assertFalse(parser.recognize(input), input);
+            }
+        }
+    }
+
+    @Test
+    void epsilonAlternativeIsTriedLast() {
+        Grammar grammar = TestGrammars.type2("S -> ε | aS");
+        for (Type2Parser parser : parsers(grammar)) {
+            assertTrue(parser.recognize("aaa"));
+            assertTrue(parser.recognize(""));
+            assertFalse(parser.recognize("aab"));
+        }
+    }
+
+    @Test
+    void packratAgreesWithEarleyOnNullablePrefixes() {
+        Type2Parser packrat = new Type2Parser(nullablePrefix);
+        EarleyParser earley = new EarleyParser(nullablePrefix);
+        for (String input : new String[]{"", "c", "bc", "abc", "aabbc", "ab", "cc", "abcb"}) {
+            assertEquals(earley.recognize(input), packrat.recognize(input), input);
+        }
+    }
+
+    @Test
+    void packratGrowsLeftRecursiveSeeds() {
+        Type2Parser parser = new Type2Parser(TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS));
+        assertTrue(parser.isMemoizing());
+        for (String input : new String[]{"a", "a+a", "a+a*a", "(a+a)*a+a"}) {
+            ParseResult result = parser.parse(input);
+            assertTrue(result.isAccepted(), input);
+            assertEquals(input, result.getDerivationTree().getGeneratedString());
+        }
+        assertFalse(parser.recognize("a+"));
+        assertFalse(parser.recognize("(a"));
+    }
+
+    private static Type2Parser[] parsers(Grammar grammar) {
+        return new Type2Parser[]{new Type2Parser(grammar), new Type2Parser(grammar, Type2Parser.NO_MEMO)};
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.persistence;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.example.model.Production;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BnfFormatTest {
+
+    private static final String EXPRESSIONS = String.join("\n",
+            "// Expresiones con listas de argumentos",
+            "Expr   ::= Expr \"+\" Term | Term ;",
+            "Term   -> \"id\" | '(' Expr ')' | \"f\" \"(\" <arg-list> \")\"",
+            "<arg-list> → ε | Expr | Expr \",\" <arg-list>",
+            "");
+
+    @Test
+    void loadsRulesAndClassifiesSymbols() throws IOException {
+        Grammar grammar = load(EXPRESSIONS);
+        assertEquals("Expr", grammar.getStartSymbol());
+        assertEquals(Set.of("Expr", "Term", "arg-list"), grammar.getNonTerminals());
+        assertEquals(Set.of("+", "id", "(", ")", "f", ","), grammar.getTerminals());
+        assertEquals(Grammar.GrammarType.TYPE_2, grammar.getType());
+        assertEquals(List.of(
+                "Expr → Expr + Term", "Expr → Term",
+                "Term → id", "Term → ( Expr )", "Term → f ( arg-list )",
+                "arg-list → ε", "arg-list → Expr", "arg-list → Expr , arg-list"), rules(grammar));
+        // Un terminal de varios caracteres es un único símbolo
+        assertEquals(List.of("id"), grammar.getProductions().get(2).getRightSymbols());
+    }
+
+    @Test
+    void saveAndReloadKeepTheGrammar() throws IOException {
+        assertSameGrammar(load(EXPRESSIONS), reload(load(EXPRESSIONS)));
+        assertSameGrammar(TestGrammars.type2(TestGrammars.EXPRESSIONS), reload(TestGrammars.type2(TestGrammars.EXPRESSIONS)));
+
+        // Comillas, barras y > dentro de los símbolos se escapan al escribir
+        Grammar tricky = load("<a\\>b> ::= '\"' <a\\>b> \"\\\\\" | \"it's\" | 'x\\'y' ;");
+        assertEquals(Set.of("\"", "\\", "it's", "x'y"), tricky.getTerminals());
+        assertEquals(Set.of("a>b"), tricky.getNonTerminals());
+        String saved = save(tricky);
+        assertTrue(saved.startsWith("<a\\>b> ::= \"\\\"\" <a\\>b> \"\\\\\""), saved);
+        assertSameGrammar(tricky, load(saved));
+    }
+
+    @Test
+    void starBecomesARightRecursiveRule() throws IOException {
+        assertEquals(List.of("S → S_rep b", "S_rep → a S_rep", "S_rep → ε"), rules(load("S ::= \"a\"* \"b\" ;")));
+    }
+
+    @Test
+    void plusBecomesTheSymbolFollowedByItsStar() throws IOException {
+        assertEquals(List.of("S → a S_rep", "S_rep → a S_rep", "S_rep → ε"), rules(load("S ::= \"a\"+ ;")));
+    }
+
+    @Test
+    void optionalBecomesARuleWithEpsilon() throws IOException {
+        assertEquals(List.of("S → S_opt b", "S_opt → a", "S_opt → ε"), rules(load("S ::= \"a\"? \"b\" ;")));
+    }
+
+    @Test
+    void groupsBecomeRulesUnlessTheyAreASingleSequence() throws IOException {
+        assertEquals(List.of("S → S_grp c", "S_grp → a", "S_grp → b"), rules(load("S ::= (\"a\" | \"b\") \"c\" ;")));
+        assertEquals(List.of("S → a b c"), rules(load("S ::= (\"a\" \"b\") \"c\" ;")));
+        assertEquals(List.of("S → S_rep", "S_grp → a b", "S_rep → S_grp S_rep", "S_rep → ε"),
+                rules(load("S ::= (\"a\" \"b\")* ;")));
+    }
+
+    @Test
+    void repeatedConstructsShareTheirRule() throws IOException {
+        assertEquals(List.of("S → S_rep", "S → b S_rep", "S_rep → a S_rep", "S_rep → ε"),
+                rules(load("S ::= \"a\"* | \"b\" \"a\"* ;")));
+    }
+
+    @Test
+    void freshNamesAvoidExistingSymbols() throws IOException {
+        Grammar grammar = load("S ::= \"a\"? B | \"b\"? \"S_rep\" \"c\"* ;\nB ::= S_opt S_opt1 ;\nS_opt ::= \"x\" ;\nS_opt1 ::= \"y\" ;");
+        assertTrue(grammar.getNonTerminals().containsAll(Set.of("S_opt2", "S_opt3", "S_rep1")), grammar.getNonTerminals().toString());
+        assertTrue(grammar.getTerminals().contains("S_rep"));
+        assertEquals(List.of("S_opt2", "B"), grammar.getProductions().get(0).getRightSymbols());
+        assertEquals(List.of("S_opt3", "S_rep", "S_rep1"), grammar.getProductions().get(1).getRightSymbols());
+    }
+
+    @Test
+    void typeIsInferredUnlessGiven() throws IOException {
+        String regular = "S ::= \"a\" S | \"b\" A ;\nA ::= \"b\" | ε ;";
+        assertEquals(Grammar.GrammarType.TYPE_3, load(regular).getType());
+        assertEquals(Grammar.GrammarType.TYPE_2, GrammarPersistence.loadBnf(new StringReader(regular), Grammar.GrammarType.TYPE_2).getType());
+        assertEquals(Grammar.GrammarType.TYPE_2, load("S ::= S \"a\" | \"b\" ;").getType());
+        assertEquals(Grammar.GrammarType.TYPE_2, load("S ::= \"a\" \"b\" S | ε ;").getType());
+    }
+
+    @Test
+    void symbolUsedAsTerminalAndNonTerminalIsRejected() {
+        // El error señala el primer uso como terminal
+        assertErrorAt("S ::= \"a\" a ;\na ::= \"x\" ;", 1, 7);
+    }
+
+    @Test
+    void syntaxErrorsReportTheirPosition() {
+        assertErrorAt("S ::= (\"a\" \"b\" ;", 1, 16);
+        assertErrorAt("S ::= \"a\" ;\nT = \"b\" ;", 2, 3);
+        assertErrorAt("S ::= \"a\n\" ;", 1, 7);
+        assertErrorAt("S ::= \"a\" # ;", 1, 11);
+        assertErrorAt("// sólo un comentario\n", 2, 1);
+    }
+
+    private static void assertErrorAt(String bnf, int line, int column) {
+        GrammarPersistence.FormatException e = assertThrows(GrammarPersistence.FormatException.class, () -> load(bnf));
+        assertEquals(line + ":" + column, e.getLine() + ":" + e.getColumn(), e.getMessage());
+    }
+
+    private static void assertSameGrammar(Grammar expected, Grammar actual) {
+        assertEquals(expected.getStartSymbol(), actual.getStartSymbol());
+        assertEquals(expected.getNonTerminals(), actual.getNonTerminals());
+        assertEquals(expected.getTerminals(), actual.getTerminals());
+        assertEquals(Set.copyOf(expected.getProductions()), Set.copyOf(actual.getProductions()));
+    }
+
+    private static List<String> rules(Grammar grammar) {
+        List<String> rules = new ArrayList<>();
+        for (Production production : grammar.getProductions()) {
+            rules.add(production.toString());
+        }
+        return rules;
+    }
+
+    private static Grammar reload(Grammar grammar) throws IOException {
+        return load(save(grammar));
+    }
+
+    private static String save(Grammar grammar) throws IOException {
+        StringWriter writer = new StringWriter();
+        GrammarPersistence.saveBnf(grammar, writer);
+        return writer.toString();
+    }
+
+    private static Grammar load(String bnf) throws IOException {
+        return GrammarPersistence.loadBnf(new StringReader(bnf), null);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.persistence;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.example.parser.LRTable;
+import org.example.parser.Parser;
+import org.example.parser.ParserFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledTableCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void restoreFactory() {
+        ParserFactory.setTableCache(null);
+        ParserFactory.clearCache();
+        System.clearProperty(CompiledTableCache.DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    void lrTablesAreStoredOnFirstUseAndMappedAfterwards() {
+        Grammar grammar = TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS);
+        CompiledTableCache cache = new CompiledTableCache(directory);
+        assertNull(cache.loadLRTable(grammar, LRTable.Mode.LALR1));
+
+        LRTable built = cache.lrTable(grammar, LRTable.Mode.LALR1);
+        LRTable loaded = cache.loadLRTable(grammar, LRTable.Mode.LALR1);
+        assertNotNull(loaded);
+        assertEquals(built.getStateCount(), loaded.getStateCount());
+        assertArrayEquals(built.getActionTable(), loaded.getActionTable());
+        assertArrayEquals(built.getGotoTable(), loaded.getGotoTable());
+    }
+
+    @Test
+    void dfaIsStoredOnFirstUseAndMappedAfterwards() {
+        Grammar grammar = TestGrammars.type3(TestGrammars.REGULAR);
+        CompiledTableCache cache = new CompiledTableCache(directory);
+        assertNull(cache.loadDFA(grammar));
+
+        cache.automaton(grammar);
+        assertNotNull(cache.loadDFA(grammar));
+        assertTrue(cache.automaton(grammar).accepts("aab"));
+        assertFalse(cache.automaton(grammar).accepts("aba"));
+    }
+
+    @Test
+    void factoryBuildsParsersFromTheDiskCache() {
+        Grammar grammar = TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS);
+        ParserFactory.setTableCache(new CompiledTableCache(directory));
+        Parser cold = ParserFactory.createParser(grammar);
+        assertNotNull(ParserFactory.getTableCache().loadLRTable(grammar, LRTable.Mode.LALR1));
+
+        // Un arranque nuevo: la caché en memoria está vacía y las tablas salen del disco
+        ParserFactory.clearCache();
+        Parser warm = ParserFactory.createParser(grammar);
+        for (String input : new String[]{"a", "a+a*a", "(a+a)*a", "a+", "()"}) {
+            assertEquals(cold.recognize(input), warm.recognize(input), input);
+        }
+    }
+
+    @Test
+    void defaultDirectoryFollowsTheSystemProperty() {
+        System.setProperty(CompiledTableCache.DIRECTORY_PROPERTY, directory.toString());
+        assertEquals(directory, CompiledTableCache.createDefault().getDirectory());
+
+        System.setProperty(CompiledTableCache.DIRECTORY_PROPERTY, "");
+        assertNull(CompiledTableCache.createDefault());
+
+        System.clearProperty(CompiledTableCache.DIRECTORY_PROPERTY);
+        assertEquals(Path.of(System.getProperty("user.home"), ".project_grammar", "tables"),
+                CompiledTableCache.createDefault().getDirectory());
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.persistence;
+
+import org.example.TestGrammars;
+import org.example.model.Grammar;
+import org.example.model.Production;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GrammarPersistenceTest {
+
+    @Test
+    void roundTripKeepsQuotesBackslashesAndBrackets() throws IOException {
+        // Terminales que son sintaxis de JSON: comillas, barra invertida, corchetes, llaves, comas y dos puntos
+        Grammar grammar = new Grammar(Set.of("S"), Set.of("\"", "\\", "[", "]", "{", "}", ",", ":"), List.of(
+                new Production("S", List.of("\"", "S", "\"")),
+                new Production("S", List.of("[", "S", "]")),
+                new Production("S", List.of("{", "}")),
+                new Production("S", List.of("\\")),
+                new Production("S", List.of(":", ",", "S"))),
+                "S", Grammar.GrammarType.TYPE_2);
+
+        Grammar loaded = roundTrip(grammar);
+        assertSameGrammar(grammar, loaded);
+    }
+
+    @Test
+    void roundTripKeepsMultiCharacterSymbols() throws IOException {
+        Grammar grammar = new Grammar(Set.of("E", "F"), Set.of("id", "+", "a", "b"), List.of(
+                new Production("E", List.of("E", "+", "F")),
+                new Production("E", List.of("F")),
+                new Production("F", List.of("id")),
+                new Production("F", "ab"),
+                new Production("F", List.of())),
+                "E", Grammar.GrammarType.TYPE_2);
+
+        String json = save(grammar);
+        // Sólo el lado derecho que sería ambiguo como texto se escribe como lista
+        assertTrue(json.contains("\"right\": [\"id\"]"), json);
+        assertTrue(json.contains("\"right\": \"E + F\""), json);
+        assertTrue(json.contains("\"right\": \"ab\""), json);
+        assertSameGrammar(grammar, load(json));
+    }
+
+    @Test
+    void emptyRightSidesAreEpsilon() throws IOException {
+        Grammar grammar = load("{\"type\": \"TYPE_2\", \"startSymbol\": \"S\", \"nonTerminals\": [\"S\"],"
+                + " \"terminals\": [\"a\"], \"productions\": ["
+                + "{\"left\": \"S\", \"right\": \"\"}, {\"left\": \"S\"}, {\"left\": \"S\", \"right\": []},"
+                + " {\"left\": \"S\", \"right\": \"aS\"}]}");
+        List<Production> productions = grammar.getProductions();
+        assertEquals(4, productions.size());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(productions.get(i).isEpsilonProduction(), productions.get(i).toString());
+        }
+        assertEquals(List.of("a", "S"), productions.get(3).getRightSymbols());
+    }
+
+    @Test
+    void escapesAreDecodedAndUnknownFieldsSkipped() throws IOException {
+        Grammar grammar = load("{\"productions\": [{\"right\": \"\\u0061\\\"\", \"left\": \"S\", \"extra\": {\"x\": [1, 2.5e3, true, null]}}],"
+                + " \"comment\": \"}]\", \"type\": \"TYPE_2\", \"startSymbol\": \"S\","
+                + " \"nonTerminals\": [\"S\"], \"terminals\": [\"a\", \"\\\"\"]}");
+        assertEquals(List.of("a", "\""), grammar.getProductions().get(0).getRightSymbols());
+        assertEquals(Set.of("a", "\""), grammar.getTerminals());
+        assertEquals(Grammar.GrammarType.TYPE_2, grammar.getType());
+    }
+
+    @Test
+    void loadsTheGrammarsItSaves() throws IOException {
+        for (String[] rules : List.of(TestGrammars.EXPRESSIONS, TestGrammars.LEFT_RECURSIVE_EXPRESSIONS, TestGrammars.REGULAR)) {
+            Grammar grammar = TestGrammars.type2(rules);
+            assertSameGrammar(grammar, roundTrip(grammar));
+        }
+    }
+
+    @Test
+    void errorsReportTheirPosition() {
+        // Falta la coma entre campos: el error señala el campo siguiente
+        assertErrorAt("{\n  \"type\": \"TYPE_2\",\n  \"productions\": [\n    {\"left\": \"S\" \"right\": \"a\"}\n  ]\n}", 4, 18);
+        // Cadena sin cerrar: se señala la comilla de apertura
+        assertErrorAt("{\"type\": \"TYPE_2\",\n \"productions\": [{\"left\": \"S}]}", 2, 27);
+        // Escape no válido: se señala la barra
+        assertErrorAt("{\"type\": \"TYP\\x\"}", 1, 14);
+        // Tipo desconocido: se señala su valor
+        assertErrorAt("{\n\"type\":   \"TYPE_9\", \"productions\": []}", 2, 11);
+        // Producción sin lado izquierdo: se señala su llave
+        assertErrorAt("{\"type\": \"TYPE_2\", \"productions\": [{\"left\": \"S\"},\n  {\"right\": \"a\"}]}", 2, 3);
+        // Contenido tras el objeto
+        assertErrorAt("{\"type\": \"TYPE_2\", \"productions\": []}\n x", 2, 2);
+        // Falta un campo obligatorio: se señala el final
+        assertErrorAt("{\"type\": \"TYPE_2\"}\n", 2, 1);
+        // Símbolo con espacios en una lista de símbolos
+        assertErrorAt("{\"type\": \"TYPE_2\", \"productions\": [{\"left\": \"S\", \"right\": [\"a\", \"b c\"]}]}", 1, 65);
+    }
+
+    private static void assertErrorAt(String json, int line, int column) {
+        GrammarPersistence.FormatException e = assertThrows(GrammarPersistence.FormatException.class, () -> load(json));
+        assertEquals(line + ":" + column, e.getLine() + ":" + e.getColumn(), e.getMessage());
+    }
+
+    private static void assertSameGrammar(Grammar expected, Grammar actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getStartSymbol(), actual.getStartSymbol());
+        assertEquals(expected.getNonTerminals(), actual.getNonTerminals());
+        assertEquals(expected.getTerminals(), actual.getTerminals());
+        assertEquals(expected.getProductions(), actual.getProductions());
+        assertEquals(expected.contentHash(), actual.contentHash());
+    }
+
+    private static Grammar roundTrip(Grammar grammar) throws IOException {
+        return load(save(grammar));
+    }
+
+    private static String save(Grammar grammar) throws IOException {
+        StringWriter writer = new StringWriter();
+        GrammarPersistence.save(grammar, writer);
+        return writer.toString();
+    }
+
+    private static Grammar load(String json) throws IOException {
+        return GrammarPersistence.load(new StringReader(json));
+    }
+}
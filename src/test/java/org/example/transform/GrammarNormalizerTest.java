@@ -0,0 +1,134 @@
+package org.example.transform;
+
+import org.example.TestGrammars;
+import org.example.generator.StringGenerator;
+import org.example.model.DerivationTree;
+import org.example.model.Grammar;
+import org.example.model.Production;
+import org.example.parser.EarleyParser;
+import org.example.parser.ParseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Cada árbol obtenido con la gramática normalizada, llevado de vuelta con toSource, debe
+ * ser un árbol válido de la gramática del usuario cuya cadena sea la entrada
+ */
+class GrammarNormalizerTest {
+
+    private static final int STRINGS = 40;
+
+    @Test
+    void directLeftRecursion() {
+        Grammar source = TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS);
+        assertNoDirectLeftRecursion(GrammarNormalizer.of(source).getGrammar());
+        assertTreesMapBack(source);
+    }
+
+    @Test
+    void indirectLeftRecursion() {
+        Grammar source = TestGrammars.type2("S -> Aa | b", "A -> Sc | d");
+        assertNoDirectLeftRecursion(GrammarNormalizer.of(source).getGrammar());
+        assertTreesMapBack(source);
+    }
+
+    @Test
+    void epsilonProductions() {
+        assertTreesMapBack(TestGrammars.type2("S -> aSb | ε"));
+        assertTreesMapBack(TestGrammars.type2("S -> AB", "A -> aA | ε", "B -> bB | ε"));
+    }
+
+    @Test
+    void unitCycle() {
+        assertTreesMapBack(TestGrammars.type2("S -> A | aS", "A -> B | b", "B -> S | c"));
+    }
+
+    @Test
+    void leftFactoring() {
+        assertTreesMapBack(TestGrammars.type2("S -> abS | abc | ad | a"));
+    }
+
+    @Test
+    void everyPassTogether() {
+        assertTreesMapBack(TestGrammars.type2("S -> SA | A | ε", "A -> aAb | ab | aB", "B -> B | c | ε", "U -> u"));
+    }
+
+    @Test
+    void normalizedProductionsComeFromSourceProductions() {
+        Grammar source = TestGrammars.type2(TestGrammars.LEFT_RECURSIVE_EXPRESSIONS);
+        GrammarNormalizer normalizer = GrammarNormalizer.of(source);
+        for (Production production : normalizer.getGrammar().getProductions()) {
+            for (Production origin : normalizer.getOrigins(production)) {
+                assertTrue(source.getProductions().contains(origin), origin.toString());
+            }
+        }
+    }
+
+    private static void assertTreesMapBack(Grammar source) {
+        GrammarNormalizer normalizer = GrammarNormalizer.of(source);
+        EarleyParser normalized = new EarleyParser(normalizer.getGrammar());
+        EarleyParser original = new EarleyParser(source);
+
+        List<String> inputs = new ArrayList<>(new StringGenerator(source).generateStrings(STRINGS));
+        assertTrue(inputs.size() > 1, "la gramática de prueba genera muy pocas cadenas");
+        for (String input : inputs) {
+            String text = input.equals("ε") ? "" : input;
+            ParseResult result = normalized.parse(text);
+            assertTrue(result.isAccepted(), "la gramática normalizada rechaza '" + text + "'");
+
+            DerivationTree tree = normalizer.toSource(result.getDerivationTree());
+            assertValidTree(source, tree);
+            assertEquals(input, tree.getGeneratedString());
+        }
+
+        // Mismo lenguaje: las entradas rechazadas también coinciden
+        for (String input : new String[]{"ab", "ba", "aab", "abb", "ca", "bca", "x"}) {
+            assertEquals(original.recognize(input), normalized.recognize(input), input);
+        }
+    }
+
+    private static void assertNoDirectLeftRecursion(Grammar grammar) {
+        for (Production production : grammar.getProductions()) {
+            assertFalse(production.getRightSymbols().get(0).equals(production.getLeft()),
+                    "recursión por la izquierda: " + production);
+        }
+    }
+
+    /**
+     * Comprueba que cada nodo interno usa una producción de la gramática, con su lado
+     * izquierdo como símbolo y su lado derecho como hijos, y que las hojas son terminales
+     */
+    private static void assertValidTree(Grammar grammar, DerivationTree tree) {
+        assertEquals(grammar.getStartSymbol(), tree.getRoot().getSymbol());
+        List<DerivationTree.TreeNode> pending = new ArrayList<>();
+        pending.add(tree.getRoot());
+        while (!pending.isEmpty()) {
+            DerivationTree.TreeNode node = pending.remove(pending.size() - 1);
+            if (node.isLeaf()) {
+                if (!node.getSymbol().equals("ε") && !grammar.isTerminal(node.getSymbol())) {
+                    fail("hoja que no es terminal: " + node.getSymbol());
+                }
+                continue;
+            }
+            Production production = node.getUsedProduction();
+            assertNotNull(production, "nodo sin producción: " + node.getSymbol());
+            assertTrue(grammar.getProductions().contains(production), "producción ajena: " + production);
+            assertEquals(production.getLeft(), node.getSymbol());
+
+            List<String> children = new ArrayList<>();
+            for (DerivationTree.TreeNode child : node.getChildren()) {
+                children.add(child.getSymbol());
+            }
+            assertEquals(production.getRightSymbols(), children, "hijos de " + production);
+            pending.addAll(node.getChildren());
+        }
+    }
+}